@@ -0,0 +1,384 @@
+package ca.brocku.cosc.duckyjump;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import ca.brocku.cosc.duckyjump.GameObjects.SkinManager.Skin;
+import ca.brocku.cosc.duckyjump.core.DeathCause;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the latency of the calls that the game makes to the database, before and after the
+ * database kept its connection open. Before, every call opened the database, ran its statements
+ * one at a time without a transaction and closed it again (reproduced here by OpenPerCallDatabase).
+ * After, a single write-ahead logging connection runs compiled statements (see Database).
+ *
+ * The scoreboard is measured on its own, with SCOREBOARD_SCORES scores: reading every score into
+ * strings at once, as it used to, against reading the first page and a page deep into the list.
+ *
+ * The history is measured with HISTORY_GAMES games, written in batches of HISTORY_BATCH like the
+ * games that are queued behind the game: reading the summary that is kept up to date, against
+ * working the same statistics out of the whole history. The two must agree.
+ *
+ * Each side uses its own database file, which is deleted afterwards, so the scores of the app are
+ * not touched. The results are written to logcat under the DatabaseBenchmark tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseBenchmark {
+
+    private static final String TAG = "DatabaseBenchmark";
+    private static final String BEFORE_NAME = "benchmarkBefore";
+    private static final String AFTER_NAME = "benchmarkAfter";
+    private static final int WARM_UP_CALLS = 20;
+    private static final int MEASURE_CALLS = 200;
+    private static final int SCOREBOARD_SCORES = 100000;
+    private static final int SCOREBOARD_PAGE = 50;
+    private static final int HISTORY_GAMES = 20000;
+    private static final int HISTORY_BATCH = 10;
+
+    private Context context;
+    private Database database;
+    private Store before, after;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getTargetContext();
+        context.deleteDatabase(BEFORE_NAME);
+        context.deleteDatabase(AFTER_NAME);
+        before = new OpenPerCallDatabase(context, BEFORE_NAME);
+        database = new Database(context, AFTER_NAME);
+        after = new Store() {
+            @Override
+            public void saveScore(int points) {
+                database.saveScore(points, System.currentTimeMillis());
+            }
+
+            @Override
+            public int getHighScore() {
+                return database.getHighScore();
+            }
+
+            @Override
+            public Skin getSkin() {
+                return database.getSkin();
+            }
+
+            @Override
+            public void updateSkin(String skin) {
+                database.updateSkin(skin);
+            }
+
+            @Override
+            public void close() {
+                database.close();
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        before.close();
+        after.close();
+        context.deleteDatabase(BEFORE_NAME);
+        context.deleteDatabase(AFTER_NAME);
+    }
+
+    @Test
+    public void saveScore() {
+        measure("saveScore", new Call() {
+            @Override
+            public void run(Store store, int i) {
+                store.saveScore(i);
+            }
+        });
+    }
+
+    @Test
+    public void getHighScore() {
+        for (int i = 0; i < 100; i++) {
+            before.saveScore(i);
+            after.saveScore(i);
+        }
+        measure("getHighScore", new Call() {
+            @Override
+            public void run(Store store, int i) {
+                store.getHighScore();
+            }
+        });
+        assertEquals(before.getHighScore(), after.getHighScore());
+    }
+
+    @Test
+    public void getSkin() {
+        before.updateSkin(Skin.PURPLE.name());
+        after.updateSkin(Skin.PURPLE.name());
+        measure("getSkin", new Call() {
+            @Override
+            public void run(Store store, int i) {
+                store.getSkin();
+            }
+        });
+        assertEquals(before.getSkin(), after.getSkin());
+    }
+
+    @Test
+    public void updateSkin() {
+        final Skin[] skins = Skin.values();
+        measure("updateSkin", new Call() {
+            @Override
+            public void run(Store store, int i) {
+                store.updateSkin(skins[i % skins.length].name());
+            }
+        });
+        assertEquals(before.getSkin(), after.getSkin());
+    }
+
+    @Test
+    public void scoreboard() {
+        List<Score> scores = new ArrayList<>(SCOREBOARD_SCORES);
+        for (int i = 0; i < SCOREBOARD_SCORES; i++)
+            scores.add(new Score(i, i));
+        database.saveGames(new ArrayList<GameResult>(), scores);
+
+        long start = System.nanoTime();
+        List<ArrayList<String>> all = new ArrayList<>();
+        Cursor cursor = database.getReadableDatabase().rawQuery(
+                "SELECT score, date FROM scores ORDER BY score DESC;", null);
+        while (cursor.moveToNext()) {
+            ArrayList<String> entry = new ArrayList<>();
+            entry.add(cursor.getString(0));
+            entry.add(cursor.getString(1));
+            all.add(entry);
+        }
+        cursor.close();
+        long allNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<Score> page = database.queryScores(null, SCOREBOARD_PAGE);
+        long firstNanos = System.nanoTime() - start;
+        assertEquals(SCOREBOARD_SCORES - 1, page.get(0).getPoints());
+
+        Score middle = new Score(SCOREBOARD_SCORES / 2 + 1, SCOREBOARD_SCORES / 2, 0);
+        start = System.nanoTime();
+        page = database.queryScores(middle, SCOREBOARD_PAGE);
+        long deepNanos = System.nanoTime() - start;
+        assertEquals(SCOREBOARD_SCORES / 2 - 1, page.get(0).getPoints());
+
+        Log.i(TAG, String.format(Locale.CANADA,
+                "scoreboard of %d: every score %dms, first page %dus, middle page %dus",
+                all.size(), allNanos / 1000000, firstNanos / 1000, deepNanos / 1000));
+    }
+
+    @Test
+    public void history() {
+        DeathCause[] causes = DeathCause.values();
+        Skin[] skins = Skin.values();
+        List<Score> noScores = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < HISTORY_GAMES; i += HISTORY_BATCH) {
+            List<GameResult> batch = new ArrayList<>(HISTORY_BATCH);
+            for (int j = i; j < i + HISTORY_BATCH; j++)
+                batch.add(new GameResult(j % 97, j, 500 + j % 3000, 1 + j % 40,
+                        causes[j % causes.length], skins[j % skins.length]));
+            database.saveGames(batch, noScores);
+        }
+        long saveNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        GameSummary summary = database.getSummary();
+        long summaryNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        Cursor cursor = database.getReadableDatabase().rawQuery(
+                "SELECT COUNT(*), SUM(score), MAX(score), AVG(duration), AVG(jumps), " +
+                "SUM(score / " + GameSummary.HISTOGRAM_BUCKET + " = 0) FROM games;", null);
+        cursor.moveToFirst();
+        long scanNanos = System.nanoTime() - start;
+        assertEquals(cursor.getInt(0), summary.getGames());
+        assertEquals(cursor.getLong(1) / (float) cursor.getInt(0), summary.getAverageScore(),
+                0.01f);
+        assertEquals(cursor.getInt(2), summary.getBestScore());
+        assertEquals(cursor.getFloat(3), summary.getAverageDuration(), 0.01f);
+        assertEquals(cursor.getFloat(4), summary.getAverageJumps(), 0.01f);
+        assertEquals(cursor.getInt(5), summary.getHistogram()[0]);
+        cursor.close();
+
+        Log.i(TAG, String.format(Locale.CANADA,
+                "history of %d: saved in %dms (%dus a game), summary %dus, scan %dus",
+                HISTORY_GAMES, saveNanos / 1000000, saveNanos / 1000 / HISTORY_GAMES,
+                summaryNanos / 1000, scanNanos / 1000));
+    }
+
+    /**
+     * Time a call on both sides and log the latency distributions.
+     * @param name  The name of the call.
+     * @param call  The call.
+     */
+    private void measure(String name, Call call) {
+        FrameStats beforeStats = time(before, call);
+        FrameStats afterStats = time(after, call);
+        Log.i(TAG, name + " before: " + summarize(beforeStats));
+        Log.i(TAG, name + " after:  " + summarize(afterStats));
+    }
+
+    /**
+     * Time a call on one side, after warming it up.
+     * @param store     The side.
+     * @param call      The call.
+     * @return          The latencies.
+     */
+    private FrameStats time(Store store, Call call) {
+        for (int i = 0; i < WARM_UP_CALLS; i++)
+            call.run(store, i);
+        FrameStats stats = new FrameStats(MEASURE_CALLS);
+        for (int i = WARM_UP_CALLS; i < WARM_UP_CALLS + MEASURE_CALLS; i++) {
+            long start = System.nanoTime();
+            call.run(store, i);
+            stats.add(System.nanoTime() - start);
+        }
+        return stats;
+    }
+
+    /**
+     * Summarize a latency distribution in microseconds.
+     * @param stats     The latencies.
+     * @return          The summary.
+     */
+    private static String summarize(FrameStats stats) {
+        return String.format(Locale.CANADA, "calls=%d p50=%dus p90=%dus p99=%dus max=%dus",
+                stats.getCount(), stats.getPercentile(50) / 1000, stats.getPercentile(90) / 1000,
+                stats.getPercentile(99) / 1000, stats.getPercentile(100) / 1000);
+    }
+
+    /**
+     * A call to time.
+     */
+    private interface Call {
+
+        /**
+         * Make the call.
+         * @param store     The side to call.
+         * @param i         The number of the call.
+         */
+        void run(Store store, int i);
+    }
+
+    /**
+     * The calls that the game makes to the database.
+     */
+    private interface Store {
+
+        void saveScore(int points);
+
+        int getHighScore();
+
+        Skin getSkin();
+
+        void updateSkin(String skin);
+
+        void close();
+    }
+
+    /**
+     * The database as it was before: opened and closed by every call, with the statements built
+     * for every call and no transactions.
+     */
+    private static class OpenPerCallDatabase extends SQLiteOpenHelper implements Store {
+
+        /**
+         * Construct the database.
+         * @param context   The context.
+         * @param name      The name of the database file.
+         */
+        OpenPerCallDatabase(Context context, String name) {
+            super(context, name, null, 1);
+        }
+
+        @Override
+        public void onCreate(SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE scores " +
+                    "(rule INTEGER PRIMARY KEY, score INTEGER UNIQUE, date TEXT);");
+            db.execSQL("CREATE TABLE skins " +
+                    "(rule INTEGER PRIMARY KEY, skinsID TEXT, selection INTEGER);");
+        }
+
+        @Override
+        public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        }
+
+        @Override
+        public void saveScore(int points) {
+            SQLiteDatabase db = getWritableDatabase();
+            ContentValues values = new ContentValues();
+            values.put("score", Integer.toString(points));
+            values.put("date", String.format(Locale.CANADA, " %tD", System.currentTimeMillis()));
+            db.insertWithOnConflict("scores", null, values, SQLiteDatabase.CONFLICT_IGNORE);
+            db.close();
+        }
+
+        @Override
+        public int getHighScore() {
+            // Every score is read into strings, and the first one is kept.
+            SQLiteDatabase db = getReadableDatabase();
+            Cursor cursor = db.query("scores", new String[] {"score", "date"}, null, null, null,
+                    null, "score DESC");
+            ArrayList<ArrayList<String>> scores = new ArrayList<>();
+            while (cursor.moveToNext()) {
+                ArrayList<String> entry = new ArrayList<>();
+                entry.add(cursor.getString(0));
+                entry.add(cursor.getString(1));
+                scores.add(entry);
+            }
+            cursor.close();
+            db.close();
+            return scores.isEmpty() ? 0 : Integer.parseInt(scores.get(0).get(0));
+        }
+
+        @Override
+        public Skin getSkin() {
+            SQLiteDatabase db = getReadableDatabase();
+            Cursor cursor = db.query("skins", new String[] {"skinsID", "selection"}, null, null,
+                    null, null, null);
+            Skin skin = Skin.YELLOW;
+            while (cursor.moveToNext()) {
+                if (cursor.getInt(1) == Database.SKIN_ON)
+                    skin = Skin.valueOf(cursor.getString(0));
+            }
+            cursor.close();
+            db.close();
+            return skin;
+        }
+
+        @Override
+        public void updateSkin(String skin) {
+            SQLiteDatabase db = getWritableDatabase();
+            ContentValues content = new ContentValues();
+            content.put("selection", 0);
+            db.update("skins", content, "selection=?",
+                    new String[] {Integer.toString(Database.SKIN_ON)});
+            content.put("selection", Database.SKIN_ON);
+            if (db.update("skins", content, "skinsID=?", new String[] {skin}) == 0) {
+                content.put("skinsID", skin);
+                db.insert("skins", null, content);
+            }
+            db.close();
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+package ca.brocku.cosc.duckyjump;
+
+import android.app.Instrumentation;
+import android.content.Intent;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.rule.ActivityTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.MotionEvent;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the frame time distributions of the render modes. Each mode is played by tapping
+ * the top of the screen (which jumps, or restarts when the duck is dead), once with an idle UI
+ * thread and once with a UI thread that is kept busy, like it would be during layout or touch work.
+ * The surface is also measured at half the resolution of the screen. The time from the launch of
+ * the activity to its first frame is logged along with every mode.
+ *
+ * The results are written to logcat under the FrameTimeBenchmark tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class FrameTimeBenchmark {
+
+    private static final String TAG = "FrameTimeBenchmark";
+    private static final long WARM_UP_MS = 2000;
+    private static final long MEASURE_MS = 10000;
+    private static final long TAP_INTERVAL_MS = 350;
+    private static final long UI_WORK_MS = 12; // Each block of busy work on the UI thread.
+    private static final long UI_IDLE_MS = 20; // The gap between the blocks of busy work.
+
+    private static final Runnable UI_WORK = new Runnable() {
+        @Override
+        public void run() {
+            SystemClock.sleep(UI_WORK_MS);
+        }
+    };
+
+    @Rule
+    public ActivityTestRule<PlayGame> rule = new ActivityTestRule<>(PlayGame.class, false, false);
+
+    @Test
+    public void viewIdleUiThread() throws Exception {
+        measure(PlayGame.RenderMode.VIEW, false);
+    }
+
+    @Test
+    public void surfaceIdleUiThread() throws Exception {
+        measure(PlayGame.RenderMode.SURFACE, false);
+    }
+
+    @Test
+    public void dirtyIdleUiThread() throws Exception {
+        measure(PlayGame.RenderMode.DIRTY, false);
+    }
+
+    @Test
+    public void surfaceHalfResolution() throws Exception {
+        measure(PlayGame.RenderMode.SURFACE, false, 0.5f);
+    }
+
+    @Test
+    public void viewBusyUiThread() throws Exception {
+        measure(PlayGame.RenderMode.VIEW, true);
+    }
+
+    @Test
+    public void surfaceBusyUiThread() throws Exception {
+        measure(PlayGame.RenderMode.SURFACE, true);
+    }
+
+    @Test
+    public void dirtyBusyUiThread() throws Exception {
+        measure(PlayGame.RenderMode.DIRTY, true);
+    }
+
+    /**
+     * Play the game in the specified mode and log the frame time distribution.
+     * @param mode      The render mode.
+     * @param busyUi    True if the UI thread should be kept busy.
+     */
+    private void measure(PlayGame.RenderMode mode, boolean busyUi) throws Exception {
+        measure(mode, busyUi, 1);
+    }
+
+    /**
+     * Play the game in the specified mode and resolution and log the frame time distribution.
+     * @param mode          The render mode.
+     * @param busyUi        True if the UI thread should be kept busy.
+     * @param renderScale   The resolution to draw at, relative to the screen.
+     */
+    private void measure(PlayGame.RenderMode mode, boolean busyUi, float renderScale)
+            throws Exception {
+        Intent intent = new Intent();
+        intent.putExtra(PlayGame.EXTRA_RENDER_MODE, mode.name());
+        intent.putExtra(PlayGame.EXTRA_RENDER_SCALE, renderScale);
+        PlayGame activity = rule.launchActivity(intent);
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        float x = activity.getWindow().getDecorView().getWidth() / 2f;
+        float y = activity.getWindow().getDecorView().getHeight() / 4f;
+
+        play(instrumentation, x, y, WARM_UP_MS, busyUi);
+        FrameStats stats = activity.getEngine().getFrameStats();
+        stats.reset();
+        play(instrumentation, x, y, MEASURE_MS, busyUi);
+
+        Log.i(TAG, mode + (renderScale < 1 ? " at " + renderScale : "")
+                + (busyUi ? " busy UI: " : " idle UI: ") + stats
+                + ", first frame " + activity.getEngine().getStartupNanos() / 1000000
+                + " ms after the launch");
+        assertTrue("No frames were drawn.", stats.getCount() > 0);
+    }
+
+    /**
+     * Keep tapping the screen for the specified time.
+     * @param instrumentation   Used to send the taps.
+     * @param x                 The x coordinate of the taps.
+     * @param y                 The y coordinate of the taps.
+     * @param duration          How long to play for in milliseconds.
+     * @param busyUi            True if the UI thread should be kept busy.
+     */
+    private void play(Instrumentation instrumentation, float x, float y, long duration,
+                      boolean busyUi) {
+        long end = SystemClock.uptimeMillis() + duration;
+        while (SystemClock.uptimeMillis() < end) {
+            tap(instrumentation, x, y);
+            long nextTap = SystemClock.uptimeMillis() + TAP_INTERVAL_MS;
+            while (busyUi && SystemClock.uptimeMillis() < nextTap) {
+                instrumentation.runOnMainSync(UI_WORK);
+                SystemClock.sleep(UI_IDLE_MS);
+            }
+            SystemClock.sleep(Math.max(0, nextTap - SystemClock.uptimeMillis()));
+        }
+    }
+
+    /**
+     * Tap the screen once.
+     * @param instrumentation   Used to send the tap.
+     * @param x                 The x coordinate of the tap.
+     * @param y                 The y coordinate of the tap.
+     */
+    private void tap(Instrumentation instrumentation, float x, float y) {
+        long now = SystemClock.uptimeMillis();
+        MotionEvent down = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, x, y, 0);
+        MotionEvent up = MotionEvent.obtain(now, now, MotionEvent.ACTION_UP, x, y, 0);
+        instrumentation.sendPointerSync(down);
+        instrumentation.sendPointerSync(up);
+        down.recycle();
+        up.recycle();
+    }
+
+}
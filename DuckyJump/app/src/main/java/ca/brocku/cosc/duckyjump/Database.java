@@ -1,142 +1,337 @@
 package ca.brocku.cosc.duckyjump;
 
-import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 
 import ca.brocku.cosc.duckyjump.GameObjects.SkinManager;
 
 /**
- * Contains the high score information and the most recent duck skin that has been selected.
+ * Contains the high score information, the history of every game that was played and the most
+ * recent duck skin that has been selected.
+ *
+ * There is one database per process (see getInstance(...)), with a single connection that is
+ * opened the first time it is needed and kept open until the process ends. The connection uses
+ * write-ahead logging, so a write does not wait for a reader and is cheaper to commit. Every
+ * statement that is run more than once is compiled once (SQLiteStatement) and bound again for every
+ * call, and the writes that change several rows are done in one transaction. The methods are
+ * synchronized, since the menus, the render thread and the warm up all use the database.
+ *
+ * The scores are stored as numbers, with their dates in milliseconds since the epoch, and are
+ * indexed by score. The scoreboard reads them a page at a time with queryScores(...), which starts
+ * each page after the last score of the previous one (rather than skipping an OFFSET of rows), so
+ * every page is found through the index however far down the list it is.
+ *
+ * Every finished game is added to the history (the games table), and the statistics of the history
+ * (game_summary, a single row of counts and sums, and score_histogram, the number of games for
+ * every GameSummary.HISTOGRAM_BUCKET points) are updated in the same transaction. So getSummary()
+ * reads a handful of rows however long the history is.
+ *
+ * A database of an older version is migrated in onUpgrade(...), one version at a time, in the
+ * transaction of the upgrade. A migration only uses the SQL of its own version, since the tables
+ * of the later versions may have changed since.
  */
 public class Database extends SQLiteOpenHelper {
 
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = 3;
     private static final String DB_NAME = "duckDB";
     public static final String DB_TABLE_SCORES = "scores";
     public static final String DB_TABLE_SKINS = "skins";
     private static final int SKIN_OFF = 0;
     public static final int SKIN_ON = 1;
     private static final String CREATE_TABLE_SCORES = "CREATE TABLE " + DB_TABLE_SCORES +
-            " (rule INTEGER PRIMARY KEY, score INTEGER UNIQUE, date TEXT);";
+            " (rule INTEGER PRIMARY KEY, score INTEGER NOT NULL, date INTEGER NOT NULL);";
+    private static final String CREATE_INDEX_SCORES = "CREATE INDEX scores_by_score ON " +
+            DB_TABLE_SCORES + " (score);";
     private static final String CREATE_TABLE_SKINS = "CREATE TABLE " + DB_TABLE_SKINS +
             " (rule INTEGER PRIMARY KEY, skinsID TEXT, selection INTEGER);";
-    private static final String[] SCORES_FIELD = {"score", "date"}, SKINS_FIELD = {"skinsID", "selection"};
-    private static final String SKINS_SELECTION = "selection=?", SKINS_ID = "skinsID=?";
+    // The duration, jumps, death and skin are null for the games moved over from the scores.
+    private static final String CREATE_TABLE_GAMES = "CREATE TABLE games" +
+            " (rule INTEGER PRIMARY KEY, score INTEGER NOT NULL, date INTEGER NOT NULL," +
+            " duration INTEGER, jumps INTEGER, death TEXT, skin TEXT);";
+    private static final String CREATE_TABLE_SUMMARY = "CREATE TABLE game_summary" +
+            " (rule INTEGER PRIMARY KEY, games INTEGER NOT NULL, total_score INTEGER NOT NULL," +
+            " best_score INTEGER NOT NULL, detailed_games INTEGER NOT NULL," +
+            " total_duration INTEGER NOT NULL, total_jumps INTEGER NOT NULL);";
+    private static final String CREATE_TABLE_HISTOGRAM = "CREATE TABLE score_histogram" +
+            " (bucket INTEGER PRIMARY KEY, games INTEGER NOT NULL);";
+    private static final String OLD_DATE_FORMAT = "MM/dd/yy"; // The dates of version 1, as text.
+
+    private static final String INSERT_SCORE = "INSERT INTO " + DB_TABLE_SCORES +
+            " (score, date) VALUES (?, ?);";
+    // Pages of scores, highest first. The rule breaks ties, so the order is the same every time.
+    private static final String SELECT_FIRST_SCORES = "SELECT rule, score, date FROM " +
+            DB_TABLE_SCORES + " ORDER BY score DESC, rule DESC LIMIT ?;";
+    private static final String SELECT_NEXT_SCORES = "SELECT rule, score, date FROM " +
+            DB_TABLE_SCORES + " WHERE score <= ? AND (score < ? OR rule < ?)" +
+            " ORDER BY score DESC, rule DESC LIMIT ?;";
+    private static final String SELECT_HIGH_SCORE = "SELECT MAX(score) FROM " +
+            DB_TABLE_SCORES + ";";
+    private static final String INSERT_GAME = "INSERT INTO games" +
+            " (score, date, duration, jumps, death, skin) VALUES (?, ?, ?, ?, ?, ?);";
+    private static final String UPDATE_SUMMARY = "UPDATE game_summary SET games = games + 1," +
+            " total_score = total_score + ?, best_score = MAX(best_score, ?)," +
+            " detailed_games = detailed_games + 1, total_duration = total_duration + ?," +
+            " total_jumps = total_jumps + ? WHERE rule = 1;";
+    private static final String INSERT_BUCKET = "INSERT OR IGNORE INTO score_histogram" +
+            " (bucket, games) VALUES (?, 0);";
+    private static final String COUNT_BUCKET = "UPDATE score_histogram SET games = games + 1" +
+            " WHERE bucket = ?;";
+    private static final String SELECT_SUMMARY = "SELECT games, total_score, best_score," +
+            " detailed_games, total_duration, total_jumps FROM game_summary WHERE rule = 1;";
+    private static final String SELECT_HISTOGRAM = "SELECT bucket, games FROM score_histogram" +
+            " ORDER BY bucket;";
+    private static final String SELECT_SKIN = "SELECT skinsID FROM " + DB_TABLE_SKINS +
+            " WHERE selection = " + SKIN_ON + " LIMIT 1;";
+    private static final String RESET_SKINS = "UPDATE " + DB_TABLE_SKINS +
+            " SET selection = " + SKIN_OFF + " WHERE selection = " + SKIN_ON + ";";
+    private static final String SELECT_SKIN_ON = "UPDATE " + DB_TABLE_SKINS +
+            " SET selection = " + SKIN_ON + " WHERE skinsID = ?;";
+    private static final String INSERT_SKIN = "INSERT INTO " + DB_TABLE_SKINS +
+            " (skinsID, selection) VALUES (?, " + SKIN_ON + ");";
+
+    private static Database instance;
+
+    private SQLiteDatabase connection; // Null until the first call.
+    private SQLiteStatement insertScore, selectHighScore;
+    private SQLiteStatement selectSkin, resetSkins, selectSkinOn, insertSkin;
+    private SQLiteStatement insertGame, updateSummary, insertBucket, countBucket;
 
     /**
-     * Construct the database.
+     * Construct the database, without opening it.
      * @param context   The context.
+     * @param name      The name of the database file.
+     */
+    Database(Context context, String name) {
+        super(context.getApplicationContext(), name, null, DATABASE_VERSION);
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    /**
+     * Get the database of the process.
+     * @param context   Any context of the app.
+     * @return          The database.
      */
-    Database(Context context) {
-        super(context, DB_NAME, null, DATABASE_VERSION);
+    public static synchronized Database getInstance(Context context) {
+        if (instance == null)
+            instance = new Database(context, DB_NAME);
+        return instance;
     }
 
     @Override
     public void onCreate(SQLiteDatabase db) {
         db.execSQL(CREATE_TABLE_SCORES);
+        db.execSQL(CREATE_INDEX_SCORES);
         db.execSQL(CREATE_TABLE_SKINS);
+        createHistory(db);
     }
 
     /**
-     * Save the specified string to the database.
-     * @param value     The string to save.
+     * Create the history of the games, and its empty statistics.
+     * @param db    The database.
      */
-    public void saveScore(String value) {
-        String[] data = new String[2];
-        SQLiteDatabase db = this.getWritableDatabase();
-        data[0] = value;
-        data[1] = getTheDate();
+    private static void createHistory(SQLiteDatabase db) {
+        db.execSQL(CREATE_TABLE_GAMES);
+        db.execSQL(CREATE_TABLE_SUMMARY);
+        db.execSQL(CREATE_TABLE_HISTOGRAM);
+        db.execSQL("INSERT INTO game_summary VALUES (1, 0, 0, 0, 0, 0, 0);");
+    }
 
-        ContentValues values = new ContentValues();
-        for (int i = 0; i < SCORES_FIELD.length; i++) {
-            values.put(SCORES_FIELD[i], data[i]);
+    /**
+     * Open the connection and compile the statements, the first time the database is used.
+     * @return  The connection.
+     */
+    private SQLiteDatabase open() {
+        if (connection == null) {
+            connection = getWritableDatabase();
+            insertScore = connection.compileStatement(INSERT_SCORE);
+            selectHighScore = connection.compileStatement(SELECT_HIGH_SCORE);
+            selectSkin = connection.compileStatement(SELECT_SKIN);
+            resetSkins = connection.compileStatement(RESET_SKINS);
+            selectSkinOn = connection.compileStatement(SELECT_SKIN_ON);
+            insertSkin = connection.compileStatement(INSERT_SKIN);
+            insertGame = connection.compileStatement(INSERT_GAME);
+            updateSummary = connection.compileStatement(UPDATE_SUMMARY);
+            insertBucket = connection.compileStatement(INSERT_BUCKET);
+            countBucket = connection.compileStatement(COUNT_BUCKET);
         }
+        return connection;
+    }
 
-        db.insertWithOnConflict(DB_TABLE_SCORES, null, values, SQLiteDatabase.CONFLICT_IGNORE);
-        db.close();
+    /**
+     * Close the connection, such as when a test is done with its database. It is opened again by
+     * the next call.
+     */
+    @Override
+    public synchronized void close() {
+        super.close();
+        connection = null;
     }
 
     /**
-     * Get the current skin that is in the database.
-     * @return  The current skin in the database.
+     * Save a score to the database.
+     * @param points    The points of the game.
+     * @param date      When the game was played, in milliseconds since the epoch.
      */
-    public SkinManager.Skin getSkin() {
-        ArrayList<ArrayList<String>> skinID = query(Database.DB_TABLE_SKINS);
-        for (int i = 0; i < skinID.size(); i++) {
-            if (skinID.get(i).get(1).equals(Integer.toString(Database.SKIN_ON))) {
-                String id = skinID.get(i).get(0);
-                return SkinManager.Skin.valueOf(id);
-            }
-        }
-        return SkinManager.Skin.YELLOW;
+    public synchronized void saveScore(int points, long date) {
+        open();
+        insertScore.bindLong(1, points);
+        insertScore.bindLong(2, date);
+        insertScore.executeInsert();
     }
 
     /**
-     * Set a new skin to be saved in the database.
-     * @param skin  The new skin to be saved in the database.
+     * Add finished games to the history and save new high scores, all in one transaction.
+     * @param games         The games, in the order they were played.
+     * @param highScores    The scores to add to the scoreboard.
      */
-    public void updateSkin(String skin) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        ContentValues content = new ContentValues();
-        content.put(SKINS_FIELD[1], SKIN_ON);
-        resetSkins(db);
-        if (db.update(DB_TABLE_SKINS, content, SKINS_ID, new String[]{skin}) == 0) {
-            content.put(SKINS_FIELD[0], skin);
-            db.insert(DB_TABLE_SKINS, null, content);
+    public synchronized void saveGames(List<GameResult> games, List<Score> highScores) {
+        SQLiteDatabase db = open();
+        db.beginTransaction();
+        try {
+            for (GameResult game : games)
+                saveGame(game);
+            for (Score score : highScores)
+                saveScore(score.getPoints(), score.getDate());
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
         }
-        db.close();
     }
 
     /**
-     * Set all the skins to 0. This might come in useful in the future where the user can "unlock"
-     * skins.
-     * @param db    The database to reset the skins in.
+     * Add a finished game to the history, and to its statistics.
+     * @param game  The game.
+     */
+    private void saveGame(GameResult game) {
+        insertGame.bindLong(1, game.getPoints());
+        insertGame.bindLong(2, game.getDate());
+        insertGame.bindLong(3, game.getDuration());
+        insertGame.bindLong(4, game.getJumps());
+        bindName(insertGame, 5, game.getDeathCause());
+        bindName(insertGame, 6, game.getSkin());
+        insertGame.executeInsert();
+
+        updateSummary.bindLong(1, game.getPoints());
+        updateSummary.bindLong(2, game.getPoints());
+        updateSummary.bindLong(3, game.getDuration());
+        updateSummary.bindLong(4, game.getJumps());
+        updateSummary.executeUpdateDelete();
+
+        long bucket = game.getPoints() / GameSummary.HISTOGRAM_BUCKET;
+        insertBucket.bindLong(1, bucket);
+        insertBucket.executeInsert();
+        countBucket.bindLong(1, bucket);
+        countBucket.executeUpdateDelete();
+    }
+
+    /**
+     * Bind the name of a constant, or null.
+     * @param statement     The statement.
+     * @param index         The index of the parameter.
+     * @param value         The constant, or null.
+     */
+    private static void bindName(SQLiteStatement statement, int index, Enum<?> value) {
+        if (value == null)
+            statement.bindNull(index);
+        else
+            statement.bindString(index, value.name());
+    }
+
+    /**
+     * Get the statistics of every game that was played.
+     * @return  The summary.
      */
-    private void resetSkins(SQLiteDatabase db) {
-        ContentValues content = new ContentValues();
-        content.put(SKINS_FIELD[1], SKIN_OFF);
-        db.update(DB_TABLE_SKINS, content, SKINS_SELECTION, new String[]{Integer.toString(SKIN_ON)});
+    public synchronized GameSummary getSummary() {
+        SQLiteDatabase db = open();
+        Cursor cursor = db.rawQuery(SELECT_SUMMARY, null);
+        try {
+            cursor.moveToFirst();
+            List<int[]> buckets = new ArrayList<>();
+            Cursor histogram = db.rawQuery(SELECT_HISTOGRAM, null);
+            try {
+                while (histogram.moveToNext())
+                    buckets.add(new int[] {histogram.getInt(0), histogram.getInt(1)});
+            } finally {
+                histogram.close();
+            }
+            int[] counts = new int[buckets.isEmpty() ? 0 : buckets.get(buckets.size() - 1)[0] + 1];
+            for (int[] bucket : buckets)
+                counts[bucket[0]] = bucket[1];
+            return new GameSummary(cursor.getInt(0), cursor.getLong(1), cursor.getInt(2),
+                    cursor.getInt(3), cursor.getLong(4), cursor.getLong(5), counts);
+        } finally {
+            cursor.close();
+        }
     }
 
     /**
-     * Fill spinner and list views.
-     * @param table     The table to perform on.
+     * Get the current skin that is in the database.
+     * @return  The current skin in the database.
      */
-    public ArrayList<ArrayList<String>> query(String table) {
-        String[] fields = SCORES_FIELD;
-        if (table.equals(DB_TABLE_SKINS)) fields = SKINS_FIELD;
-        ArrayList<ArrayList<String>> entries = new ArrayList<>();
-        SQLiteDatabase datareader = this.getReadableDatabase();
-        String column = null;
-        if (table.equals(DB_TABLE_SCORES)) column = SCORES_FIELD[0] + " DESC";
-        Cursor cursor = datareader.query(table, fields, null, null, null, null, column);
+    public synchronized SkinManager.Skin getSkin() {
+        open();
+        try {
+            return SkinManager.Skin.valueOf(selectSkin.simpleQueryForString());
+        } catch (SQLiteDoneException e) {
+            return SkinManager.Skin.YELLOW; // No skin was picked yet.
+        }
+    }
 
-        cursor.moveToFirst();
-        while (!cursor.isAfterLast()) {
-            ArrayList<String> entry = new ArrayList<>();
-            if (table.equals(DB_TABLE_SCORES)) {
-                entry.add(cursor.getString(0));
-                entry.add(cursor.getString(1));
-                entries.add(entry);
-            } else if (table.equals(DB_TABLE_SKINS)) {
-                entry.add(cursor.getString(0));
-                entry.add(Integer.toString(cursor.getInt(1)));
-                entries.add(entry);
+    /**
+     * Set a new skin to be saved in the database.
+     * @param skin  The new skin to be saved in the database.
+     */
+    public synchronized void updateSkin(String skin) {
+        SQLiteDatabase db = open();
+        db.beginTransaction();
+        try {
+            resetSkins.executeUpdateDelete();
+            selectSkinOn.bindString(1, skin);
+            if (selectSkinOn.executeUpdateDelete() == 0) {
+                insertSkin.bindString(1, skin);
+                insertSkin.executeInsert();
+                insertSkin.clearBindings();
             }
-            cursor.moveToNext();
+            selectSkinOn.clearBindings();
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
         }
-        datareader.close();
-        if (cursor != null && !cursor.isClosed()) cursor.close();
+    }
 
-        return entries;
+    /**
+     * Get a page of the saved scores, from the highest to the lowest.
+     * @param after     The last score of the previous page, or null for the first page.
+     * @param limit     The most scores to get.
+     * @return          The scores, fewer than the limit on the last page.
+     */
+    public synchronized List<Score> queryScores(Score after, int limit) {
+        Cursor cursor;
+        if (after == null) {
+            cursor = open().rawQuery(SELECT_FIRST_SCORES, new String[] {Integer.toString(limit)});
+        } else {
+            String points = Integer.toString(after.getPoints());
+            cursor = open().rawQuery(SELECT_NEXT_SCORES, new String[] {points, points,
+                    Long.toString(after.getId()), Integer.toString(limit)});
+        }
+        List<Score> scores = new ArrayList<>(cursor.getCount());
+        try {
+            while (cursor.moveToNext())
+                scores.add(new Score(cursor.getLong(0), cursor.getInt(1), cursor.getLong(2)));
+        } finally {
+            cursor.close();
+        }
+        return scores;
     }
 
     /**
@@ -145,34 +340,99 @@ public class Database extends SQLiteOpenHelper {
      * @param id        The specified id.
      * @param id_names  The spcified id names.
      */
-    public void delete(String table, String id, String[] id_names) {
-        SQLiteDatabase data = this.getWritableDatabase();
-        data.delete(table, id, id_names);
+    public synchronized void delete(String table, String id, String[] id_names) {
+        open().delete(table, id, id_names);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        db.needUpgrade(newVersion);
+        for (int version = oldVersion + 1; version <= newVersion; version++) {
+            switch (version) {
+                case 2:
+                    upgradeToVersion2(db);
+                    break;
+                case 3:
+                    upgradeToVersion3(db);
+                    break;
+                default:
+                    throw new IllegalStateException("No migration to version " + version);
+            }
+        }
     }
 
-    public int getHighScore() {
-        ArrayList<ArrayList<String>> scores = query(DB_TABLE_SCORES);
-        int highScore = 0;
-        if (scores.size() > 0) {
-            int score = Integer.parseInt(scores.get(0).get(0));
-            if (score > highScore) {
-                highScore = score;
+    /**
+     * Version 2 stores the scores and their dates as numbers, and indexes them by score.
+     * @param db    The database, in a transaction.
+     */
+    private static void upgradeToVersion2(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE scores RENAME TO scores_version1;");
+        db.execSQL("CREATE TABLE scores" +
+                " (rule INTEGER PRIMARY KEY, score INTEGER NOT NULL, date INTEGER NOT NULL);");
+        db.execSQL("CREATE INDEX scores_by_score ON scores (score);");
+        SimpleDateFormat format = new SimpleDateFormat(OLD_DATE_FORMAT, Locale.CANADA);
+        SQLiteStatement insert =
+                db.compileStatement("INSERT INTO scores (score, date) VALUES (?, ?);");
+        Cursor cursor = db.rawQuery("SELECT score, date FROM scores_version1;", null);
+        try {
+            while (cursor.moveToNext()) {
+                insert.bindLong(1, cursor.getInt(0));
+                insert.bindLong(2, parseOldDate(format, cursor.getString(1)));
+                insert.executeInsert();
             }
+        } finally {
+            cursor.close();
+            insert.close();
+        }
+        db.execSQL("DROP TABLE scores_version1;");
+    }
+
+    /**
+     * Version 3 keeps the history of every game, with its statistics. The saved scores were the
+     * only games that were kept before, so they start the history, with only their score and date.
+     * @param db    The database, in a transaction.
+     */
+    private static void upgradeToVersion3(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE games" +
+                " (rule INTEGER PRIMARY KEY, score INTEGER NOT NULL, date INTEGER NOT NULL," +
+                " duration INTEGER, jumps INTEGER, death TEXT, skin TEXT);");
+        db.execSQL("CREATE TABLE game_summary (rule INTEGER PRIMARY KEY," +
+                " games INTEGER NOT NULL, total_score INTEGER NOT NULL," +
+                " best_score INTEGER NOT NULL, detailed_games INTEGER NOT NULL," +
+                " total_duration INTEGER NOT NULL, total_jumps INTEGER NOT NULL);");
+        db.execSQL("CREATE TABLE score_histogram" +
+                " (bucket INTEGER PRIMARY KEY, games INTEGER NOT NULL);");
+        db.execSQL("INSERT INTO games (score, date)" +
+                " SELECT score, date FROM scores ORDER BY date, rule;");
+        db.execSQL("INSERT INTO game_summary SELECT 1, COUNT(*)," +
+                " IFNULL(SUM(score), 0), IFNULL(MAX(score), 0), 0, 0, 0 FROM games;");
+        // Buckets of 5 points, the GameSummary.HISTOGRAM_BUCKET of version 3.
+        db.execSQL("INSERT INTO score_histogram" +
+                " SELECT score / 5, COUNT(*) FROM games GROUP BY score / 5;");
+    }
+
+    /**
+     * Read a date of version 1.
+     * @param format    The format of the dates.
+     * @param date      The date, such as " 10/17/26".
+     * @return          The date in milliseconds since the epoch, or 0 if it could not be read.
+     */
+    private static long parseOldDate(SimpleDateFormat format, String date) {
+        if (date == null)
+            return 0;
+        try {
+            return format.parse(date.trim()).getTime();
+        } catch (ParseException e) {
+            return 0;
         }
-        return highScore;
     }
 
     /**
-     * Get the current date.
-     * @return  The current date.
+     * Get the highest saved score.
+     * @return  The high score, 0 if no score was saved.
      */
-    private String getTheDate() {
-        Date d = Calendar.getInstance().getTime();
-        return String.format(Locale.CANADA, " %tD", d);
+    public synchronized int getHighScore() {
+        open();
+        // MAX(...) of no rows is NULL, which is read as 0.
+        return (int) selectHighScore.simpleQueryForLong();
     }
-}
\ No newline at end of file
+}
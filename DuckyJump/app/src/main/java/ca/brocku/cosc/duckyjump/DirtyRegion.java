@@ -0,0 +1,92 @@
+package ca.brocku.cosc.duckyjump;
+
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/**
+ * Gathers the parts of the screen that changed since the last frame. Every moving object reports
+ * where it was drawn in the last frame and where it is drawn now, and both places are damaged:
+ * the old one to erase the object, the new one to draw it. The surface can only redraw a single
+ * rectangle, so the damage is kept as the smallest rectangle that covers all of it.
+ *
+ * Anything that is not tracked object by object (a new pattern of spikes, a restart, a change of
+ * size) damages the whole screen instead.
+ *
+ * The objects report their bounds in units of the world, which are scaled to pixels of the screen.
+ */
+class DirtyRegion {
+
+    private static final int MARGIN = 2; // Pixels, for the anti aliased and filtered edges.
+
+    private final Rect damage = new Rect();
+    private final RectF scaled = new RectF(); // Scratch space for the bounds of an object.
+    private final Rect rounded = new Rect();
+    private final Rect screen = new Rect();
+    private boolean full = true; // Nothing has been drawn yet.
+    private int width, height; // Of the last frame.
+    private float scale = 1; // Pixels per unit of the world.
+
+    /**
+     * Report where an object is drawn. If it moved, the old and new bounds are damaged and the old
+     * bounds are updated to the new ones.
+     * @param previous  Where the object was drawn in the last frame, updated to current.
+     * @param current   Where the object is drawn in this frame, empty if it is not drawn.
+     */
+    void move(RectF previous, RectF current) {
+        if (previous.equals(current))
+            return;
+        add(previous);
+        add(current);
+        previous.set(current);
+    }
+
+    /**
+     * Damage a part of the screen that changed in place, such as a ring that fades.
+     * @param bounds    The part of the world.
+     */
+    void add(RectF bounds) {
+        if (bounds.isEmpty())
+            return;
+        scaled.set(bounds.left * scale, bounds.top * scale, bounds.right * scale,
+                bounds.bottom * scale);
+        scaled.roundOut(rounded);
+        rounded.inset(-MARGIN, -MARGIN);
+        damage.union(rounded);
+    }
+
+    /**
+     * Set how large the world is drawn. This damages the whole screen if it changed.
+     * @param scale     The pixels of the screen per unit of the world.
+     */
+    void setScale(float scale) {
+        if (scale != this.scale)
+            full = true;
+        this.scale = scale;
+    }
+
+    /**
+     * Damage the whole screen.
+     */
+    void invalidateAll() {
+        full = true;
+    }
+
+    /**
+     * Get the damage of this frame, and start gathering the damage of the next one.
+     * @param dirty     Set to the part of the screen to redraw, empty if nothing changed.
+     * @param width     The width of the screen.
+     * @param height    The height of the screen.
+     */
+    void collect(Rect dirty, int width, int height) {
+        screen.set(0, 0, width, height);
+        if (full || width != this.width || height != this.height)
+            dirty.set(screen);
+        else if (!dirty.setIntersect(damage, screen))
+            dirty.setEmpty();
+        damage.setEmpty();
+        full = false;
+        this.width = width;
+        this.height = height;
+    }
+
+}
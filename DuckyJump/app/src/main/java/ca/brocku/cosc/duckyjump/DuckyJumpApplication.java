@@ -0,0 +1,29 @@
+package ca.brocku.cosc.duckyjump;
+
+import android.app.Application;
+
+/**
+ * Starts preparing the game as soon as the process starts (see WarmUp), and reading the high score
+ * (see HighScores), while the user is still looking at the menu.
+ */
+public class DuckyJumpApplication extends Application {
+
+    private WarmUp warmUp;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        warmUp = new WarmUp(this);
+        warmUp.start();
+        HighScores.getInstance(this);
+    }
+
+    /**
+     * Get the warm up of the process.
+     * @return  The warm up.
+     */
+    WarmUp getWarmUp() {
+        return warmUp;
+    }
+
+}
@@ -1,47 +1,112 @@
 package ca.brocku.cosc.duckyjump;
 
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Point;
+import android.graphics.Rect;
+import android.graphics.RectF;
 import android.support.v4.view.GestureDetectorCompat;
-import android.support.v7.widget.AppCompatImageView;
+import android.util.Log;
 import android.view.Display;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
 import android.view.WindowManager;
 
-import ca.brocku.cosc.duckyjump.GameObjects.CollisionDetection;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Random;
+
+import ca.brocku.cosc.duckyjump.GameObjects.DebugOverlay;
 import ca.brocku.cosc.duckyjump.GameObjects.Duck;
 import ca.brocku.cosc.duckyjump.GameObjects.ScoreDrawer;
+import ca.brocku.cosc.duckyjump.GameObjects.SkinManager;
 import ca.brocku.cosc.duckyjump.GameObjects.Spikes;
-import ca.brocku.cosc.duckyjump.GameObjects.Utility;
+import ca.brocku.cosc.duckyjump.GameObjects.SpriteAtlas;
+import ca.brocku.cosc.duckyjump.GameObjects.SpriteBatch;
+import ca.brocku.cosc.duckyjump.core.AlphaMask;
+import ca.brocku.cosc.duckyjump.core.Direction;
+import ca.brocku.cosc.duckyjump.core.FixedTimestep;
+import ca.brocku.cosc.duckyjump.core.Game;
+import ca.brocku.cosc.duckyjump.core.GameListener;
+import ca.brocku.cosc.duckyjump.core.PhaseTimer;
+import ca.brocku.cosc.duckyjump.core.QualityGovernor;
+import ca.brocku.cosc.duckyjump.core.Recording;
+import ca.brocku.cosc.duckyjump.core.Replay;
+import ca.brocku.cosc.duckyjump.core.SpikeWall;
+import ca.brocku.cosc.duckyjump.core.SpriteMasks;
+import ca.brocku.cosc.duckyjump.core.SpriteMetrics;
+import ca.brocku.cosc.duckyjump.core.World;
 
 /**
- * Brings all the components of the game together and is responsible for the main logic.
+ * Connects the game to the phone. The rules of the game are in the Game of the core module,
+ * which knows nothing about Android. The engine ticks the game at a fixed rate, passes the touches
+ * on to it, draws it with the images of the duck and the spikes, and saves the high scores.
+ *
+ * The engine is not a view by itself. It is hosted either by a GameView, where every frame is
+ * driven by onDraw(...) on the UI thread, or by a GameSurfaceView, where a dedicated render thread
+ * locks the surface canvas and draws to it. Because the touch events still arrive on the UI thread,
+ * a frame and a touch are never processed at the same time (both are synchronized on the engine).
  *
- * There is one "catch". Some of the game objects (such as the duck and the spikes) need access
- * to the canvas size in order to function properly. Unfortunately, the canvas object is limited
- * to the onDraw(...) method and thus cannot be accessed outside of it. To solve this, a hacky
- * solution was done. These objects store the dimensions of the screen is a placeholder, until
- * the canvas is accessible in onDraw(...), then the dimensions are updated to the canvas. The
- * first block in the onDraw(...) method is responsible for this.
+ * A frame is advanced (the game is updated) and then rendered (the game is drawn). The game is
+ * played and drawn in units of the World, scaled to fit the width of the screen, and is laid out
+ * on the first frame, once the size of the canvas is known. Every session is recorded so that it
+ * can be played again, and an engine can also be constructed to replay a recording.
  */
-public class Engine extends AppCompatImageView {
+public class Engine implements GameListener {
+
+    // How long a replay waits on the start and game over screens.
+    private static final int REPLAY_PAUSE = FixedTimestep.TICKS_PER_SECOND;
+    private static final float MIN_RENDER_SCALE = 0.25f;
+    private static final String TAG = "Engine";
 
     // Drawing & interaction.
     private GestureDetectorCompat mDetector;
     private Paint paint;
-    private int width, height;
-    private Database db;
+    private int width, height; // Of the world.
+    private float worldScale; // Pixels of the screen per unit of the world.
+    private float renderScale = 1; // The resolution to draw at, relative to the screen.
+    private HighScores highScores;
+    private FrameStats frameStats;
+    private FixedTimestep timestep;
+    private int pendingTicks; // Ticks that are due but not enough for a step.
+    private PhaseTimer timer;
+    private DebugOverlay overlay;
+    private SpriteBatch batch; // Draws the duck, the bubbles and the spikes.
+    private float alpha; // How far the current frame is into the next step.
+    private long frameStart; // When the work of the current frame began.
+    private QualityGovernor governor;
+    private Bitmap offscreen; // The game at a lower resolution, or null when drawn at full.
+    private Canvas offscreenCanvas;
+    private Paint scalePaint; // Scales the offscreen bitmap up to the screen.
+    private Rect clip; // Of the screen canvas.
+    private RectF screen; // Where the offscreen bitmap is drawn.
+    private long launchTime; // When the game was launched, 0 if unknown.
+    private long startupNanos; // From the launch to the first frame, 0 until it is drawn.
+
+    // Redrawing only what changed.
+    private DirtyRegion damage;
+    private RectF duckBounds, particleBounds, columnBounds, ringBounds; // Of the last frame.
+    private RectF bounds; // Of an object in the current frame.
+    private int ringBrightness, drawnScore;
+    private long drawnSpikes;
+    private Direction drawnWall;
+    private boolean drawnAlive, drawnOverlay;
 
     // Game logic & objects.
-    private boolean running, started; // The game.
+    private boolean started; // The canvas dimensions are known.
+    private Game game;
+    private long seed; // Of the spikes.
+    private Recording recording; // Of the session being played. Null when replaying.
+    private Replay replay; // Null when playing.
     private Spikes spikes;
     private Duck duck;
-    private Utility.Direction direction; // Of the duck.
-    private int score;
+    private SkinManager.Skin skin; // Of the duck.
     private ScoreDrawer scoreDrawer;
 
     /**
@@ -49,29 +114,124 @@ public class Engine extends AppCompatImageView {
      * @param context   The context.
      */
     public Engine(Context context) {
-        super(context);
+        this(context, null, false, 1);
+    }
 
+    /**
+     * Instantiate the game objects and drawing tools.
+     * @param context   The context.
+     * @param replayOf  The session to replay, or null to play a new one.
+     * @param pixelCollision    True to detect collisions down to the pixel. A replay detects
+     *                          collisions the way the session was recorded.
+     * @param stepTicks         The number of ticks to move the game at a time. A replay moves
+     *                          the way the session was recorded.
+     */
+    public Engine(Context context, Recording replayOf, boolean pixelCollision, int stepTicks) {
         // Drawing & interaction.
-        mDetector = new GestureDetectorCompat(getContext(), new MyGestureListener());
+        mDetector = new GestureDetectorCompat(context, new MyGestureListener());
         paint = new Paint();
         paint.setAntiAlias(true);
-        setBackgroundColor(Color.DKGRAY);
         loadWindowDimensions(context);
-        db = new Database(context);
+        highScores = HighScores.getInstance(context);
+        highScores.getHighScore(); // Wait for the saved high score here, not when the duck dies.
+        frameStats = new FrameStats();
+        timestep = new FixedTimestep();
+        timer = new PhaseTimer();
+        WarmUp warmUp = WarmUp.get(context);
+        SpriteAtlas atlas = warmUp.getAtlas();
+        batch = new SpriteBatch(atlas);
+        governor = new QualityGovernor();
+        overlay = new DebugOverlay(timer, batch, governor);
+        scalePaint = new Paint();
+        scalePaint.setFilterBitmap(true);
+        clip = new Rect();
+        screen = new RectF();
+        damage = new DirtyRegion();
+        duckBounds = new RectF();
+        particleBounds = new RectF();
+        columnBounds = new RectF();
+        ringBounds = new RectF();
+        bounds = new RectF();
 
         // Game logic & objects.
-        running = false;
         started = false;
-        duck = new Duck(context, db.getSkin());
-        direction = duck.getDirection();
-        score = 0;
-        spikes = new Spikes(context);
-        scoreDrawer = new ScoreDrawer(paint, width, height);
+        skin = warmUp.getSkin();
+        duck = new Duck(atlas, skin);
+        spikes = new Spikes(atlas);
+        if (replayOf != null) {
+            // The session is drawn in the world it was played in.
+            width = replayOf.getWidth();
+            height = replayOf.getHeight();
+            replay = new Replay(replayOf, this, getSpriteMasks());
+            replay.setPause(REPLAY_PAUSE);
+            game = replay.getGame();
+        } else {
+            seed = new Random().nextLong();
+            game = new Game(getSpriteMetrics(), new Random(seed), this);
+            if (pixelCollision)
+                game.setSpriteMasks(getSpriteMasks());
+            game.setStepTicks(stepTicks);
+        }
+        game.setPhaseTimer(timer);
+        scoreDrawer = width == World.WIDTH
+                ? warmUp.takeScoreDrawer()
+                : new ScoreDrawer(width, height);
+    }
+
+    /**
+     * Get the sizes of the images of the duck and the spikes on this phone.
+     * @return  The sizes of the images.
+     */
+    private SpriteMetrics getSpriteMetrics() {
+        return new SpriteMetrics() {
+            @Override
+            public int getDuckWidth() {
+                return duck.getWidth();
+            }
+
+            @Override
+            public int getDuckHeight() {
+                return duck.getHeight();
+            }
+
+            @Override
+            public int getSpikeSize() {
+                return spikes.getSpikeSize();
+            }
+        };
     }
 
     /**
-     * Since the canvas cannot be accessed outside of onDraw(), this method is the temporary
-     * placeholder for the width and height.
+     * Get the solid pixels of the images of the duck and the spikes on this phone.
+     * @return  The masks of the images.
+     */
+    private SpriteMasks getSpriteMasks() {
+        return new SpriteMasks() {
+            @Override
+            public AlphaMask getDuckMask(Direction direction, boolean jumping) {
+                return duck.getMask(direction, jumping);
+            }
+
+            @Override
+            public AlphaMask getTopSpikeMask() {
+                return spikes.getTopMask();
+            }
+
+            @Override
+            public AlphaMask getBottomSpikeMask() {
+                return spikes.getBottomMask();
+            }
+
+            @Override
+            public AlphaMask getSideSpikeMask(Direction wall) {
+                return spikes.getSideMask(wall);
+            }
+        };
+    }
+
+    /**
+     * Since the canvas cannot be accessed outside of drawFrame(), this method is the temporary
+     * placeholder for the width and height of the world, and its scale.
      * @param context   The context.
      */
     private void loadWindowDimensions(Context context) {
@@ -79,142 +239,342 @@ public class Engine extends AppCompatImageView {
         Display display = wm.getDefaultDisplay();
         Point size = new Point();
         display.getSize(size);
-        width = size.x;
-        height = size.y;
+        width = World.WIDTH;
+        height = World.getHeight(size.x, size.y);
+        worldScale = World.getScale(size.x);
     }
 
     /**
-     * Place duck in the center of the canvas.
+     * Updates the game objects and then draws them to the screen. This is called once per frame
+     * by whichever view is hosting the engine. The game objects are updated at a fixed rate, so a
+     * frame may run zero, one or several game ticks depending on the refresh rate of the display.
+     * @param canvas    The canvas to draw to.
      */
-    private void spawnDuck() {
-        duck.setDuckPosition(width/2-duck.getWidth()/2, height/2-duck.getHeight()/2);
+    public synchronized void drawFrame(Canvas canvas) {
+        advance(canvas.getWidth(), canvas.getHeight());
+        renderFrame(canvas);
     }
 
     /**
-     * Check if the duck has bounced off a wall.
-     * @param duck  The specified duck.
-     * @return      True if the duck has bounces off a wall.
+     * Updates the game objects and finds the part of the screen that changed since the previous
+     * frame. The frame is then drawn with renderFrame(...), onto a canvas that is clipped to that
+     * part. The engine must stay locked in between, so that a touch cannot change what is drawn.
+     * @param screenWidth     The width of the surface.
+     * @param screenHeight    The height of the surface.
+     * @param dirty           Set to the part of the screen to redraw, empty if nothing changed.
      */
-    private boolean duckChangedDirection(Duck duck) {
-        return this.direction != duck.getDirection();
+    public synchronized void advanceFrame(int screenWidth, int screenHeight, Rect dirty) {
+        advance(screenWidth, screenHeight);
+
+        boolean alive = game.isAlive();
+        SpikeWall wall = game.getSpikes();
+        if (alive != drawnAlive || game.getScore() != drawnScore
+                || wall.getSpawnLocations() != drawnSpikes || wall.getDirection() != drawnWall
+                || overlay.isShown() || drawnOverlay) {
+            // A spawn, a restart or the overlay changes the screen all over.
+            damage.invalidateAll();
+            drawnAlive = alive;
+            drawnScore = game.getScore();
+            drawnSpikes = wall.getSpawnLocations();
+            drawnWall = wall.getDirection();
+            drawnOverlay = overlay.isShown();
+        }
+
+        duck.getParticleBounds(game.getParticles(), alpha, bounds);
+        damage.move(particleBounds, bounds);
+        if (alive) {
+            duck.getBounds(game.getDuck(), alpha, bounds);
+            damage.move(duckBounds, bounds);
+            spikes.getColumnBounds(wall, width, height, alpha, bounds);
+            damage.move(columnBounds, bounds);
+            if (scoreDrawer.getRingBrightness(alpha) != ringBrightness) {
+                ringBrightness = scoreDrawer.getRingBrightness(alpha);
+                scoreDrawer.getRingBounds(width, height, ringBounds);
+                damage.add(ringBounds);
+            }
+        }
+        damage.collect(dirty, screenWidth, screenHeight);
     }
 
     /**
-     * Updates the game objects and then draws them to the screen.
-     * @param canvas    The canvas to draw to.
+     * Redraw the whole screen in the next frame, such as when the surface could not be locked
+     * for a part of it.
      */
-    @Override
-    protected void onDraw(Canvas canvas) {
-        // Updating the temporary screen dimensions placeholder to the canvas dimensions.
+    public synchronized void redrawAll() {
+        damage.invalidateAll();
+    }
+
+    /**
+     * Update the game objects for the time that passed since the previous frame.
+     * @param screenWidth     The width of the canvas.
+     * @param screenHeight    The height of the canvas.
+     */
+    private void advance(int screenWidth, int screenHeight) {
+        long now = System.nanoTime();
+        frameStart = now;
+        frameStats.frame(now);
+        timer.frame(now);
+        int ticks = timestep.advance(now);
+
+        // Updating the temporary world dimensions placeholder to the canvas dimensions.
         if (!started) {
-            width = canvas.getWidth();
-            height = canvas.getHeight();
-            spikes.setDimensions(width, height);
-            duck.setDimensions(width, height);
+            if (replay == null) {
+                height = World.getHeight(screenWidth, screenHeight);
+                // The game is only laid out once, so that a replay places the spikes the same way.
+                game.setDimensions(width, height);
+                recording = new Recording(seed, width, height, getSpriteMetrics());
+                recording.setPixelCollision(game.isPixelCollision());
+                recording.setStepTicks(game.getStepTicks());
+                game.setRecording(recording);
+            }
             started = true;
         }
+        worldScale = (float) screenWidth / width;
+        damage.setScale(worldScale);
 
-        if (!running) {
-            spawnDuck();
-            spikes.spawn(direction, score);
-        } else {
+        int step = game.getStepTicks();
+        pendingTicks += ticks;
+        while (pendingTicks >= step && (replay != null || game.isAnimating())) {
             update();
+            pendingTicks -= step;
+        }
+        if (replay == null && !game.isAnimating())
+            pendingTicks = 0; // Nothing moves, so there is nothing to catch up on.
+        alpha = (pendingTicks + timestep.getAlpha()) / step;
+    }
+
+    /**
+     * Draw the game as it was left by the last update. Below the full resolution (set with
+     * setRenderScale(...), or by the lowest quality), the game is drawn into the offscreen bitmap
+     * (only the part that the canvas is clipped to), which is then scaled up onto the canvas.
+     * @param canvas    The canvas to draw to.
+     */
+    public synchronized void renderFrame(Canvas canvas) {
+        timer.begin(PhaseTimer.DRAW);
+        float scale = renderScale * governor.getRenderScale();
+        Canvas target = canvas;
+        if (scale < 1) {
+            target = getOffscreenCanvas(canvas.getWidth(), canvas.getHeight(), scale);
+            canvas.getClipBounds(clip);
+        } else if (offscreen != null) {
+            offscreen.recycle(); // Back at full resolution.
+            offscreen = null;
+        }
+        target.save();
+        if (target != canvas) {
+            target.scale(scale, scale); // From the screen to the offscreen bitmap.
+            target.clipRect(clip);
         }
+        target.scale(worldScale, worldScale);
 
-        if (duck.isAlive())
-            drawGame(canvas);
+        target.drawColor(Color.DKGRAY);
+        batch.begin(target);
+        if (game.isAlive())
+            drawGame(target, alpha);
         else
-            drawGameOverScreen(canvas);
+            drawGameOverScreen(target, alpha);
+        batch.end();
+
+        target.restore();
+        if (target != canvas) {
+            screen.set(0, 0, offscreen.getWidth() / scale, offscreen.getHeight() / scale);
+            canvas.drawBitmap(offscreen, null, screen, scalePaint);
+        }
+        timer.end(PhaseTimer.DRAW);
 
-        postInvalidateOnAnimation(); // REQUIRED
-        super.onDraw(canvas);        // REQUIRED
+        overlay.draw(canvas);
+        long end = System.nanoTime();
+        if (governor.frame(end - frameStart))
+            applyQuality();
+        if (startupNanos == 0 && launchTime != 0) {
+            startupNanos = end - launchTime;
+            Log.i(TAG, String.format(Locale.CANADA, "First frame %.1f ms after the launch",
+                    startupNanos / 1e6));
+        }
     }
 
     /**
-     * Update the locations and animations of the game objects.
+     * Set when the game was launched, to measure how long it took to draw the first frame.
+     * @param nanos     The time of the launch, from System.nanoTime().
      */
-    private void update() {
-        duck.update();
-        spikes.update();
-        scoreDrawer.update();
-
-        if (CollisionDetection.detected(duck, spikes)) {
-            duck.kill();
-            spikes.clear();
-            running = false;
-
-            if (isNewHighScore()) {
-                db.saveScore(Integer.toString(score));
-                scoreDrawer.newHighScore();
-            }
+    public synchronized void setLaunchTime(long nanos) {
+        launchTime = nanos;
+    }
 
-            return;
+    /**
+     * Get how long it took from the launch of the game to its first frame.
+     * @return  The time in nanoseconds, 0 if the first frame was not drawn yet.
+     */
+    public synchronized long getStartupNanos() {
+        return startupNanos;
+    }
+
+    /**
+     * Get the canvas of the offscreen bitmap, making the bitmap if it is not the right size.
+     * @param width     The width of the screen.
+     * @param height    The height of the screen.
+     * @param scale     The resolution to draw at, relative to the screen.
+     * @return          The canvas of the bitmap.
+     */
+    private Canvas getOffscreenCanvas(int width, int height, float scale) {
+        int scaledWidth = (int) Math.ceil(width * scale);
+        int scaledHeight = (int) Math.ceil(height * scale);
+        if (offscreen == null || offscreen.getWidth() != scaledWidth
+                || offscreen.getHeight() != scaledHeight) {
+            if (offscreen != null)
+                offscreen.recycle();
+            offscreen = Bitmap.createBitmap(scaledWidth, scaledHeight, Bitmap.Config.ARGB_8888);
+            offscreenCanvas = new Canvas(offscreen);
+            damage.invalidateAll(); // Nothing is in the new bitmap yet.
         }
+        return offscreenCanvas;
+    }
+
+    /**
+     * Set the resolution to draw the game at. Drawing at a lower resolution than the screen saves
+     * time on large screens, at the cost of sharpness. The game plays the same either way.
+     * @param scale     The resolution, relative to the screen, from MIN_RENDER_SCALE to 1.
+     */
+    public synchronized void setRenderScale(float scale) {
+        renderScale = Math.max(MIN_RENDER_SCALE, Math.min(1, scale));
+        damage.invalidateAll();
+    }
 
-        if (duckChangedDirection(duck)) {
-            direction = duck.getDirection();
-            score++;
-            spikes.spawn(direction, score);
+    /**
+     * Draw the game at the quality level that the governor picked.
+     */
+    private void applyQuality() {
+        game.getParticles().setDensity(governor.getParticleDensity());
+        boolean antiAlias = governor.isAntiAlias();
+        paint.setAntiAlias(antiAlias);
+        paint.setFilterBitmap(antiAlias);
+        batch.setFilterBitmap(antiAlias);
+        scoreDrawer.setAntiAlias(antiAlias);
+        scoreDrawer.setRingAnimated(governor.isRingAnimated());
+        damage.invalidateAll(); // Everything may look different.
+    }
+
+    /**
+     * Forget the timing of the previous frames. To be used when the frames stop for a while (such
+     * as when the activity is paused), so that the time in between is neither simulated nor
+     * counted as a frame.
+     */
+    public synchronized void resetFrameTiming() {
+        frameStats.reset();
+        timestep.reset();
+        pendingTicks = 0;
+        timer.reset();
+        governor.reset();
+        damage.invalidateAll(); // The surface may be new.
+    }
+
+    /**
+     * Get the time between the most recent frames.
+     * @return  The frame stats.
+     */
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
+
+    /**
+     * Update the locations and animations of the game objects by one game step.
+     */
+    private void update() {
+        if (replay != null)
+            replay.tick();
+        else
+            game.tick();
+        for (int i = 0; i < game.getStepTicks(); i++)
+            scoreDrawer.update();
+    }
+
+    /**
+     * Save the recording of the session so far. Nothing is saved when replaying, or before the
+     * first frame.
+     * @param file  The file to save it to.
+     * @throws IOException  If the recording could not be saved.
+     */
+    public synchronized void saveRecording(File file) throws IOException {
+        if (recording == null)
+            return;
+        OutputStream out = new FileOutputStream(file);
+        try {
+            recording.write(out);
+        } finally {
+            out.close();
         }
+    }
 
+    @Override
+    public void onGameOver(int score) {
+        if (replay != null)
+            return; // A replayed score was already saved when it was played.
+        timer.begin(PhaseTimer.SAVE);
+        long duration = game.getGameTicks() * 1000L / FixedTimestep.TICKS_PER_SECOND;
+        GameResult result = new GameResult(score, System.currentTimeMillis(), duration,
+                game.getJumps(), game.getDeathCause(), skin);
+        if (highScores.submit(result))
+            scoreDrawer.newHighScore();
+        timer.end(PhaseTimer.SAVE);
     }
 
-    private boolean isNewHighScore() {
-        return score > db.getHighScore();
+    @Override
+    public void onRestart() {
+        scoreDrawer.reset();
     }
 
     /**
      * Draw the game to the screen.
      * @param canvas    The canvas to draw on.
+     * @param alpha     How far the display is into the next tick (0 to 1).
      */
-    private void drawGame(Canvas canvas) {
-        scoreDrawer.drawScore(canvas, paint, score);
-        duck.draw(canvas, paint);
-        spikes.draw(canvas, paint, direction);
+    private void drawGame(Canvas canvas, float alpha) {
+        scoreDrawer.drawScore(canvas, width, height, game.getScore(), alpha);
+        duck.draw(batch, game.getDuck(), game.getParticles(), alpha);
+        spikes.draw(batch, paint, game.getSpikes(), width, height, alpha);
     }
 
     /**
-     * Draw the game over screen.
+     * Draw the game over screen, with what is left of the death burst on top.
      * @param canvas    The canvas to draw on.
+     * @param alpha     How far the display is into the next tick (0 to 1).
      */
-    private void drawGameOverScreen(Canvas canvas) {
-        scoreDrawer.drawGameOverScreen(canvas, paint, score);
+    private void drawGameOverScreen(Canvas canvas, float alpha) {
+        scoreDrawer.drawGameOverScreen(canvas, width, height, game.getScore());
+        duck.drawParticles(batch, game.getParticles(), alpha);
     }
 
-    @Override
-    public boolean onTouchEvent(MotionEvent event) {
+    /**
+     * Pass a touch event from the hosting view to the gesture detector. This must be called on the
+     * UI thread.
+     * @param event     The touch event.
+     */
+    public void onTouchEvent(MotionEvent event) {
         this.mDetector.onTouchEvent(event);
-        return super.onTouchEvent(event);
     }
 
     /**
      * Pressing down on the screen cases the duck to jump and it also restarts the game if the
-     * duck is dead.
+     * duck is dead. The render thread may be in the middle of a frame, so the engine is locked
+     * while the game state changes. A long press shows or hides the debug overlay.
      */
     private class MyGestureListener extends GestureDetector.SimpleOnGestureListener {
         @Override
         public boolean onDown(MotionEvent event) {
-            if (duck.isAlive()) {
-                if (!running) {
-                    running = true;
-                }
-                duck.jump();
-            } else {
-                // To restart, the user must click the top of the screen. This prevents users from
-                // accidentally restarting the game (especially if they are spam clicking).
-                if (event.getY() < height / 2) {
-                    scoreDrawer.reset();
-                    spikes.clear();
-                    direction = Utility.Direction.RIGHT;
-                    duck.reset();
-                    score = 0;
-                    scoreDrawer.reset();
-                    spawnDuck();
-                }
+            synchronized (Engine.this) {
+                if (started && replay == null)
+                    game.press(event.getY() / worldScale);
             }
             return true;
         }
 
+        @Override
+        public void onLongPress(MotionEvent event) {
+            synchronized (Engine.this) {
+                overlay.toggle();
+            }
+        }
+
     }
 
 }
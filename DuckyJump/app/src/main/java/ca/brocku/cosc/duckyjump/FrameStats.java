@@ -0,0 +1,103 @@
+package ca.brocku.cosc.duckyjump;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Keeps the time between the most recent frames so that the smoothness of the different render
+ * modes can be compared. The samples are stored in a ring buffer, so only the latest frames count.
+ */
+public class FrameStats {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final long[] samples; // Frame times in nanoseconds.
+    private final long[] sorted; // Scratch space for the percentiles.
+    private int next = 0; // Where the next sample is written.
+    private int count = 0; // The number of valid samples.
+    private long lastFrame = -1;
+
+    /**
+     * Construct the frame stats with the default capacity.
+     */
+    public FrameStats() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Construct the frame stats.
+     * @param capacity  The number of frames to remember.
+     */
+    public FrameStats(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("The capacity must be positive.");
+        samples = new long[capacity];
+        sorted = new long[capacity];
+    }
+
+    /**
+     * Mark the start of a new frame. The time since the previous mark is stored as a sample.
+     * @param now   The current time in nanoseconds.
+     */
+    public synchronized void frame(long now) {
+        if (lastFrame >= 0)
+            add(now - lastFrame);
+        lastFrame = now;
+    }
+
+    /**
+     * Store a frame time.
+     * @param frameTime     The frame time in nanoseconds.
+     */
+    public synchronized void add(long frameTime) {
+        samples[next] = frameTime;
+        next = (next + 1) % samples.length;
+        if (count < samples.length)
+            count++;
+    }
+
+    /**
+     * Forget all the samples. The next frame will not produce a sample, since there is nothing
+     * to measure it against.
+     */
+    public synchronized void reset() {
+        next = 0;
+        count = 0;
+        lastFrame = -1;
+    }
+
+    /**
+     * Get the number of samples currently stored.
+     * @return  The number of samples.
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Get a percentile of the stored frame times.
+     * @param percentile    The percentile between 0 and 100.
+     * @return              The frame time in nanoseconds, or 0 if there are no samples.
+     */
+    public synchronized long getPercentile(float percentile) {
+        if (count == 0)
+            return 0;
+        System.arraycopy(samples, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        int index = (int) Math.ceil(percentile / 100f * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    /**
+     * Summarize the distribution of the frame times in milliseconds.
+     * @return  The summary.
+     */
+    public synchronized String toString() {
+        return String.format(Locale.CANADA,
+                "frames=%d p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms",
+                count,
+                getPercentile(50) / 1e6, getPercentile(90) / 1e6,
+                getPercentile(99) / 1e6, getPercentile(100) / 1e6);
+    }
+
+}
@@ -0,0 +1,352 @@
+package ca.brocku.cosc.duckyjump.GameObjects;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.util.LruCache;
+
+import java.util.Locale;
+
+/**
+ * The decoded images of the app, shared by every activity of the process. An image is decoded once
+ * for every variant it is used in (its size, transform and pixel config), and kept until the cache
+ * is over its budget of bytes, when the images that were used the longest ago are dropped.
+ *
+ * An image that is already the size it is drawn at is decoded as it is. Any other image is decoded
+ * straight from the file at a fraction of its size (inSampleSize), as close to the size it is
+ * drawn at as a power of two allows, into a buffer that is kept for the next decode (inBitmap). It
+ * is then scaled once to its exact size. So the only bitmaps that are allocated are the ones that
+ * are kept, instead of a full size image and a scaled copy for every image. A transformed variant
+ * (such as an image turned on its side) is made from the untransformed one, which stays in the
+ * cache for the next variant.
+ *
+ * The bitmaps are never recycled by the cache, since a dropped image may still be drawn. The
+ * bitmaps that are handed out must not be recycled or changed either.
+ */
+public class BitmapCache {
+
+    // Transforms, applied in this order. They can be combined.
+    public static final int NONE = 0;
+    public static final int FLIP_X = 1; // Mirrored left to right.
+    public static final int FLIP_Y = 2; // Upside down.
+    public static final int ROTATE_LEFT = 4; // A quarter turn counter clockwise.
+
+    private static final int DEFAULT_BUDGET_DIVISOR = 16; // Of the memory of the process.
+
+    private static BitmapCache instance;
+
+    private final LruCache<Key, Bitmap> cache;
+    private Bitmap buffer; // The last decode, to decode the next image into.
+    private int decodeCount, reuseCount;
+
+    /**
+     * Construct an empty cache.
+     * @param maxBytes  The most bytes of images to keep.
+     */
+    BitmapCache(int maxBytes) {
+        cache = new LruCache<Key, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(Key key, Bitmap value) {
+                return value.getAllocationByteCount();
+            }
+        };
+    }
+
+    /**
+     * Get the cache of the process, made the first time it is needed.
+     * @return  The cache.
+     */
+    public static synchronized BitmapCache getInstance() {
+        if (instance == null)
+            instance = new BitmapCache(
+                    (int) (Runtime.getRuntime().maxMemory() / DEFAULT_BUDGET_DIVISOR));
+        return instance;
+    }
+
+    /**
+     * Get an image at the size that Android would load it at for the screen.
+     * @param resources     The resources of the app.
+     * @param id            The ID of the image in resources.
+     * @return              The image, as a drawable for views.
+     */
+    public Drawable getDrawable(Resources resources, int id) {
+        Bitmap bitmap = get(resources, id, resources.getDisplayMetrics().densityDpi, 1, NONE,
+                Bitmap.Config.ARGB_8888);
+        return new BitmapDrawable(resources, bitmap);
+    }
+
+    /**
+     * Get a variant of an image, decoding it if it is not in the cache.
+     * @param resources     The resources of the app.
+     * @param id            The ID of the image in resources.
+     * @param density       The dots per inch to size the image for, as if it were the screen.
+     * @param scale         The scaling factor, on top of the density.
+     * @param transform     The transforms to apply, or NONE.
+     * @param config        The pixel config to decode into.
+     * @return              The image, which must not be recycled or changed.
+     */
+    public synchronized Bitmap get(Resources resources, int id, int density, float scale,
+                                   int transform, Bitmap.Config config) {
+        Key key = new Key(id, density, scale, transform, config);
+        Bitmap bitmap = cache.get(key);
+        if (bitmap != null)
+            return bitmap;
+
+        if (transform == NONE)
+            bitmap = decode(resources, id, density, scale, config);
+        else
+            bitmap = transform(get(resources, id, density, scale, NONE, config), transform);
+        cache.put(key, bitmap);
+        return bitmap;
+    }
+
+    /**
+     * Decode an image at the size it is to be drawn.
+     * @param resources     The resources of the app.
+     * @param id            The ID of the image in resources.
+     * @param density       The dots per inch to size the image for.
+     * @param scale         The scaling factor, on top of the density.
+     * @param config        The pixel config to decode into.
+     * @return              The image.
+     */
+    private Bitmap decode(Resources resources, int id, int density, float scale,
+                          Bitmap.Config config) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(resources, id, options);
+
+        // The size the image would have been decoded at for the density, as Android rounds it.
+        float ratio = options.inDensity == 0 ? 1 : (float) density / options.inDensity;
+        int width = Utility.toScale(scale, (int) (options.outWidth * ratio + 0.5f));
+        int height = Utility.toScale(scale, (int) (options.outHeight * ratio + 0.5f));
+
+        int sample = 1;
+        while (options.outWidth / (sample * 2) >= width
+                && options.outHeight / (sample * 2) >= height)
+            sample *= 2;
+
+        options.inJustDecodeBounds = false;
+        options.inScaled = false; // Sized once, by the scaling below.
+        options.inSampleSize = sample;
+        options.inPreferredConfig = config;
+        if (options.outWidth == width && options.outHeight == height) {
+            // Already the right size, such as a sprite the build scaled, so no buffer is needed.
+            decodeCount++;
+            return BitmapFactory.decodeResource(resources, id, options);
+        }
+        options.inMutable = true;
+        int bytes = ceil(options.outWidth, sample) * ceil(options.outHeight, sample)
+                * getBytesPerPixel(config);
+        if (buffer != null && buffer.getAllocationByteCount() >= bytes) {
+            options.inBitmap = buffer;
+            reuseCount++;
+        }
+        Bitmap decoded;
+        try {
+            decoded = BitmapFactory.decodeResource(resources, id, options);
+        } catch (IllegalArgumentException e) {
+            options.inBitmap = null; // The buffer could not take the image after all.
+            reuseCount--;
+            decoded = BitmapFactory.decodeResource(resources, id, options);
+        }
+        decodeCount++;
+        if (decoded != buffer && buffer != null)
+            buffer.recycle(); // Too small for this image, so the larger one is kept instead.
+        buffer = decoded;
+
+        Bitmap scaled = Bitmap.createScaledBitmap(decoded, width, height, true);
+        if (scaled == decoded) {
+            // Already the right size, but the buffer is reused.
+            scaled = decoded.copy(config, false);
+        }
+        return scaled;
+    }
+
+    /**
+     * Transform an image.
+     * @param source        The image.
+     * @param transform     The transforms to apply.
+     * @return              A transformed copy of the image.
+     */
+    private static Bitmap transform(Bitmap source, int transform) {
+        Matrix matrix = new Matrix();
+        float cx = source.getWidth() / 2f;
+        float cy = source.getHeight() / 2f;
+        matrix.postScale((transform & FLIP_X) != 0 ? -1 : 1, (transform & FLIP_Y) != 0 ? -1 : 1,
+                cx, cy);
+        if ((transform & ROTATE_LEFT) != 0)
+            matrix.postRotate(-90);
+        return Bitmap.createBitmap(source, 0, 0, source.getWidth(), source.getHeight(), matrix,
+                true);
+    }
+
+    /**
+     * Divide, rounding up.
+     * @param value     The number to divide.
+     * @param divisor   The number to divide by.
+     * @return          The rounded quotient.
+     */
+    private static int ceil(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    /**
+     * Get the size of a pixel of a config.
+     * @param config    The pixel config.
+     * @return          The bytes per pixel.
+     */
+    private static int getBytesPerPixel(Bitmap.Config config) {
+        switch (config) {
+            case ALPHA_8:
+                return 1;
+            case RGB_565:
+            case ARGB_4444:
+                return 2;
+            default:
+                return 4;
+        }
+    }
+
+    /**
+     * Change the budget, dropping the images that no longer fit.
+     * @param maxBytes  The most bytes of images to keep.
+     */
+    public synchronized void setMaxBytes(int maxBytes) {
+        cache.resize(maxBytes);
+    }
+
+    /**
+     * Drop every image, and the decode buffer, such as when the system is low on memory.
+     */
+    public synchronized void clear() {
+        cache.evictAll();
+        if (buffer != null)
+            buffer.recycle();
+        buffer = null;
+    }
+
+    /**
+     * Get the bytes of the images in the cache, not counting the decode buffer.
+     * @return  The bytes.
+     */
+    public synchronized int getBytes() {
+        return cache.size();
+    }
+
+    /**
+     * Get the most bytes of images that are kept.
+     * @return  The budget in bytes.
+     */
+    public synchronized int getMaxBytes() {
+        return cache.maxSize();
+    }
+
+    /**
+     * Get the bytes of the decode buffer, which is kept on top of the budget.
+     * @return  The bytes.
+     */
+    public synchronized int getBufferBytes() {
+        return buffer == null ? 0 : buffer.getAllocationByteCount();
+    }
+
+    /**
+     * Get how many images were found in the cache.
+     * @return  The number of hits.
+     */
+    public synchronized int getHitCount() {
+        return cache.hitCount();
+    }
+
+    /**
+     * Get how many images were not in the cache (including the untransformed images that a
+     * transform needed).
+     * @return  The number of misses.
+     */
+    public synchronized int getMissCount() {
+        return cache.missCount();
+    }
+
+    /**
+     * Get how many images were dropped to stay within the budget.
+     * @return  The number of evictions.
+     */
+    public synchronized int getEvictionCount() {
+        return cache.evictionCount();
+    }
+
+    /**
+     * Get how many images were decoded from their files.
+     * @return  The number of decodes.
+     */
+    public synchronized int getDecodeCount() {
+        return decodeCount;
+    }
+
+    /**
+     * Get how many decodes reused the buffer of the previous one.
+     * @return  The number of reuses.
+     */
+    public synchronized int getReuseCount() {
+        return reuseCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US,
+                "%d/%d KB (+%d KB buffer), %d hits, %d misses, %d evictions, %d decodes, %d reused",
+                getBytes() / 1024, getMaxBytes() / 1024, getBufferBytes() / 1024, getHitCount(),
+                getMissCount(), getEvictionCount(), decodeCount, reuseCount);
+    }
+
+    /**
+     * What a variant of an image is looked up by.
+     */
+    private static final class Key {
+
+        private final int id;
+        private final int density;
+        private final float scale;
+        private final int transform;
+        private final Bitmap.Config config;
+
+        /**
+         * Construct a key.
+         * @param id            The ID of the image in resources.
+         * @param density       The dots per inch the image is sized for.
+         * @param scale         The scaling factor, on top of the density.
+         * @param transform     The transforms.
+         * @param config        The pixel config.
+         */
+        Key(int id, int density, float scale, int transform, Bitmap.Config config) {
+            this.id = id;
+            this.density = density;
+            this.scale = scale;
+            this.transform = transform;
+            this.config = config;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key))
+                return false;
+            Key key = (Key) o;
+            return id == key.id && density == key.density && scale == key.scale
+                    && transform == key.transform && config == key.config;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = id;
+            hash = 31 * hash + density;
+            hash = 31 * hash + Float.floatToIntBits(scale);
+            hash = 31 * hash + transform;
+            hash = 31 * hash + config.hashCode();
+            return hash;
+        }
+
+    }
+
+}
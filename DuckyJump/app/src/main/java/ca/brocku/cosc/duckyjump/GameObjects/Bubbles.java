@@ -1,47 +1,35 @@
 package ca.brocku.cosc.duckyjump.GameObjects;
 
-import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.Point;
+import android.graphics.Rect;
+import android.graphics.RectF;
 
-import java.util.ArrayList;
+import ca.brocku.cosc.duckyjump.core.ParticleEmitter;
+import ca.brocku.cosc.duckyjump.core.ParticleSystem;
 
 /**
- * Create a trail of particle effects when the duck has jumped. It makes things pretty.
+ * Draws the particles of the game as bubbles: the trail of particle effects when the duck has
+ * jumped, and the bursts when it bounces off a wall or dies. It makes things pretty. Where the
+ * particles are is decided by the ParticleSystem of the game. Every bubble is the white disc of the
+ * atlas, tinted with the color of the skin (white for the bounces), so the bubbles are batched
+ * with the other sprites.
  */
 public class Bubbles {
 
-    private static final int MAX_BUBBLES = 3;
-    private static final int MAX_BUBBLE_SIZE = 30;
-    private static final int INCREMENT = 1; // The amount that the bubbles shrink by.
-    private static final int BUBBLE_DISTANCE = 5; // The spread of the bubbles.
     private static final int DEFAULT_COLOR = Color.rgb(253, 211, 1);
 
-    ArrayList<Point> bubbles; // The locations of the bubbles.
-    ArrayList<Integer> bubblesSize; // The diameter for each bubble in the bubble list.
     private int color;
-
-    private int updateCounter = 0; // Used to increase distance between bubbles.
-    private int queue = 0; // The number of bubbles left to create.
+    private Rect bubble; // The region of the disc in the atlas.
 
     /**
      * Construct bubbles.
+     * @param atlas     The images of the game.
      */
-    public Bubbles() {
-        bubbles = new ArrayList<>();
-        bubblesSize = new ArrayList<>();
+    public Bubbles(SpriteAtlas atlas) {
+        bubble = atlas.getRegion(SpriteAtlas.BUBBLE);
         changeColor(DEFAULT_COLOR);
     }
 
-    /**
-     * Clear bubbles.
-     */
-    public void clear() {
-        bubbles = new ArrayList<>();
-        bubblesSize = new ArrayList<>();
-    }
-
     /**
      * Change the color of the bubbles.
      * @param color     The specified color to change it to.
@@ -51,96 +39,74 @@ public class Bubbles {
     }
 
     /**
-     * Begin the trail of bubbles. To be used when a jump is performed.
-     * @param x     The x coordinate of the duck.
-     * @param y     The y coordinate of the duck.
-     */
-    public void start(int x, int y) {
-        if (bubbles.size() == 0)
-            createBubble(x, y); // Create the first bubble, if first bubble does not exist.
-
-        // Don't queue up too many bubbles if there is already a lot.
-        if (queue >= MAX_BUBBLES)
-            queue++;
-        else
-            queue += MAX_BUBBLES;
-    }
-
-    /**
-     * Shrink the bubbles and create more of necessary (depending on the queue) to create a trail.
-     * @param x     The x coordinate of the duck.
-     * @param y     The y coordinate of the duck.
-     */
-    public void update(int x, int y) {
-        shrinkBubbles();
-
-        updateCounter++;
-        if (updateCounter != BUBBLE_DISTANCE){
-            return;
-        }
-        updateCounter = 0;
-
-        if (queue != 0){
-            bubbles.add(new Point(x, y));
-            bubblesSize.add(MAX_BUBBLE_SIZE);
-            queue--;
-        }
-
-    }
-
-    /**
-     * Draw the bubbles to the screen.
-     * @param canvas    The screen to draw to.
-     * @param paint     The tool to draw with.
+     * Draw the bubbles to the screen. The bubbles are drawn as if they already moved and shrunk
+     * for the part of the next tick that has passed. They fade out as they shrink.
+     * @param batch         The batch to draw with.
+     * @param particles     The bubbles to draw.
+     * @param alpha         How far the display is into the next tick (0 to 1).
      */
-    public void draw(Canvas canvas, Paint paint) {
+    public void draw(SpriteBatch batch, ParticleSystem particles, float alpha) {
         final int MAX_VAL = 255;
 
-        for (int i = 0; i < bubbles.size(); i++) {
-            int x = bubbles.get(i).x + (bubblesSize.get(i) / 2);
-            int y = bubbles.get(i).y + (bubblesSize.get(i)); // For aesthetic reasons I didn't '/2'.
-            int size = bubblesSize.get(i);
+        for (int i = 0; i < particles.size(); i++) {
+            float size = particles.getSize(i, alpha);
+            if (size == 0)
+                continue;
+            float x = getX(particles, i, size, alpha);
+            float y = getY(particles, i, size, alpha);
 
-            float alphaPercent = (float)size / (float)MAX_BUBBLE_SIZE;
-            int alpha = (int)(alphaPercent * MAX_VAL);
+            float alphaPercent = size / particles.getStartSize(i);
+            int opacity = (int)(alphaPercent * MAX_VAL);
 
-            paint.setColor(Color.argb(alpha, Color.red(color), Color.green(color), Color.blue(color)));
-            canvas.drawCircle(x, y, size, paint);
+            int rgb = particles.getKind(i) == ParticleEmitter.SCORE_BURST ? Color.WHITE : color;
+            int tint = Color.argb(opacity, Color.red(rgb), Color.green(rgb), Color.blue(rgb));
+            batch.draw(bubble, x - size, y - size, x + size, y + size, tint);
         }
-
-        paint.setColor(Color.argb(MAX_VAL, MAX_VAL, MAX_VAL, MAX_VAL)); // Reset alpha to 255.
     }
 
     /**
-     * Create a bubble at the specified location. Usually this location is where the duck was last.
-     * @param x     The x coordinate of the duck.
-     * @param y     The y coordinate of the duck.
+     * Find where the bubbles are drawn. Every bubble is drawn the way draw(...) does.
+     * @param particles     The bubbles.
+     * @param alpha         How far the display is into the next tick (0 to 1).
+     * @param bounds        Set to the rectangle that covers every bubble, empty if there are none.
      */
-    private void createBubble(int x, int y) {
-        bubbles.add(new Point(x, y));
-        bubblesSize.add(MAX_BUBBLE_SIZE);
+    public void getBounds(ParticleSystem particles, float alpha, RectF bounds) {
+        bounds.setEmpty();
+        for (int i = 0; i < particles.size(); i++) {
+            float size = particles.getSize(i, alpha);
+            if (size == 0)
+                continue;
+            float x = getX(particles, i, size, alpha);
+            float y = getY(particles, i, size, alpha);
+            bounds.union(x - size, y - size, x + size, y + size);
+        }
     }
 
     /**
-     * Go through each bubble and shrink it according to the increment.
+     * Get the x coordinate of the center of a bubble.
+     * @param particles     The bubbles.
+     * @param i             The index of the bubble.
+     * @param size          The size of the bubble.
+     * @param alpha         How far the display is into the next tick (0 to 1).
+     * @return              The x coordinate.
      */
-    private void shrinkBubbles() {
-        for (int i = 0 ; i < bubbles.size(); i++){
-            bubblesSize.set(i, bubblesSize.get(i)- INCREMENT);
-            if(bubblesSize.get(i)<=0){
-                removeBubbleAtIndex(i);
-                i--;
-            }
-        }
+    private static float getX(ParticleSystem particles, int i, float size, float alpha) {
+        float x = particles.getX(i, alpha);
+        return particles.getKind(i) == ParticleEmitter.TRAIL ? x + (size / 2) : x;
     }
 
     /**
-     * Remove bubbles that have shrunken to oblivion.
-     * @param index     The index of the bubble in the list.
+     * Get the y coordinate of the center of a bubble.
+     * @param particles     The bubbles.
+     * @param i             The index of the bubble.
+     * @param size          The size of the bubble.
+     * @param alpha         How far the display is into the next tick (0 to 1).
+     * @return              The y coordinate.
      */
-    private void removeBubbleAtIndex(int index) {
-        bubbles.remove(index);
-        bubblesSize.remove(index);
+    private static float getY(ParticleSystem particles, int i, float size, float alpha) {
+        float y = particles.getY(i, alpha);
+        // For aesthetic reasons I didn't '/2' for the trail.
+        return particles.getKind(i) == ParticleEmitter.TRAIL ? y + size : y;
     }
 
 }
@@ -0,0 +1,234 @@
+package ca.brocku.cosc.duckyjump.GameObjects;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import ca.brocku.cosc.duckyjump.core.PhaseTimer;
+import ca.brocku.cosc.duckyjump.core.QualityGovernor;
+
+/**
+ * Draws the phase timings on top of the game: the p50, p95, p99 and max of every phase, the draw
+ * calls of the last frame, the quality level with how often it went down and up, and a graph of
+ * the most recent frame times. The text is built in a char array instead of strings, so drawing
+ * the overlay does not allocate anything either.
+ */
+public class DebugOverlay {
+
+    private static final int[] PERCENTILES = {50, 95, 99};
+    private static final long FRAME_BUDGET = 16666667; // 60 fps, in nanoseconds.
+    private static final long GRAPH_MAX = FRAME_BUDGET * 3; // The top of the graph.
+    private static final float TEXT_SIZE_RATIO = 0.03f; // Relative to screen width.
+    private static final float GRAPH_HEIGHT_RATIO = 0.15f; // Relative to screen width.
+    private static final int BACKGROUND = Color.argb(160, 0, 0, 0);
+    private static final int SLOW = Color.rgb(229, 92, 92);
+    private static final int FAST = Color.rgb(94, 209, 107);
+
+    private static final char[] DRAW_CALLS = "draw calls".toCharArray();
+    private static final char[] QUALITY = "quality    level ".toCharArray();
+    private static final char[] DOWN = "  down ".toCharArray();
+    private static final char[] UP = "  up ".toCharArray();
+
+    private PhaseTimer timer;
+    private SpriteBatch batch; // Counts the draw calls.
+    private QualityGovernor governor;
+    private Paint paint;
+    private char[] line = new char[64]; // The text of the line being drawn.
+    private char[][] names; // The names of the phases, padded to the same width.
+    private float[] bars; // The graph, as lines (x0, y0, x1, y1).
+
+    /**
+     * Construct the overlay.
+     * @param timer     The timer to show.
+     * @param batch     The batch that the game is drawn with.
+     * @param governor  The governor of the quality that the game is drawn at.
+     */
+    public DebugOverlay(PhaseTimer timer, SpriteBatch batch, QualityGovernor governor) {
+        this.timer = timer;
+        this.batch = batch;
+        this.governor = governor;
+        paint = new Paint();
+        paint.setTypeface(android.graphics.Typeface.MONOSPACE);
+        bars = new float[timer.getCapacity() * 4];
+        names = new char[PhaseTimer.PHASES][];
+        for (int phase = 0; phase < PhaseTimer.PHASES; phase++) {
+            String name = PhaseTimer.getName(phase);
+            names[phase] = (name + "          ").substring(0, 10).toCharArray();
+        }
+    }
+
+    /**
+     * Show or hide the overlay. The timer only runs while the overlay is shown.
+     */
+    public void toggle() {
+        timer.setEnabled(!timer.isEnabled());
+    }
+
+    /**
+     * Check if the overlay is shown.
+     * @return  True if it is shown.
+     */
+    public boolean isShown() {
+        return timer.isEnabled();
+    }
+
+    /**
+     * Draw the overlay, if it is shown.
+     * @param canvas    The canvas to draw to.
+     */
+    public void draw(Canvas canvas) {
+        if (!timer.isEnabled())
+            return;
+
+        float textSize = canvas.getWidth() * TEXT_SIZE_RATIO;
+        float graphHeight = canvas.getWidth() * GRAPH_HEIGHT_RATIO;
+        float top = textSize * 3; // Below the top spikes.
+        float height = textSize * (PhaseTimer.PHASES + 3.5f) + graphHeight;
+
+        paint.setColor(BACKGROUND);
+        paint.setStyle(Paint.Style.FILL);
+        canvas.drawRect(0, top, canvas.getWidth(), top + height, paint);
+
+        paint.setTextSize(textSize);
+        paint.setTextAlign(Paint.Align.LEFT);
+        paint.setColor(Color.WHITE);
+        float y = top + textSize;
+        for (int phase = 0; phase < PhaseTimer.PHASES; phase++) {
+            int length = buildLine(phase);
+            canvas.drawText(line, 0, length, textSize / 2, y, paint);
+            y += textSize;
+        }
+        int length = buildDrawCallsLine();
+        canvas.drawText(line, 0, length, textSize / 2, y, paint);
+        y += textSize;
+        length = buildQualityLine();
+        canvas.drawText(line, 0, length, textSize / 2, y, paint);
+        y += textSize;
+
+        drawGraph(canvas, y, graphHeight);
+    }
+
+    /**
+     * Write the name, percentiles and max of a phase into the line.
+     * @param phase     The phase.
+     * @return          The length of the line.
+     */
+    private int buildLine(int phase) {
+        int length = 0;
+        for (char c : names[phase])
+            line[length++] = c;
+        for (int percentile : PERCENTILES)
+            length = appendMillis(timer.getPercentile(phase, percentile), length);
+        return appendMillis(timer.getMax(phase), length);
+    }
+
+    /**
+     * Write the number of draw calls of the last frame into the line.
+     * @return  The length of the line.
+     */
+    private int buildDrawCallsLine() {
+        int length = 0;
+        for (char c : DRAW_CALLS)
+            line[length++] = c;
+        line[length++] = ' ';
+        int calls = Math.min(batch.getDrawCalls(), 9999);
+        for (int digit = 1000; digit > 0; digit /= 10)
+            line[length++] = calls >= digit || digit == 1 ? (char) ('0' + calls / digit % 10) : ' ';
+        return length;
+    }
+
+    /**
+     * Write the quality level and how many times it went down and up into the line.
+     * @return  The length of the line.
+     */
+    private int buildQualityLine() {
+        int length = append(QUALITY, 0);
+        length = appendNumber(governor.getLevel(), length);
+        length = append(DOWN, length);
+        length = appendNumber(governor.getStepsDown(), length);
+        length = append(UP, length);
+        return appendNumber(governor.getStepsUp(), length);
+    }
+
+    /**
+     * Append text to the line.
+     * @param text      The text.
+     * @param length    The current length of the line.
+     * @return          The new length of the line.
+     */
+    private int append(char[] text, int length) {
+        for (char c : text)
+            line[length++] = c;
+        return length;
+    }
+
+    /**
+     * Append a number of up to four digits to the line, without padding.
+     * @param number    The number, not negative.
+     * @param length    The current length of the line.
+     * @return          The new length of the line.
+     */
+    private int appendNumber(int number, int length) {
+        number = Math.min(number, 9999);
+        for (int digit = 1000; digit > 0; digit /= 10) {
+            if (number >= digit || digit == 1)
+                line[length++] = (char) ('0' + number / digit % 10);
+        }
+        return length;
+    }
+
+    /**
+     * Append a time in milliseconds with two decimals (such as " 16.67") to the line.
+     * @param nanos     The time in nanoseconds.
+     * @param length    The current length of the line.
+     * @return          The new length of the line.
+     */
+    private int appendMillis(long nanos, int length) {
+        long hundredths = Math.min((nanos + 5000) / 10000, 99999); // Up to 999.99 ms.
+        line[length++] = ' ';
+        line[length++] = hundredths >= 10000 ? (char) ('0' + hundredths / 10000) : ' ';
+        line[length++] = hundredths >= 1000 ? (char) ('0' + hundredths / 1000 % 10) : ' ';
+        line[length++] = (char) ('0' + hundredths / 100 % 10);
+        line[length++] = '.';
+        line[length++] = (char) ('0' + hundredths / 10 % 10);
+        line[length++] = (char) ('0' + hundredths % 10);
+        return length;
+    }
+
+    /**
+     * Draw the most recent frame times as bars, newest on the right. A line marks the 60 fps frame
+     * budget, and the bars over budget are drawn in red.
+     * @param canvas    The canvas to draw to.
+     * @param top       The top of the graph.
+     * @param height    The height of the graph.
+     */
+    private void drawGraph(Canvas canvas, float top, float height) {
+        int samples = timer.getCapacity();
+        float barWidth = (float) canvas.getWidth() / samples;
+        float bottom = top + height;
+        paint.setStrokeWidth(Math.max(1, barWidth - 1));
+
+        // Bars within the budget first, then the slow ones on top in another color.
+        for (int pass = 0; pass < 2; pass++) {
+            int lines = 0;
+            for (int age = 0; age < timer.getCount(PhaseTimer.FRAME); age++) {
+                long frame = timer.getRecent(PhaseTimer.FRAME, age);
+                if ((frame > FRAME_BUDGET) != (pass == 1))
+                    continue;
+                float x = canvas.getWidth() - (age + 0.5f) * barWidth;
+                bars[lines++] = x;
+                bars[lines++] = bottom;
+                bars[lines++] = x;
+                bars[lines++] = bottom - height * Math.min(frame, GRAPH_MAX) / GRAPH_MAX;
+            }
+            paint.setColor(pass == 0 ? FAST : SLOW);
+            canvas.drawLines(bars, 0, lines, paint);
+        }
+
+        float budget = bottom - height * FRAME_BUDGET / GRAPH_MAX;
+        paint.setColor(Color.WHITE);
+        paint.setStrokeWidth(1);
+        canvas.drawLine(0, budget, canvas.getWidth(), budget, paint);
+    }
+
+}
@@ -0,0 +1,80 @@
+package ca.brocku.cosc.duckyjump.GameObjects;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+/**
+ * The digits 0 to 9 drawn once at a font size, so that numbers can be drawn by copying the digits
+ * instead of laying out and rasterising text every frame. Drawing a number allocates nothing: the
+ * digits are picked off the number from the most significant one, without making a string.
+ *
+ * The digits are kept as alpha masks, so they are drawn in the color of the paint they are drawn
+ * with.
+ */
+public class GlyphCache {
+
+    private Bitmap[] digits = new Bitmap[10];
+    private float[] advances = new float[10]; // How far each digit moves the next one along.
+    private int padding; // Around every digit, for the parts that stick out of its advance.
+    private int height; // Of every digit, from the ascent to the descent of the font.
+
+    /**
+     * Draw the digits.
+     * @param textSize  The size of the font.
+     */
+    public GlyphCache(float textSize) {
+        Paint paint = new Paint();
+        paint.setAntiAlias(true);
+        paint.setTextSize(textSize);
+        float ascent = paint.ascent();
+        padding = (int) Math.ceil(textSize / 8);
+        height = (int) Math.ceil(paint.descent() - ascent);
+
+        char[] digit = new char[1];
+        for (int i = 0; i < 10; i++) {
+            digit[0] = (char) ('0' + i);
+            advances[i] = paint.measureText(digit, 0, 1);
+            int width = (int) Math.ceil(advances[i]) + padding * 2;
+            digits[i] = Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8);
+            new Canvas(digits[i]).drawText(digit, 0, 1, padding, -ascent, paint);
+        }
+    }
+
+    /**
+     * Get the width of a number, as the font would lay it out.
+     * @param number    The number, not negative.
+     * @return          The width of the number.
+     */
+    public float getWidth(int number) {
+        float width = 0;
+        do {
+            width += advances[number % 10];
+            number /= 10;
+        } while (number != 0);
+        return width;
+    }
+
+    /**
+     * Draw a number centered on a point.
+     * @param canvas    The canvas to draw on.
+     * @param paint     The paint to draw with, in the color of the number.
+     * @param number    The number, not negative.
+     * @param x         The x coordinate of the center of the number.
+     * @param y         The y coordinate of the center of the number.
+     */
+    public void draw(Canvas canvas, Paint paint, int number, float x, float y) {
+        int divisor = 1;
+        while (number / divisor >= 10)
+            divisor *= 10;
+
+        float left = x - getWidth(number) / 2;
+        float top = y - height / 2f;
+        for (; divisor != 0; divisor /= 10) {
+            int i = number / divisor % 10;
+            canvas.drawBitmap(digits[i], left - padding, top, paint);
+            left += advances[i];
+        }
+    }
+
+}
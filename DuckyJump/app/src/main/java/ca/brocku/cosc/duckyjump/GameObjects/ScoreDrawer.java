@@ -1,12 +1,22 @@
 package ca.brocku.cosc.duckyjump.GameObjects;
 
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.ColorFilter;
 import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.RectF;
 
 /**
  * Responsible for drawing the score to the screen and all animations associated with the score
  * (such as the ring that lights up in the background when the user gets a point).
+ *
+ * Nothing is allocated or laid out while the score is drawn. The numbers are copied from digits
+ * that are drawn once per font size (see GlyphCache), the ring is drawn once into a bitmap and
+ * lit up by a color filter, and the text of the game over screen is measured up front.
  */
 public class ScoreDrawer {
 
@@ -24,32 +34,53 @@ public class ScoreDrawer {
     private static final String line3 = "NEW";
     private static final String line4 = "HIGH SCORE";
 
-    private static float scoreFontSize, deadFontSize, finalScoreFont;
-
     private static final float CIRCLE_SIZE_RATIO = 0.2f; // Relative to screen width.
     private static final float INNER_RING_RATIO = 0.90f; // Relative to outer ring.
 
+    // Once faded.
+    private static final int RESTING_BRIGHTNESS = DEFAULT_BRIGHTNESS - BRIGHTNESS_DECREMENT;
+
     private int brightness = DEFAULT_BRIGHTNESS;
+    private boolean ringAnimated = true;
     private int currentScore = 0;
     private boolean newHighScore = false;
 
+    private GlyphCache scoreDigits, finalScoreDigits;
+    private Paint scorePaint; // The score during the game.
+    private Paint deadPaint; // The text and the score of the game over screen.
+    private float deadCenter; // The middle of a line of the game over text, from its baseline.
+    private float deadAscent;
+
+    private Bitmap ring; // White, with a hole in the middle. Null until the first frame.
+    private Paint ringPaint;
+    // By brightness, made when first needed.
+    private ColorFilter[] ringFilters = new ColorFilter[256];
+
     /**
      * Construct score drawer.
-     * @param paint     The tool to paint with.
-     * @param width     The width of the screen.
-     * @param height    The height of the screen.
+     * @param width     The width of the world.
+     * @param height    The height of the world.
      */
-    public ScoreDrawer(Paint paint, int width, int height) {
-        paint.setTextSize(scoreFontSize);
-        paint.setTextAlign(Paint.Align.CENTER);
+    public ScoreDrawer(int width, int height) {
+        scoreDigits = new GlyphCache((int)(width / SCORE_FONT_SIZE_RATIO));
+        finalScoreDigits = new GlyphCache((int)(width / FINAL_SCORE_FONT_SIZE_RATIO));
 
-        scoreFontSize = (int)(width / SCORE_FONT_SIZE_RATIO);
-        deadFontSize = (int)(width / DEAD_FONT_SIZE_RATIO);
-        finalScoreFont = (int)(width / FINAL_SCORE_FONT_SIZE_RATIO);
+        scorePaint = new Paint();
+        scorePaint.setColor(Color.rgb(DEFAULT_BRIGHTNESS, DEFAULT_BRIGHTNESS, DEFAULT_BRIGHTNESS));
+
+        deadPaint = new Paint();
+        deadPaint.setAntiAlias(true);
+        deadPaint.setTextAlign(Paint.Align.CENTER);
+        deadPaint.setColor(Color.LTGRAY);
+        deadPaint.setTextSize((int)(width / DEAD_FONT_SIZE_RATIO));
+        deadAscent = deadPaint.ascent();
+        deadCenter = (deadPaint.descent() + deadAscent) / 2;
+
+        ringPaint = new Paint();
     }
 
     /**
-     * Update the animation of the ring.
+     * Update the animation of the ring. This is to be called once per game tick.
      */
     public void update(){
         if (brightness >= DEFAULT_BRIGHTNESS)
@@ -68,11 +99,12 @@ public class ScoreDrawer {
     /**
      * Draw the score to the screen.
      * @param canvas    The screen to draw on.
-     * @param paint     The tool to paint with.
+     * @param width     The width of the world.
+     * @param height    The height of the world.
      * @param score     The score of the latest game.
+     * @param alpha     How far the display is into the next tick (0 to 1).
      */
-    public void drawScore(Canvas canvas, Paint paint, int score){
-        paint.setTextSize(scoreFontSize);
+    public void drawScore(Canvas canvas, int width, int height, int score, float alpha){
         final int MAX_COLOR = 255;
 
         if (score != currentScore) {
@@ -80,37 +112,104 @@ public class ScoreDrawer {
             currentScore = score;
         }
 
-        int x = canvas.getWidth() / 2;
-        int y = canvas.getHeight() / 2;
+        int x = width / 2;
+        int y = height / 2;
 
-        drawRing(canvas, paint, x, y);
+        drawRing(canvas, width, x, y, alpha);
 
         if (score == 0)
             return;
 
-        // the y offset for the font.
-        int ty = (int) ((canvas.getHeight() / 2) - ((paint.descent() + paint.ascent()) / 2)) ;
-        canvas.drawText(Integer.toString(currentScore), x, ty, paint);
+        scoreDigits.draw(canvas, scorePaint, currentScore, x, y);
     }
 
     /**
      * Draw the ring to the screen (the one that circles the score during the game and lights up).
      * @param canvas    The canvas to draw to.
-     * @param paint     The tool to paint with.
+     * @param width     The width of the world.
      * @param x         The x coordinate of the ring.
      * @param y         The y coordinate of the ring.
+     * @param alpha     How far the display is into the next tick (0 to 1).
+     */
+    private void drawRing(Canvas canvas, int width, int x, int y, float alpha){
+        int outerCircle = (int)(width * CIRCLE_SIZE_RATIO);
+        if (ring == null || ring.getWidth() != outerCircle * 2)
+            cacheRing(outerCircle);
+
+        int brightness = getRingBrightness(alpha);
+        if (ringFilters[brightness] == null) {
+            int color = Color.rgb(brightness, brightness, brightness);
+            ringFilters[brightness] = new PorterDuffColorFilter(color, PorterDuff.Mode.SRC_IN);
+        }
+        ringPaint.setColorFilter(ringFilters[brightness]);
+        canvas.drawBitmap(ring, x - outerCircle, y - outerCircle, ringPaint);
+    }
+
+    /**
+     * Draw the ring into its bitmap. The inside of the ring is left transparent, so the background
+     * shows through. This is only done again when the size of the screen changes.
+     * @param outerCircle   The radius of the ring.
      */
-    private void drawRing(Canvas canvas, Paint paint, int x, int y){
+    private void cacheRing(int outerCircle) {
+        if (ring != null)
+            ring.recycle();
+        ring = Bitmap.createBitmap(outerCircle * 2, outerCircle * 2, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(ring);
+        Paint paint = new Paint();
+        paint.setAntiAlias(true);
+
         // Outer Ring.
-        paint.setColor(Color.rgb(brightness, brightness, brightness));
-        int outerCircle = (int)(canvas.getWidth() * CIRCLE_SIZE_RATIO);
-        canvas.drawCircle((float)x, (float)y, outerCircle, paint);
+        paint.setColor(Color.WHITE);
+        canvas.drawCircle(outerCircle, outerCircle, outerCircle, paint);
 
         // Inner Ring.
         int innerCircle = (int)(outerCircle * INNER_RING_RATIO);
-        paint.setColor(Color.DKGRAY);
-        canvas.drawCircle((float)x, (float)y, innerCircle, paint);
-        paint.setColor(Color.rgb(DEFAULT_BRIGHTNESS, DEFAULT_BRIGHTNESS, DEFAULT_BRIGHTNESS));
+        paint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.CLEAR));
+        canvas.drawCircle(outerCircle, outerCircle, innerCircle, paint);
+    }
+
+    /**
+     * Get how bright the ring is drawn. If the ring is fading, it is drawn as if part of the next
+     * tick has passed.
+     * @param alpha     How far the display is into the next tick (0 to 1).
+     * @return          The brightness of the ring (0 to 255).
+     */
+    public int getRingBrightness(float alpha) {
+        if (!ringAnimated)
+            return RESTING_BRIGHTNESS;
+        if (brightness >= DEFAULT_BRIGHTNESS)
+            return brightness - (int)(BRIGHTNESS_DECREMENT * alpha);
+        return brightness;
+    }
+
+    /**
+     * Turn the animation of the ring on or off. Without it, the ring stays at the brightness it
+     * fades to, and it never has to be redrawn.
+     * @param animated  True to light the ring up when the user gets a point.
+     */
+    public void setRingAnimated(boolean animated) {
+        ringAnimated = animated;
+    }
+
+    /**
+     * Turn the anti-aliasing of the game over text on or off. The digits and the ring are drawn
+     * once, so they keep their smooth edges either way.
+     * @param antiAlias     True for smooth edges.
+     */
+    public void setAntiAlias(boolean antiAlias) {
+        deadPaint.setAntiAlias(antiAlias);
+    }
+
+    /**
+     * Find where the ring is drawn, for redrawing it while it fades.
+     * @param width     The width of the world.
+     * @param height    The height of the world.
+     * @param bounds    Set to the square around the ring.
+     */
+    public void getRingBounds(int width, int height, RectF bounds) {
+        int outerCircle = (int)(width * CIRCLE_SIZE_RATIO);
+        bounds.set(width / 2 - outerCircle, height / 2 - outerCircle,
+                width / 2 + outerCircle, height / 2 + outerCircle);
     }
 
     /**
@@ -124,49 +223,42 @@ public class ScoreDrawer {
      * Draw the screen at the end of the game. This displays the score in a larger font and
      * notifies the user if they set a new high score.
      * @param canvas    The screen to draw to.
-     * @param paint     The tool to paint with.
+     * @param width     The width of the world.
+     * @param height    The height of the world.
      * @param score     The score of the latest game.
      */
-    public void drawGameOverScreen(Canvas canvas, Paint paint, int score) {
-        drawGameOverScore(canvas, paint);
-        drawGameOverHighScore(canvas, paint, score);
+    public void drawGameOverScreen(Canvas canvas, int width, int height, int score) {
+        drawGameOverScore(canvas, width / 2, height / 2);
+        drawGameOverHighScore(canvas, width / 2, height / 2, score);
     }
 
     /**
-     * Draw the score of the latest game in a larger font.
+     * Draw the message that tells the user how to play again.
      * @param canvas    The screen to draw to.
-     * @param paint     The tool to paint with.
+     * @param x         The x coordinate of the center of the screen.
+     * @param y         The y coordinate of the center of the screen.
      */
-    private void drawGameOverScore(Canvas canvas, Paint paint) {
-        int x = canvas.getWidth() / 2;
-        int y = canvas.getHeight() / 2;
-
-        paint.setColor(Color.LTGRAY);
-        paint.setTextSize(deadFontSize);
-        int ty1 = (int) (y - y / 2 - ((paint.descent() + paint.ascent()) / 2));
-        canvas.drawText(line2, x, ty1, paint);
-        canvas.drawText(line1, x, ty1 + paint.ascent(), paint);
+    private void drawGameOverScore(Canvas canvas, int x, int y) {
+        int ty1 = (int) (y - y / 2 - deadCenter);
+        canvas.drawText(line2, x, ty1, deadPaint);
+        canvas.drawText(line1, x, ty1 + deadAscent, deadPaint);
     }
 
     /**
-     * Notify the user if they set a new high score.
+     * Draw the score of the latest game in a larger font, and notify the user if they set a new
+     * high score.
      * @param canvas    The screen to draw to.
-     * @param paint     The tool to paint with.
+     * @param x         The x coordinate of the center of the screen.
+     * @param y         The y coordinate of the center of the screen.
      * @param score     The score of the latest game.
      */
-    private void drawGameOverHighScore(Canvas canvas, Paint paint, int score) {
-        int x = canvas.getWidth() / 2;
-        int y = canvas.getHeight() / 2;
-
-        paint.setTextSize(finalScoreFont);
-        int ty2 = (int) (y - ((paint.descent() + paint.ascent()) / 2));
-        canvas.drawText(Integer.toString(score), x, ty2, paint);
-        int ty3 = (int) (y + (y/2) - ((paint.descent() + paint.ascent()) / 2));
-        paint.setTextSize(deadFontSize);
+    private void drawGameOverHighScore(Canvas canvas, int x, int y, int score) {
+        finalScoreDigits.draw(canvas, deadPaint, score, x, y);
 
         if (newHighScore) {
-            canvas.drawText(line3, x, ty3 + paint.ascent(), paint);
-            canvas.drawText(line4, x, ty3, paint);
+            int ty3 = (int) (y + (y/2) - deadCenter);
+            canvas.drawText(line3, x, ty3 + deadAscent, deadPaint);
+            canvas.drawText(line4, x, ty3, deadPaint);
         }
     }
 
@@ -6,7 +6,8 @@ import ca.brocku.cosc.duckyjump.R;
 
 /**
  * Manages the images of the different skins for the duck. Also contains the colors corresponding
- * to each skin. This color is to be used for the bubbles and the menu.
+ * to each skin. This color is to be used for the bubbles and the menu. The full size images are for
+ * the menus, and the sprites are for the game.
  */
 public class SkinManager {
 
@@ -61,6 +62,53 @@ public class SkinManager {
         throw new AssertionError("Skin not recognized.");
     }
 
+    /**
+     * Get the image ID of the sprite of the duck where the duck is not jumping. The sprites are
+     * generated when the app is built, at their size in the world.
+     * @param skin  The color of the duck.
+     * @return      The ID of the image in resources.
+     */
+    public static int getBirdSpriteID(Skin skin) {
+        switch (skin) {
+            case YELLOW:
+                return R.drawable.sprite_duck_yellow;
+            case ORANGE:
+                return R.drawable.sprite_duck_orange;
+            case RED:
+                return R.drawable.sprite_duck_red;
+            case BLUE:
+                return R.drawable.sprite_duck_blue;
+            case GREEN:
+                return R.drawable.sprite_duck_green;
+            case PURPLE:
+                return R.drawable.sprite_duck_purple;
+        }
+        throw new AssertionError("Skin not recognized.");
+    }
+
+    /**
+     * Get the image ID of the sprite of the duck where the duck is jumping.
+     * @param skin  The color of the duck.
+     * @return      The ID of the image in resources.
+     */
+    public static int getBirdJumpSpriteID(Skin skin) {
+        switch (skin) {
+            case YELLOW:
+                return R.drawable.sprite_duck_yellow_jump;
+            case ORANGE:
+                return R.drawable.sprite_duck_orange_jump;
+            case RED:
+                return R.drawable.sprite_duck_red_jump;
+            case BLUE:
+                return R.drawable.sprite_duck_blue_jump;
+            case GREEN:
+                return R.drawable.sprite_duck_green_jump;
+            case PURPLE:
+                return R.drawable.sprite_duck_purple_jump;
+        }
+        throw new AssertionError("Skin not recognized.");
+    }
+
     /**
      * Get the corresponding color of the specified duck skin.
      * @param skin  The color of the duck.
@@ -1,299 +1,234 @@
 package ca.brocku.cosc.duckyjump.GameObjects;
 
-import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
 
-import java.util.TreeMap;
-
-import ca.brocku.cosc.duckyjump.R;
-import ca.brocku.cosc.duckyjump.GameObjects.Utility.Direction;
+import ca.brocku.cosc.duckyjump.core.AlphaMask;
+import ca.brocku.cosc.duckyjump.core.Direction;
+import ca.brocku.cosc.duckyjump.core.SpikeWall;
 
 /**
- * Responsible for generating and animating the spikes.
+ * Draws the spikes from the sprite atlas. Where the spikes are is decided by the SpikeWall of the
+ * game. The atlas has one spike pointing up and one pointing right, the others are drawn mirrored.
+ *
+ * When the sprites are batched, every spike is a sprite of the batch, so all the spikes are drawn
+ * in the same call. Otherwise they are drawn in layers. The top and bottom rows never change, so
+ * each is drawn once into a bitmap as wide as the canvas. The spikes on the wall only change when
+ * they spawn, so they are drawn into a column bitmap, which slides in from the wall.
  */
 public class Spikes {
 
-    private static final float SCALE = 0.2f;
-
-    // The spikes that come out from the sides are stored here. Only one side is stored at a time.
-    private Boolean[] spikes;
-
-    // This is required in order to load the images from resources.
-    private Context context;
-
-    private Bitmap bottomSpike, topSpike, leftSpike, rightSpike;
-    private Direction direction = Direction.RIGHT; // Determines which wall to spawn spikes on.
-    private int width = -1, height = -1; // This must be set when access to the canvas is possible.
-    private int offset; // Spikes come out from the sides starting at a particular offset.
+    private SpriteAtlas atlas;
+    private Rect spike, sideSpike; // The regions of the images.
+    private AlphaMask bottomMask, topMask, leftMask, rightMask; // Their solid pixels.
 
-    // Maps the score to the number of spikes there should be.
-    private static final TreeMap<Integer, Integer> difficultyMap = new TreeMap<>();
-    static {
-        difficultyMap.put(0, 0);
-        difficultyMap.put(1, 2);
-        difficultyMap.put(2, 3);
-        difficultyMap.put(5, 4);
-        difficultyMap.put(13, 5);
-        difficultyMap.put(22, 6);
-        difficultyMap.put(30, 7);
-        difficultyMap.put(35, 8);
-        difficultyMap.put(40, 9);
-        difficultyMap.put(45, 10);
-    }
+    // The layers, for the size of the canvas they were drawn for.
+    private Bitmap topRow, bottomRow, column;
+    private Canvas columnCanvas; // Draws into the column.
+    private long columnSpikes; // The spikes drawn in the column.
+    private Direction columnWall; // The wall of the spikes in the column, or null if none.
 
     /**
      * Construct the spikes.
-     * @param context   This is required to load the images from resources.
+     * @param atlas     The images of the game.
      */
-    public Spikes(Context context) {
-        this.context = context;
-        spikes = new Boolean[0];
-        loadImage();
-    }
+    public Spikes(SpriteAtlas atlas) {
+        this.atlas = atlas;
+        spike = atlas.getRegion(SpriteAtlas.SPIKE);
+        sideSpike = atlas.getRegion(SpriteAtlas.SIDE_SPIKE);
 
-    /**
-     * Remove the spikes from the sides (not from the top and bottom).
-     */
-    public void clear(){
-        spawnSpikes(0);
+        bottomMask = atlas.getMask(spike, false, false);
+        topMask = atlas.getMask(spike, false, true);
+        leftMask = atlas.getMask(sideSpike, false, false);
+        rightMask = atlas.getMask(sideSpike, true, false);
     }
 
     /**
-     * The number of spikes to spawn depends on the score. A higher score means more speaks.
-     * @param score     The current score in the game.
-     * @return          The number of spikes that should be spawn.
-     */
-    private int getNumberOfSpikesToSpawn(int score){
-        if (difficultyMap.containsKey(score))
-            return difficultyMap.get(score);
+     * Draw the spikes to the screen.
+     * @param batch         The batch to draw with.
+     * @param paint         The tool to paint with.
+     * @param wall          The spikes on the walls.
+     * @param width         The width of the world.
+     * @param height        The height of the world.
+     * @param alpha         How far the display is into the next tick (0 to 1).
+     */
+    public void draw(SpriteBatch batch, Paint paint, SpikeWall wall, int width, int height,
+                     float alpha) {
+        if (batch.isBatching())
+            drawSprites(batch, wall, width, height, alpha);
         else
-            return difficultyMap.get(difficultyMap.floorKey(score));
-    }
-
-    /**
-     * Spawn spikes at the left or right wall. The number of spikes depends on the score.
-     * @param direction     The wall to spawn on.
-     * @param score         The current score in the game.
-     */
-    public void spawn(Direction direction, int score) {
-        this.direction = direction;
-        int numOfSpikes = getNumberOfSpikesToSpawn(score);
-        spawnSpikes(numOfSpikes);
-        resetOffset();
+            drawLayers(batch, paint, wall, width, height, alpha);
     }
 
     /**
-     * Spawn the left or right spikes.
-     * @param numOfSpikes   The number of spikes to spawn.
+     * Add every spike to the batch.
+     * @param batch         The batch to draw with.
+     * @param wall          The spikes on the walls.
+     * @param width         The width of the world.
+     * @param height        The height of the world.
+     * @param alpha         How far the display is into the next tick (0 to 1).
      */
-    private void spawnSpikes(int numOfSpikes) {
-        if (spikes.length == 0) {
-            spikes = new Boolean[getMaxPossibleSpikes(height)];
+    private void drawSprites(SpriteBatch batch, SpikeWall wall, int width, int height,
+                             float alpha) {
+        boolean right = wall.getDirection() == Direction.RIGHT;
+        float offset = wall.getOffset(alpha);
+        float x = right ? width - sideSpike.width() - offset : offset;
+        for (long left = wall.getSpawnLocations(); left != 0; left &= left - 1) {
+            int i = Long.numberOfTrailingZeros(left);
+            batch.draw(sideSpike, x, sideSpike.height() + sideSpike.height() * i, right, false);
         }
 
-        // Don't create more spikes than can fit & have at least space for one empty spot.
-        if (numOfSpikes >= spikes.length)
-            numOfSpikes = spikes.length - 1;
-
-        for (int i = 0; i < numOfSpikes; i++) {
-            spikes[i] = true;
+        int bottom = height - spike.height();
+        for (int i = spike.width(); i < width + spike.width(); i += spike.width()) {
+            batch.draw(spike, width - i, 0, false, true);
+            batch.draw(spike, width - i, bottom, false, false);
         }
-        for (int i = numOfSpikes; i < spikes.length; i++){
-            spikes[i] = false;
-        }
-
-        Utility.Shuffle(spikes);
-    }
-
-    /**
-     * When new spikes are spawned the offset needs to be reset. This is so that the spikes are
-     * placed outside the boundaries of the screen and then move into the screen to perform the
-     * spawn animation.
-     */
-    private void resetOffset() {
-        offset = -leftSpike.getWidth() / 2;
-    }
-
-    /**
-     * Update the spawn animation.
-     */
-    public void update() {
-        if (offset < 0)
-            offset += 5;
     }
 
     /**
-     * Draw the spikes to the screen.
-     * @param canvas        The screen to draw on.
+     * Draw the spikes from the cached layers, which is three bitmaps however many spikes there
+     * are.
+     * @param batch         The batch to draw with.
      * @param paint         The tool to paint with.
-     * @param direction     The wall that the spikes are on.
-     */
-    public void draw(Canvas canvas, Paint paint, Direction direction) {
-        if (direction == Direction.RIGHT)
-            drawRightSpikes(canvas, paint);
-        else
-            drawLeftSpikes(canvas, paint);
-
-        drawTopSpikes(canvas, paint);
-        drawBottomSpikes(canvas, paint);
-    }
-
-    /**
-     * Set the dimensions of the canvas.
-     * @param width     The width of the canvas.
-     * @param height    The height of the canvas.
-     */
-    public void setDimensions(int width, int height) {
-        this.width = width;
-        this.height = height;
-    }
-
-    /**
-     * Get the width of the screen. This is used by the collision detection algorithm.
-     * @return  The width of the screen.
-     */
-    int getScreenWidth() {
-        if (width == -1)
-            throw new IllegalStateException("Cannot get the screen width before spawning.");
-        return width;
-    }
-
-    /**
-     * Get the height of the screen. This is used by the collision detection algorithm.
-     * @return
-     */
-    int getScreenHeight() {
-        if (height == - 1)
-            throw new IllegalStateException("Cannot get the screen height before spawning.");
-        return height;
-    }
-
-    /**
-     * A spike is an isosceles triangle. The base is the measurement of the longest side.
-     * @return  The base measurement in pixels.
-     */
-    public int getSpikeBase() {
-        return bottomSpike.getWidth();
-    }
-
-    /**
-     * A spike is an isosceles triangle. The height is the measurement between the center of the
-     * two acute angles and the obtuse angle.
-     * @return  The height measurement in pixels.
-     */
-    public int getSpikeHeight() {
-        return bottomSpike.getHeight() / 2;
+     * @param wall          The spikes on the walls.
+     * @param width         The width of the world.
+     * @param height        The height of the world.
+     * @param alpha         How far the display is into the next tick (0 to 1).
+     */
+    private void drawLayers(SpriteBatch batch, Paint paint, SpikeWall wall, int width, int height,
+                            float alpha) {
+        if (topRow == null || topRow.getWidth() != width || column.getHeight() != height)
+            cacheLayers(width, height, paint);
+        long spikes = wall.getSpawnLocations();
+        if (spikes != columnSpikes || wall.getDirection() != columnWall)
+            cacheColumn(spikes, wall.getDirection(), paint);
+
+        if (spikes != 0) {
+            // The column slides in from the wall as the offset goes to 0.
+            float offset = wall.getOffset(alpha);
+            float x = wall.getDirection() == Direction.RIGHT
+                    ? width - column.getWidth() - offset
+                    : offset;
+            batch.drawBitmap(column, x, 0, paint);
+        }
+        batch.drawBitmap(topRow, 0, 0, paint);
+        batch.drawBitmap(bottomRow, 0, height - bottomRow.getHeight(), paint);
     }
 
     /**
-     * Get the array containing where the spikes are.
-     * @return  The spikes.
+     * Find where the spikes on the wall are drawn. The top and bottom rows never move, so only
+     * the wall needs to be redrawn while it slides in.
+     * @param wall      The spikes on the walls.
+     * @param width     The width of the world.
+     * @param height    The height of the world.
+     * @param alpha     How far the display is into the next tick (0 to 1).
+     * @param bounds    Set to the column of the wall, empty if there are no spikes on it.
      */
-    Boolean[] getSpawnLocations() {
-        return spikes;
+    public void getColumnBounds(SpikeWall wall, int width, int height, float alpha, RectF bounds) {
+        if (wall.getSpawnLocations() == 0) {
+            bounds.setEmpty();
+            return;
+        }
+        float offset = wall.getOffset(alpha);
+        float x = wall.getDirection() == Direction.RIGHT
+                ? width - sideSpike.width() - offset
+                : offset;
+        bounds.set(x, 0, x + sideSpike.width(), height);
     }
 
     /**
-     * Get the wall that the spikes are created on (left or right).
-     * @return  The wall that the spikes are created on.
+     * Get the size of a spike image. The images are square.
+     * @return  The size of a spike in pixels.
      */
-    Direction getDirection() {
-        return direction;
+    public int getSpikeSize() {
+        return spike.width();
     }
 
     /**
-     * Draw spikes on the right wall.
-     * @param canvas        The screen to draw on.
-     * @param paint         The tool to paint with.
+     * Draw the rows of spikes into their layers, and make an empty layer for the wall. This is
+     * only done again when the size of the canvas changes.
+     * @param width     The width of the world.
+     * @param height    The height of the world.
+     * @param paint     The tool to paint with.
      */
-    private void drawRightSpikes(Canvas canvas, Paint paint) {
-        for (int i = 0; i < spikes.length; i++) {
-            if (!spikes[i])
-                continue;
-            int x = canvas.getWidth() - rightSpike.getWidth() - offset;
-            int y = rightSpike.getHeight() + rightSpike.getHeight() * i;
-            canvas.drawBitmap(rightSpike, x, y, paint);
+    private void cacheLayers(int width, int height, Paint paint) {
+        if (topRow != null) {
+            topRow.recycle();
+            bottomRow.recycle();
+            column.recycle();
         }
-    }
-
-    /**
-     * Draw spikes on the left wall.
-     * @param canvas        The screen to draw on.
-     * @param paint         The tool to paint with.
-     */
-    private void drawLeftSpikes(Canvas canvas, Paint paint) {
-        for (int i = 0; i < spikes.length; i++) {
-            if (!spikes[i])
-                continue;
-
-            int x = 0 + offset;
-            int y = leftSpike.getHeight() + leftSpike.getHeight() * i;
-            canvas.drawBitmap(leftSpike, x, y, paint);
+        topRow = Bitmap.createBitmap(width, spike.height(), Bitmap.Config.ARGB_8888);
+        bottomRow = Bitmap.createBitmap(width, spike.height(), Bitmap.Config.ARGB_8888);
+        drawRow(new Canvas(topRow), paint, true);
+        drawRow(new Canvas(bottomRow), paint, false);
+
+        column = Bitmap.createBitmap(sideSpike.width(), height, Bitmap.Config.ARGB_8888);
+        columnCanvas = new Canvas(column);
+        columnWall = null; // Nothing is drawn in the column yet.
+    }
+
+    /**
+     * Draw the spikes of the current wall into the column layer. This is only done again when
+     * new spikes spawn.
+     * @param spikes    Where the spikes are (bit i is set for a spike in slot i).
+     * @param wall      The wall the spikes are on.
+     * @param paint     The tool to paint with.
+     */
+    private void cacheColumn(long spikes, Direction wall, Paint paint) {
+        column.eraseColor(Color.TRANSPARENT);
+        // Only visit the slots with a spike, by clearing the lowest set bit every time.
+        for (long left = spikes; left != 0; left &= left - 1) {
+            int i = Long.numberOfTrailingZeros(left);
+            int y = sideSpike.height() + sideSpike.height() * i;
+            atlas.draw(columnCanvas, paint, sideSpike, 0, y, wall == Direction.RIGHT, false);
         }
+        columnSpikes = spikes;
+        columnWall = wall;
     }
 
     /**
-     * Draw spikes on the top.
-     * @param canvas        The screen to draw on.
-     * @param paint         The tool to paint with.
+     * Draw a row of spikes across a layer, from the right edge to the left.
+     * @param canvas    The layer to draw on.
+     * @param paint     The tool to paint with.
+     * @param top       True for the top row, where the spikes point down.
      */
-    private void drawTopSpikes(Canvas canvas, Paint paint) {
-        int start = bottomSpike.getWidth();
-        int end = canvas.getWidth() + bottomSpike.getWidth();
-        int increment = bottomSpike.getWidth();
+    private void drawRow(Canvas canvas, Paint paint, boolean top) {
+        int start = spike.width();
+        int end = canvas.getWidth() + spike.width();
+        int increment = spike.width();
         for (int i = start; i < end; i += increment) {
             int x = canvas.getWidth() - i;
-            int y = canvas.getHeight() - bottomSpike.getHeight();
-            canvas.drawBitmap(bottomSpike, x, y, paint);
+            atlas.draw(canvas, paint, spike, x, 0, false, top);
         }
     }
 
     /**
-     * Draw spikes on the bottom.
-     * @param canvas        The screen to draw on.
-     * @param paint         The tool to paint with.
+     * Get the solid pixels of the spikes in the top row, for the pixel accurate collisions.
+     * @return  The mask of a top spike.
      */
-    private void drawBottomSpikes(Canvas canvas, Paint paint) {
-        int start = topSpike.getWidth();
-        int end = canvas.getWidth() + topSpike.getWidth();
-        int increment = topSpike.getWidth();
-        for (int i = start; i < end; i += increment) {
-            int x = canvas.getWidth() - i;
-            int y = 0;
-            canvas.drawBitmap(topSpike, x, y, paint);
-        }
+    public AlphaMask getTopMask() {
+        return topMask;
     }
 
     /**
-     * The maximum possible spikes that can be spawned on one side of the screen.
-     * @param height    The height of the screen.
-     * @return          The maximum number of spikes that can be spawned.
+     * Get the solid pixels of the spikes in the bottom row, for the pixel accurate collisions.
+     * @return  The mask of a bottom spike.
      */
-    public int getMaxPossibleSpikes(int height) {
-        Bitmap spike = rightSpike;
-        // Do not draw a spike right at the top or right at the bottom.
-        int trimmedHeight = height - spike.getHeight() * 2;
-        return trimmedHeight / spike.getHeight();
+    public AlphaMask getBottomMask() {
+        return bottomMask;
     }
 
     /**
-     * Load all the images of the spikes (4 in total: top, left, bottom, and right). These are all
-     * the same image but rotated.
+     * Get the solid pixels of the spikes on a wall, for the pixel accurate collisions.
+     * @param wall  The wall the spikes are on.
+     * @return      The mask of a spike on that wall.
      */
-    private void loadImage() {
-        Bitmap image = BitmapFactory.decodeResource(context.getResources(), R.drawable.spike);
-        int x = Utility.toScale(SCALE, image.getWidth());
-        int y = Utility.toScale(SCALE, image.getHeight());
-        bottomSpike = Bitmap.createScaledBitmap(image, x, y, false);
-        image = Utility.FlipBitmapVertically(image);
-        topSpike = Bitmap.createScaledBitmap(image, x, y, false);
-        image = Utility.RotateBitmap(image, -90);
-        leftSpike = Bitmap.createScaledBitmap(image, x, y, false);
-        image = Utility.FlipBitmapHorizontally(image);
-        rightSpike = Bitmap.createScaledBitmap(image, x, y, false);
+    public AlphaMask getSideMask(Direction wall) {
+        return wall == Direction.RIGHT ? rightMask : leftMask;
     }
 
 }
@@ -0,0 +1,221 @@
+package ca.brocku.cosc.duckyjump.GameObjects;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import ca.brocku.cosc.duckyjump.GameObjects.SkinManager.Skin;
+import ca.brocku.cosc.duckyjump.R;
+import ca.brocku.cosc.duckyjump.core.AlphaMask;
+import ca.brocku.cosc.duckyjump.core.World;
+
+/**
+ * All the images of the game packed into a single bitmap. Every image is a named region of the
+ * atlas and is drawn from its source rectangle. Images that are only a mirror of another one (the
+ * duck facing left, the spikes on the top and the right) are not stored, they are drawn mirrored
+ * with a canvas transform instead.
+ *
+ * The images of every skin are in the atlas, so switching the skin of the duck only picks other
+ * regions. The images are packed in rows (a shelf packer), which is plenty for a few equally sized
+ * images.
+ */
+public class SpriteAtlas {
+
+    public static final String SPIKE = "spike"; // Pointing up, as in the bottom row.
+    public static final String SIDE_SPIKE = "spike_side"; // Pointing right, as on the left wall.
+    public static final String BUBBLE = "bubble"; // A white disc, to be tinted.
+
+    private static final int MAX_WIDTH = 1024; // Of a row of images.
+    private static final int PADDING = 1; // Between the images, so that they do not bleed.
+    private static final int BUBBLE_SIZE = 64; // Drawn smaller or larger as the bubbles shrink.
+
+    private Bitmap bitmap;
+    private Map<String, Rect> regions = new HashMap<>();
+    private RectF destination = new RectF(); // Reused for every image drawn.
+    private Map<String, AlphaMask> masks = new HashMap<>(); // By region and mirroring.
+
+    /**
+     * Pack images into an atlas. The images are copied, so they can be shared with the
+     * BitmapCache.
+     * @param images    The images by name, in the order to pack them.
+     */
+    public SpriteAtlas(Map<String, Bitmap> images) {
+        // Place the images row by row, starting a new row when the current one is full.
+        int x = 0, y = 0, rowHeight = 0, width = 0;
+        for (Map.Entry<String, Bitmap> entry : images.entrySet()) {
+            Bitmap image = entry.getValue();
+            if (x > 0 && x + image.getWidth() > MAX_WIDTH) {
+                x = 0;
+                y += rowHeight + PADDING;
+                rowHeight = 0;
+            }
+            regions.put(entry.getKey(),
+                    new Rect(x, y, x + image.getWidth(), y + image.getHeight()));
+            x += image.getWidth() + PADDING;
+            rowHeight = Math.max(rowHeight, image.getHeight());
+            width = Math.max(width, x);
+        }
+
+        bitmap = Bitmap.createBitmap(Math.max(width, 1), Math.max(y + rowHeight, 1),
+                Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        for (Map.Entry<String, Bitmap> entry : images.entrySet()) {
+            Rect region = regions.get(entry.getKey());
+            canvas.drawBitmap(entry.getValue(), region.left, region.top, null);
+        }
+    }
+
+    /**
+     * Load the images of the duck in every skin and of the spikes, and pack them into an atlas.
+     * The images are the sprites that the build scaled down to their size in the world (see
+     * SpritePreprocessor of the tools), so nothing is scaled or turned here. They are only
+     * decoded the first time the process needs them (see BitmapCache).
+     * @param context   This is required to load the images from resources.
+     * @return          The atlas.
+     */
+    public static SpriteAtlas load(Context context) {
+        Resources resources = context.getResources();
+        BitmapCache cache = BitmapCache.getInstance();
+        Map<String, Bitmap> images = new LinkedHashMap<>();
+        for (Skin skin : Skin.values()) {
+            images.put(getDuckName(skin, false),
+                    getSprite(cache, resources, SkinManager.getBirdSpriteID(skin)));
+            images.put(getDuckName(skin, true),
+                    getSprite(cache, resources, SkinManager.getBirdJumpSpriteID(skin)));
+        }
+        images.put(SPIKE, getSprite(cache, resources, R.drawable.sprite_spike));
+        images.put(SIDE_SPIKE, getSprite(cache, resources, R.drawable.sprite_spike_side));
+        Bitmap bubble = createBubble();
+        images.put(BUBBLE, bubble);
+        SpriteAtlas atlas = new SpriteAtlas(images);
+        bubble.recycle();
+        return atlas;
+    }
+
+    /**
+     * Get a sprite of the game. The sprites have no density (drawable-nodpi), so they are decoded
+     * at the size of their files.
+     * @param cache         The cache to get it from.
+     * @param resources     The resources of the app.
+     * @param id            The ID of the sprite in resources.
+     * @return              The sprite, which must not be recycled.
+     */
+    private static Bitmap getSprite(BitmapCache cache, Resources resources, int id) {
+        return cache.get(resources, id, World.DENSITY, 1, BitmapCache.NONE,
+                Bitmap.Config.ARGB_8888);
+    }
+
+    /**
+     * Draw the image of a bubble: a white disc on a transparent background.
+     * @return  The image.
+     */
+    private static Bitmap createBubble() {
+        Bitmap bubble = Bitmap.createBitmap(BUBBLE_SIZE, BUBBLE_SIZE, Bitmap.Config.ARGB_8888);
+        Paint paint = new Paint();
+        paint.setAntiAlias(true);
+        paint.setColor(Color.WHITE);
+        new Canvas(bubble).drawCircle(BUBBLE_SIZE / 2f, BUBBLE_SIZE / 2f, BUBBLE_SIZE / 2f, paint);
+        return bubble;
+    }
+
+    /**
+     * Get the name of an image of the duck.
+     * @param skin      The color of the duck.
+     * @param jumping   True for the jump image.
+     * @return          The name of the image, facing right.
+     */
+    public static String getDuckName(Skin skin, boolean jumping) {
+        String name = "duck_" + skin.name().toLowerCase(Locale.ROOT);
+        return jumping ? name + "_jump" : name;
+    }
+
+    /**
+     * Get where an image is in the atlas.
+     * @param name  The name of the image.
+     * @return      The region of the image.
+     * @throws IllegalArgumentException     If there is no image by that name.
+     */
+    public Rect getRegion(String name) {
+        Rect region = regions.get(name);
+        if (region == null)
+            throw new IllegalArgumentException("No image named " + name);
+        return region;
+    }
+
+    /**
+     * Draw an image of the atlas.
+     * @param canvas    The screen to draw on.
+     * @param paint     The tool to paint with.
+     * @param region    The region of the image.
+     * @param x         The x coordinate to draw the image at.
+     * @param y         The y coordinate to draw the image at.
+     * @param mirrorX   True to draw the image mirrored left to right.
+     * @param mirrorY   True to draw the image upside down.
+     */
+    public void draw(Canvas canvas, Paint paint, Rect region, float x, float y, boolean mirrorX,
+                     boolean mirrorY) {
+        destination.set(x, y, x + region.width(), y + region.height());
+        if (!mirrorX && !mirrorY) {
+            canvas.drawBitmap(bitmap, region, destination, paint);
+            return;
+        }
+        canvas.save();
+        canvas.scale(mirrorX ? -1 : 1, mirrorY ? -1 : 1, destination.centerX(),
+                destination.centerY());
+        canvas.drawBitmap(bitmap, region, destination, paint);
+        canvas.restore();
+    }
+
+    /**
+     * Draw an image of the atlas stretched over a rectangle.
+     * @param canvas    The screen to draw on.
+     * @param paint     The tool to paint with.
+     * @param region    The region of the image.
+     * @param left      The left side of the rectangle.
+     * @param top       The top of the rectangle.
+     * @param right     The right side of the rectangle.
+     * @param bottom    The bottom of the rectangle.
+     */
+    public void draw(Canvas canvas, Paint paint, Rect region, float left, float top, float right,
+                     float bottom) {
+        destination.set(left, top, right, bottom);
+        canvas.drawBitmap(bitmap, region, destination, paint);
+    }
+
+    /**
+     * Find the solid pixels of an image of the atlas, as it is drawn. The masks are kept, since
+     * the atlas is shared by every game of the process (see WarmUp).
+     * @param region    The region of the image.
+     * @param mirrorX   True for the image mirrored left to right.
+     * @param mirrorY   True for the image upside down.
+     * @return          The mask of the solid pixels.
+     */
+    public synchronized AlphaMask getMask(Rect region, boolean mirrorX, boolean mirrorY) {
+        String key = region.flattenToString() + (mirrorX ? "x" : "") + (mirrorY ? "y" : "");
+        AlphaMask mask = masks.get(key);
+        if (mask == null) {
+            mask = Utility.toAlphaMask(bitmap, region, mirrorX, mirrorY);
+            masks.put(key, mask);
+        }
+        return mask;
+    }
+
+    /**
+     * Get the bitmap that the images are packed in.
+     * @return  The bitmap of the atlas.
+     */
+    Bitmap getBitmap() {
+        return bitmap;
+    }
+
+}
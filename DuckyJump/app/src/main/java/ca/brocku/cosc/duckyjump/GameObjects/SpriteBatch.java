@@ -0,0 +1,229 @@
+package ca.brocku.cosc.duckyjump.GameObjects;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
+import android.graphics.Rect;
+import android.graphics.Shader;
+
+/**
+ * Draws sprites of the atlas in batches. Every sprite is a quad (two triangles) that is gathered
+ * into preallocated vertex, texture coordinate and color arrays, and the whole batch is drawn with
+ * a single Canvas.drawVertices(...) call, with the atlas as the shader of the paint. Mirrored
+ * sprites only swap their texture coordinates, and tinted sprites (the bubbles) multiply the atlas
+ * by the color of their vertices.
+ *
+ * A canvas that is hardware accelerated (the canvas of a GameView) cannot draw vertices on this
+ * version of Android, so there every sprite is drawn with its own drawBitmap(...) instead. The
+ * SurfaceView canvas is drawn in software, so it gets the batches.
+ *
+ * The batch counts the draw calls that it makes, so the debug overlay can show them per frame.
+ */
+public class SpriteBatch {
+
+    private static final int MAX_SPRITES = 256; // Per draw call.
+
+    private SpriteAtlas atlas;
+    private Paint paint; // With the atlas as the shader.
+    private Paint tintPaint; // For drawing tinted sprites one by one.
+    private int tint; // The color of the filter of the tint paint, or 0 if it has none.
+    private float[] vertices = new float[MAX_SPRITES * 8]; // x, y for the 4 corners of a sprite.
+    private float[] texture = new float[MAX_SPRITES * 8]; // The same corners in the atlas.
+    private int[] colors = new int[MAX_SPRITES * 4]; // Of the corners.
+    private short[] indices = new short[MAX_SPRITES * 6]; // The two triangles of every sprite.
+    private int sprites; // In the current batch.
+
+    private Canvas canvas; // Between begin(...) and end().
+    private boolean batching; // The canvas can draw vertices.
+    private int drawCalls; // In the current frame.
+    private int frameDrawCalls; // In the last frame.
+
+    /**
+     * Construct a batch.
+     * @param atlas     The atlas of the sprites.
+     */
+    public SpriteBatch(SpriteAtlas atlas) {
+        this.atlas = atlas;
+        paint = new Paint();
+        paint.setFilterBitmap(true);
+        paint.setShader(new BitmapShader(atlas.getBitmap(), Shader.TileMode.CLAMP,
+                Shader.TileMode.CLAMP));
+        tintPaint = new Paint();
+        tintPaint.setFilterBitmap(true);
+        for (int i = 0; i < MAX_SPRITES; i++) {
+            short corner = (short) (i * 4);
+            indices[i * 6] = corner;
+            indices[i * 6 + 1] = (short) (corner + 1);
+            indices[i * 6 + 2] = (short) (corner + 2);
+            indices[i * 6 + 3] = corner;
+            indices[i * 6 + 4] = (short) (corner + 2);
+            indices[i * 6 + 5] = (short) (corner + 3);
+        }
+    }
+
+    /**
+     * Turn the filtering of stretched and mirrored sprites on or off. Without it, the nearest
+     * pixel of the atlas is used, which is cheaper but blockier.
+     * @param filter    True to filter the sprites.
+     */
+    public void setFilterBitmap(boolean filter) {
+        paint.setFilterBitmap(filter);
+        tintPaint.setFilterBitmap(filter);
+    }
+
+    /**
+     * Start drawing a frame.
+     * @param canvas    The canvas to draw on.
+     */
+    public void begin(Canvas canvas) {
+        this.canvas = canvas;
+        batching = !canvas.isHardwareAccelerated();
+        sprites = 0;
+        drawCalls = 0;
+    }
+
+    /**
+     * Finish drawing a frame. The sprites left in the batch are drawn.
+     */
+    public void end() {
+        flush();
+        frameDrawCalls = drawCalls;
+        canvas = null;
+    }
+
+    /**
+     * Check if the sprites are drawn in batches on the current canvas.
+     * @return  True if the canvas can draw vertices.
+     */
+    public boolean isBatching() {
+        return batching;
+    }
+
+    /**
+     * Draw a sprite at its own size.
+     * @param region    The region of the sprite in the atlas.
+     * @param x         The x coordinate to draw the sprite at.
+     * @param y         The y coordinate to draw the sprite at.
+     * @param mirrorX   True to draw the sprite mirrored left to right.
+     * @param mirrorY   True to draw the sprite upside down.
+     */
+    public void draw(Rect region, float x, float y, boolean mirrorX, boolean mirrorY) {
+        if (!batching) {
+            atlas.draw(canvas, null, region, x, y, mirrorX, mirrorY);
+            drawCalls++;
+            return;
+        }
+        add(region, x, y, x + region.width(), y + region.height(), Color.WHITE, mirrorX, mirrorY);
+    }
+
+    /**
+     * Draw a sprite stretched over a rectangle, multiplied by a color.
+     * @param region    The region of the sprite in the atlas.
+     * @param left      The left side of the rectangle.
+     * @param top       The top of the rectangle.
+     * @param right     The right side of the rectangle.
+     * @param bottom    The bottom of the rectangle.
+     * @param color     The color to multiply the sprite with, including its opacity.
+     */
+    public void draw(Rect region, float left, float top, float right, float bottom, int color) {
+        if (!batching) {
+            if (tint != (color | 0xff000000)) {
+                // Only a new color needs a new filter, not a new opacity.
+                tint = color | 0xff000000;
+                tintPaint.setColorFilter(new PorterDuffColorFilter(tint, PorterDuff.Mode.MULTIPLY));
+            }
+            tintPaint.setAlpha(Color.alpha(color));
+            atlas.draw(canvas, tintPaint, region, left, top, right, bottom);
+            drawCalls++;
+            return;
+        }
+        add(region, left, top, right, bottom, color, false, false);
+    }
+
+    /**
+     * Draw a bitmap that is not in the atlas, such as a cached layer. The batch so far is drawn
+     * first, so that the bitmap ends up on top of it.
+     * @param bitmap    The bitmap.
+     * @param x         The x coordinate to draw the bitmap at.
+     * @param y         The y coordinate to draw the bitmap at.
+     * @param paint     The tool to paint with.
+     */
+    public void drawBitmap(Bitmap bitmap, float x, float y, Paint paint) {
+        flush();
+        canvas.drawBitmap(bitmap, x, y, paint);
+        drawCalls++;
+    }
+
+    /**
+     * Add a sprite to the batch, drawing the batch first if it is full.
+     * @param region    The region of the sprite in the atlas.
+     * @param left      The left side of the rectangle to draw it in.
+     * @param top       The top of the rectangle.
+     * @param right     The right side of the rectangle.
+     * @param bottom    The bottom of the rectangle.
+     * @param color     The color to multiply the sprite with.
+     * @param mirrorX   True to draw the sprite mirrored left to right.
+     * @param mirrorY   True to draw the sprite upside down.
+     */
+    private void add(Rect region, float left, float top, float right, float bottom, int color,
+                     boolean mirrorX, boolean mirrorY) {
+        if (sprites == MAX_SPRITES)
+            flush();
+
+        // Clockwise from the top left corner.
+        int v = sprites * 8;
+        vertices[v] = left;
+        vertices[v + 1] = top;
+        vertices[v + 2] = right;
+        vertices[v + 3] = top;
+        vertices[v + 4] = right;
+        vertices[v + 5] = bottom;
+        vertices[v + 6] = left;
+        vertices[v + 7] = bottom;
+
+        float u0 = mirrorX ? region.right : region.left;
+        float u1 = mirrorX ? region.left : region.right;
+        float v0 = mirrorY ? region.bottom : region.top;
+        float v1 = mirrorY ? region.top : region.bottom;
+        texture[v] = u0;
+        texture[v + 1] = v0;
+        texture[v + 2] = u1;
+        texture[v + 3] = v0;
+        texture[v + 4] = u1;
+        texture[v + 5] = v1;
+        texture[v + 6] = u0;
+        texture[v + 7] = v1;
+
+        int c = sprites * 4;
+        colors[c] = color;
+        colors[c + 1] = color;
+        colors[c + 2] = color;
+        colors[c + 3] = color;
+        sprites++;
+    }
+
+    /**
+     * Draw the sprites in the batch with one call, and start a new batch.
+     */
+    public void flush() {
+        if (sprites == 0)
+            return;
+        canvas.drawVertices(Canvas.VertexMode.TRIANGLES, sprites * 8, vertices, 0, texture, 0,
+                colors, 0, indices, 0, sprites * 6, paint);
+        sprites = 0;
+        drawCalls++;
+    }
+
+    /**
+     * Get the number of draw calls that the batch made in the last frame.
+     * @return  The number of draw calls.
+     */
+    public int getDrawCalls() {
+        return frameDrawCalls;
+    }
+
+}
@@ -1,27 +1,57 @@
 package ca.brocku.cosc.duckyjump.GameObjects;
 
 import android.graphics.Bitmap;
-import android.graphics.Matrix;
+import android.graphics.Rect;
 
-import java.util.Random;
+import ca.brocku.cosc.duckyjump.core.AlphaMask;
 
 /**
- * Helper class for bitmap manipulation, scaling and other common functions.
+ * Helper class for bitmap manipulation and scaling.
  */
 public class Utility {
 
+    // Pixels at least this opaque (0 to 255) count as solid for the pixel accurate collisions.
+    private static final int ALPHA_THRESHOLD = 128;
+
     /**
      * Static classes should not be instantiated.
      */
     private Utility(){}
 
     /**
-     * Used for determining which direction the duck is facing and on which wall to create the
-     * spikes on.
+     * Find the solid pixels of a bitmap. This is to be used once per image, when it is loaded.
+     * @param source    The bitmap, as it is drawn (after scaling).
+     * @return          The mask of the solid pixels.
      */
-    public enum Direction {
-        LEFT,
-        RIGHT,
+    public static AlphaMask toAlphaMask(Bitmap source) {
+        return toAlphaMask(source, new Rect(0, 0, source.getWidth(), source.getHeight()), false,
+                false);
+    }
+
+    /**
+     * Find the solid pixels of a part of a bitmap, such as an image in an atlas.
+     * @param source    The bitmap, as it is drawn (after scaling).
+     * @param region    The part of the bitmap.
+     * @param mirrorX   True for the part mirrored left to right.
+     * @param mirrorY   True for the part upside down.
+     * @return          The mask of the solid pixels.
+     */
+    public static AlphaMask toAlphaMask(Bitmap source, Rect region, boolean mirrorX,
+                                        boolean mirrorY) {
+        int width = region.width();
+        int height = region.height();
+        int[] pixels = new int[width * height];
+        source.getPixels(pixels, 0, width, region.left, region.top, width, height);
+        if (mirrorX || mirrorY) {
+            int[] mirrored = new int[pixels.length];
+            for (int y = 0; y < height; y++) {
+                int row = mirrorY ? height - 1 - y : y;
+                for (int x = 0; x < width; x++)
+                    mirrored[row * width + (mirrorX ? width - 1 - x : x)] = pixels[y * width + x];
+            }
+            pixels = mirrored;
+        }
+        return new AlphaMask(width, height, pixels, ALPHA_THRESHOLD);
     }
 
     /**
@@ -33,72 +63,4 @@ public class Utility {
     public static int toScale(float scale, int value) {
         return Math.round(scale * value);
     }
-
-    /**
-     * Rotate the specified bitmap. This is to be used by spikes in order to generate four images
-     * from the single image in the drawables folder.
-     * @param source    The bitmap to rotate.
-     * @param angle     The angle in which to rotate the bitmap.
-     * @return          The rotated bitmap.
-     */
-    public static Bitmap RotateBitmap(Bitmap source, float angle) {
-        Matrix matrix = new Matrix();
-        matrix.postRotate(angle);
-        return Bitmap.createBitmap(source, 0, 0, source.getWidth(), source.getHeight(), matrix, true);
-    }
-
-    /**
-     * Flip the specified bitmap horizontally. This is to be used by duck in order to generate
-     * two more images from the two that are in the drawables folder (the drawable folders has two
-     * images where the duck is facing right, but the duck needs to be able to face the other
-     * direction too).
-     * @param source    The bitmap to flip.
-     * @return          The flipped bitmap.
-     */
-    public static Bitmap FlipBitmapHorizontally(Bitmap source) {
-        Matrix matrix = new Matrix();
-        int cx = source.getWidth() / 2;
-        int cy = source.getHeight() / 2;
-        matrix.postScale(-1, 1, cx, cy);
-        return Bitmap.createBitmap(source, 0, 0, source.getWidth(), source.getHeight(), matrix, true);
-    }
-
-    /**
-     * Flip the specified bitmap vertically. This is used by the spikes in order to create spikes
-     * in all four orientations from the single image in the drawables folder.
-     * @param source    The bitmap to flip.
-     * @return          The flipped bitmap.
-     */
-    public static Bitmap FlipBitmapVertically(Bitmap source) {
-        Matrix matrix = new Matrix();
-        int cx = source.getWidth() / 2;
-        int cy = source.getHeight() / 2;
-        matrix.postScale(1, -1, cx, cy);
-        return Bitmap.createBitmap(source, 0, 0, source.getWidth(), source.getHeight(), matrix, true);
-    }
-
-    /**
-     * Shuffle an array. This is for spawning spikes in random locations.
-     * @param array     The array of spikes.
-     * @param <T>       The type of element, but should be spikes in this case.
-     */
-    public static <T> void Shuffle(T[] array) {
-        Random random = new Random();
-        for (int i = 0; i < array.length; i++) {
-            Swap(array, i, random.nextInt(array.length));
-        }
-    }
-
-    /**
-     * Helper method for the shuffle method to swap to elements.
-     * @param array     The array to perform the swap on.
-     * @param i         The first element.
-     * @param j         The second element.
-     * @param <T>       The type of element, but should be spikes in this case.
-     */
-    public static <T> void Swap(T[] array, int i, int j) {
-        T temp = array[i];
-        array[i] = array[j];
-        array[j] = temp;
-    }
 }
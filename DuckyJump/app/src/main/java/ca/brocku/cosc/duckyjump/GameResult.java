@@ -0,0 +1,85 @@
+package ca.brocku.cosc.duckyjump;
+
+import ca.brocku.cosc.duckyjump.GameObjects.SkinManager.Skin;
+import ca.brocku.cosc.duckyjump.core.DeathCause;
+
+/**
+ * A finished game, as it is kept in the history of the database.
+ */
+public class GameResult {
+
+    private final int points;
+    private final long date;
+    private final long duration;
+    private final int jumps;
+    private final DeathCause deathCause;
+    private final Skin skin;
+
+    /**
+     * Construct a finished game.
+     * @param points        The score of the game.
+     * @param date          When the game ended, in milliseconds since the epoch.
+     * @param duration      How long the duck was moving, in milliseconds.
+     * @param jumps         The number of jumps.
+     * @param deathCause    The spikes that killed the duck.
+     * @param skin          The skin the game was played with.
+     */
+    public GameResult(int points, long date, long duration, int jumps, DeathCause deathCause,
+                      Skin skin) {
+        this.points = points;
+        this.date = date;
+        this.duration = duration;
+        this.jumps = jumps;
+        this.deathCause = deathCause;
+        this.skin = skin;
+    }
+
+    /**
+     * Get the score of the game.
+     * @return  The points.
+     */
+    public int getPoints() {
+        return points;
+    }
+
+    /**
+     * Get when the game ended.
+     * @return  The date, in milliseconds since the epoch.
+     */
+    public long getDate() {
+        return date;
+    }
+
+    /**
+     * Get how long the duck was moving.
+     * @return  The duration in milliseconds.
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Get the number of jumps.
+     * @return  The jumps.
+     */
+    public int getJumps() {
+        return jumps;
+    }
+
+    /**
+     * Get the spikes that killed the duck.
+     * @return  The cause of death.
+     */
+    public DeathCause getDeathCause() {
+        return deathCause;
+    }
+
+    /**
+     * Get the skin the game was played with.
+     * @return  The skin.
+     */
+    public Skin getSkin() {
+        return skin;
+    }
+
+}
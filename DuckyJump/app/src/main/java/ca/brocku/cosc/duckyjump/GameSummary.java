@@ -0,0 +1,93 @@
+package ca.brocku.cosc.duckyjump;
+
+/**
+ * The statistics of every game that was played, as they are kept up to date in the database (see
+ * Database.getSummary()), so they are read without going through the history.
+ *
+ * The games that were moved over from the scores of an older version of the database only have a
+ * score and a date, so the averages of the durations and the jumps are over the games that have
+ * them.
+ */
+public class GameSummary {
+
+    public static final int HISTOGRAM_BUCKET = 5; // Points per bar of the histogram.
+
+    private final int games;
+    private final long totalScore;
+    private final int bestScore;
+    private final int detailedGames;
+    private final long totalDuration;
+    private final long totalJumps;
+    private final int[] histogram;
+
+    /**
+     * Construct a summary.
+     * @param games             The number of games.
+     * @param totalScore        The sum of the scores of the games.
+     * @param bestScore         The highest score.
+     * @param detailedGames     The number of games that have a duration and jumps.
+     * @param totalDuration     The sum of their durations, in milliseconds.
+     * @param totalJumps        The sum of their jumps.
+     * @param histogram         The number of games for every HISTOGRAM_BUCKET points.
+     */
+    GameSummary(int games, long totalScore, int bestScore, int detailedGames, long totalDuration,
+                long totalJumps, int[] histogram) {
+        this.games = games;
+        this.totalScore = totalScore;
+        this.bestScore = bestScore;
+        this.detailedGames = detailedGames;
+        this.totalDuration = totalDuration;
+        this.totalJumps = totalJumps;
+        this.histogram = histogram;
+    }
+
+    /**
+     * Get the number of games that were played.
+     * @return  The number of games.
+     */
+    public int getGames() {
+        return games;
+    }
+
+    /**
+     * Get the highest score.
+     * @return  The best score, or 0 if no game was played.
+     */
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * Get the average score.
+     * @return  The average, or 0 if no game was played.
+     */
+    public float getAverageScore() {
+        return games == 0 ? 0 : (float) totalScore / games;
+    }
+
+    /**
+     * Get the average time that the duck was moving.
+     * @return  The average in milliseconds, or 0 if no game has a duration.
+     */
+    public float getAverageDuration() {
+        return detailedGames == 0 ? 0 : (float) totalDuration / detailedGames;
+    }
+
+    /**
+     * Get the average number of jumps.
+     * @return  The average, or 0 if no game has jumps.
+     */
+    public float getAverageJumps() {
+        return detailedGames == 0 ? 0 : (float) totalJumps / detailedGames;
+    }
+
+    /**
+     * Get the histogram of the scores.
+     * @return  The number of games that scored from i * HISTOGRAM_BUCKET up to the next bucket, for
+     *          every i up to the bucket of the best score. It must not be changed.
+     */
+    public int[] getHistogram() {
+        return histogram;
+    }
+
+}
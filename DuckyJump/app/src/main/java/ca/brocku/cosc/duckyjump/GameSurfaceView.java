@@ -0,0 +1,100 @@
+package ca.brocku.cosc.duckyjump;
+
+import android.content.Context;
+import android.view.MotionEvent;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+
+/**
+ * Hosts the engine in a surface view. The frames are drawn by a RenderThread instead of the UI
+ * thread, so layout, touch and menu work on the UI thread no longer delay the game.
+ *
+ * The render thread only runs while the activity is resumed AND the surface exists. PlayGame
+ * reports the first half through onResume() and onPause(), the surface callbacks report the other
+ * half. Both halves arrive on the UI thread, so no extra locking is needed here.
+ *
+ * The view can also only redraw the parts of the surface that changed (see RenderThread).
+ */
+public class GameSurfaceView extends SurfaceView implements SurfaceHolder.Callback {
+
+    private Engine engine;
+    private boolean dirty; // Only redraw what changed.
+    private RenderThread renderThread;
+    private boolean resumed, surfaceReady;
+
+    /**
+     * Construct the view.
+     * @param context   The context.
+     * @param engine    The engine to host.
+     * @param dirty     True to only redraw the parts of the surface that changed.
+     */
+    public GameSurfaceView(Context context, Engine engine, boolean dirty) {
+        super(context);
+        this.engine = engine;
+        this.dirty = dirty;
+        getHolder().addCallback(this);
+    }
+
+    /**
+     * To be called from the onResume() of the activity.
+     */
+    public void onResume() {
+        resumed = true;
+        startRenderThread();
+    }
+
+    /**
+     * To be called from the onPause() of the activity. This blocks until the render thread has
+     * finished its last frame.
+     */
+    public void onPause() {
+        resumed = false;
+        stopRenderThread();
+    }
+
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        surfaceReady = true;
+        startRenderThread();
+    }
+
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        // The engine picks up the new size from the canvas.
+    }
+
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        // The surface is gone as soon as this returns, so the thread must be stopped first.
+        surfaceReady = false;
+        stopRenderThread();
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        engine.onTouchEvent(event);
+        return super.onTouchEvent(event);
+    }
+
+    /**
+     * Start drawing, if both the activity and the surface are ready and nothing is drawing yet.
+     */
+    private void startRenderThread() {
+        if (!resumed || !surfaceReady || renderThread != null)
+            return;
+        engine.resetFrameTiming(); // Don't simulate or count the time spent paused.
+        renderThread = new RenderThread(getHolder(), engine, dirty);
+        renderThread.start();
+    }
+
+    /**
+     * Stop drawing and wait for the render thread to let go of the surface.
+     */
+    private void stopRenderThread() {
+        if (renderThread == null)
+            return;
+        renderThread.requestStop();
+        renderThread = null;
+    }
+
+}
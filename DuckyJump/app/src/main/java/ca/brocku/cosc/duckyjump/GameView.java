@@ -0,0 +1,51 @@
+package ca.brocku.cosc.duckyjump;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.support.v7.widget.AppCompatImageView;
+import android.view.MotionEvent;
+
+/**
+ * Hosts the engine in a regular view. Every frame is drawn in onDraw(...) on the UI thread and
+ * the next frame is requested with postInvalidateOnAnimation(). This is the original way the game
+ * was drawn and it is kept so that it can be compared with the GameSurfaceView.
+ */
+public class GameView extends AppCompatImageView {
+
+    private Engine engine;
+
+    /**
+     * Construct the view.
+     * @param context   The context.
+     * @param engine    The engine to host.
+     */
+    public GameView(Context context, Engine engine) {
+        super(context);
+        this.engine = engine;
+    }
+
+    /**
+     * Draw a frame of the game and request the next one.
+     * @param canvas    The canvas to draw to.
+     */
+    @Override
+    protected void onDraw(Canvas canvas) {
+        engine.drawFrame(canvas);
+        postInvalidateOnAnimation(); // REQUIRED
+        super.onDraw(canvas);        // REQUIRED
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        if (visibility == VISIBLE)
+            engine.resetFrameTiming(); // Don't simulate the time spent in the background.
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        engine.onTouchEvent(event);
+        return super.onTouchEvent(event);
+    }
+
+}
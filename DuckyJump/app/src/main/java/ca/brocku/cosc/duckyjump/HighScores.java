@@ -0,0 +1,179 @@
+package ca.brocku.cosc.duckyjump;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the high score in memory, so that the game can tell a new high score when the duck dies
+ * without reading the database on the frame that draws the death, and writes the finished games
+ * to the history of the database behind the game.
+ *
+ * The high score is read from the Database once, in the background, when the process starts (see
+ * DuckyJumpApplication), and an Engine waits for it when it is constructed, so submitting a game
+ * never waits for the disk. A finished game (and the score, if it is a new high score) is taken in
+ * memory right away and queued to be written behind the game: the queue is written in one
+ * transaction FLUSH_DELAY_MS after the first game in it, so games that come in quick succession
+ * are written together. flush() writes the queue right away and waits for it, and is called when
+ * the game is paused, so no score is lost if the process is then stopped. All the disk work is done
+ * on a single background thread.
+ */
+public class HighScores {
+
+    private static final String TAG = "HighScores";
+    private static final long FLUSH_DELAY_MS = 2000;
+
+    private static HighScores instance;
+
+    private final Database db;
+    private final ScheduledExecutorService executor;
+    // The high score in the database, when the process started.
+    private final Future<Integer> saved;
+    // Games and high scores that are not written yet.
+    private final List<GameResult> pendingGames = new ArrayList<>();
+    private final List<Score> pendingScores = new ArrayList<>();
+    private ScheduledFuture<?> scheduled; // The next write of the queue, or null if none is due.
+    private int highScore;
+    private boolean loaded;
+
+    private final Runnable writer = new Runnable() {
+        @Override
+        public void run() {
+            write();
+        }
+    };
+
+    /**
+     * Construct the high scores and start reading the high score.
+     * @param context   The context.
+     */
+    private HighScores(Context context) {
+        db = Database.getInstance(context);
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, TAG);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        saved = executor.submit(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return db.getHighScore();
+            }
+        });
+    }
+
+    /**
+     * Get the high scores of the process, which start being read the first time this is called.
+     * @param context   Any context of the app.
+     * @return          The high scores.
+     */
+    public static synchronized HighScores getInstance(Context context) {
+        if (instance == null)
+            instance = new HighScores(context);
+        return instance;
+    }
+
+    /**
+     * Get the high score, waiting for it if it was not read yet.
+     * @return  The high score, including the ones that are not written yet.
+     */
+    public synchronized int getHighScore() {
+        if (!loaded) {
+            try {
+                highScore = Math.max(highScore, saved.get());
+            } catch (ExecutionException e) {
+                Log.w(TAG, "Could not read the high score", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return highScore; // Try again next time.
+            }
+            loaded = true;
+        }
+        return highScore;
+    }
+
+    /**
+     * Submit a finished game, which is queued to be written with its score if it is a new high
+     * score. This never waits for the disk, so that it can be called from the game loop: if the
+     * high score was not read yet (see getHighScore()), the game is only compared with the games
+     * of this process.
+     * @param game  The game.
+     * @return      True if the score is a new high score.
+     */
+    public synchronized boolean submit(GameResult game) {
+        pendingGames.add(game);
+        if (!loaded && saved.isDone())
+            getHighScore(); // Does not wait.
+        boolean newHighScore = game.getPoints() > highScore;
+        if (newHighScore) {
+            highScore = game.getPoints();
+            pendingScores.add(new Score(game.getPoints(), game.getDate()));
+        }
+        if (scheduled == null)
+            scheduled = executor.schedule(writer, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        return newHighScore;
+    }
+
+    /**
+     * Write the queued games now, and wait until they (and a write that had already started) are
+     * written.
+     */
+    public void flush() {
+        Future<?> done;
+        synchronized (this) {
+            if (scheduled != null)
+                scheduled.cancel(false);
+            done = executor.submit(writer);
+        }
+        try {
+            done.get();
+        } catch (ExecutionException e) {
+            Log.w(TAG, "Could not write the high scores", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Write the queued games and scores in one transaction. What could not be written is queued
+     * again, and tried again FLUSH_DELAY_MS later.
+     */
+    private void write() {
+        List<GameResult> games;
+        List<Score> scores;
+        synchronized (this) {
+            games = new ArrayList<>(pendingGames);
+            scores = new ArrayList<>(pendingScores);
+            pendingGames.clear();
+            pendingScores.clear();
+            scheduled = null;
+        }
+        if (games.isEmpty() && scores.isEmpty())
+            return;
+        try {
+            db.saveGames(games, scores);
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Could not write the high scores", e);
+            synchronized (this) {
+                pendingGames.addAll(0, games);
+                pendingScores.addAll(0, scores);
+                if (scheduled == null)
+                    scheduled = executor.schedule(writer, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+}
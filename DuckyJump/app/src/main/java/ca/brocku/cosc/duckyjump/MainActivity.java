@@ -1,6 +1,7 @@
 package ca.brocku.cosc.duckyjump;;
 
 import android.content.Intent;
+import android.content.res.Resources;
 import android.graphics.Color;
 import android.os.Handler;
 import android.support.v7.app.AppCompatActivity;
@@ -9,44 +10,49 @@ import android.os.Bundle;
 import com.hitomi.cmlibrary.CircleMenu;
 import com.hitomi.cmlibrary.OnMenuSelectedListener;
 
+import ca.brocku.cosc.duckyjump.GameObjects.BitmapCache;
 import ca.brocku.cosc.duckyjump.GameObjects.SkinManager;
 
 import static ca.brocku.cosc.duckyjump.GameObjects.SkinManager.Skin;
 
 /**
- * The first activity the pops up in the app. This contains the buttons for the other menus.
+ * The first activity the pops up in the app. This contains the buttons for the other menus. The
+ * images of the menu come from the BitmapCache, so they are only decoded once per process.
  */
 public class MainActivity extends AppCompatActivity {
 
     private String circleMenuArray[] = {"Play", "Scoreboard", "Options"};
-    private Database db;
+    private long tapTime; // When the last button was pressed, from System.nanoTime().
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
-        db = new Database(getBaseContext());
 
         final Handler setDelay = new Handler();
 
-        db = new Database(getBaseContext());
-        Skin skin = db.getSkin();
+        Skin skin = WarmUp.get(this).getSkin(); // Read in the background when the process started.
         int id1 = SkinManager.getBirdImageID(skin);
         int id2 = SkinManager.getBirdJumpImageID(skin);
         int c = SkinManager.getColor(skin);
         String color = "#" + Integer.toHexString(c);
 
+        BitmapCache cache = BitmapCache.getInstance();
+        Resources res = getResources();
+        int menuColor = Color.parseColor(color);
         final CircleMenu circleMenu = (CircleMenu) findViewById(R.id.circle_main_menu);
-        circleMenu.setMainMenu(Color.parseColor("#222222"), id1, id2)
-                .addSubMenu(Color.parseColor(color), R.drawable.icon_play)
-                .addSubMenu(Color.parseColor(color), R.drawable.icon_hiscores)
-                .addSubMenu(Color.parseColor(color), R.drawable.icon_settings)
+        circleMenu.setMainMenu(Color.parseColor("#222222"), cache.getDrawable(res, id1),
+                        cache.getDrawable(res, id2))
+                .addSubMenu(menuColor, cache.getDrawable(res, R.drawable.icon_play))
+                .addSubMenu(menuColor, cache.getDrawable(res, R.drawable.icon_hiscores))
+                .addSubMenu(menuColor, cache.getDrawable(res, R.drawable.icon_settings))
                 .setOnMenuSelectedListener(new OnMenuSelectedListener() {
                     Runnable startDelay;
 
                     @Override
                     public void onMenuSelected(int index) {
                         final int i = index;
+                        tapTime = System.nanoTime();
                         startDelay = new Runnable() {
                             @Override
                             public void run() {
@@ -76,6 +82,7 @@ public class MainActivity extends AppCompatActivity {
         switch (circleMenuArray[index]) {
             case "Play":
                 i = new Intent(this, PlayGame.class);
+                i.putExtra(PlayGame.EXTRA_LAUNCH_TIME, tapTime);
                 startActivity(i);
                 overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
                 break;
@@ -2,14 +2,134 @@ package ca.brocku.cosc.duckyjump;
 
 import android.support.v7.app.AppCompatActivity;
 import android.os.Bundle;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import ca.brocku.cosc.duckyjump.core.Recording;
 
 /**
- * Responsible for starting the game.
+ * Responsible for starting the game. By default the game is drawn on its own render thread. The
+ * extras below pick other ways to draw and play it, mostly for testing on slow phones.
+ *
+ * The session is saved to RECORDING_FILE (in the files directory) whenever the activity is paused,
+ * so a death reported by a player can be reproduced. The high scores that are waiting to be written
+ * are written then too.
  */
 public class PlayGame extends AppCompatActivity {
+
+    // The name of a RenderMode. SURFACE when it is missing.
+    public static final String EXTRA_RENDER_MODE = "ca.brocku.cosc.duckyjump.RENDER_MODE";
+    // The path of a saved session, which is replayed on screen instead of playing a new one.
+    public static final String EXTRA_REPLAY = "ca.brocku.cosc.duckyjump.REPLAY";
+    // True to detect the collisions down to the pixel.
+    public static final String EXTRA_PIXEL_COLLISION = "ca.brocku.cosc.duckyjump.PIXEL_COLLISION";
+    // The number of ticks to move the game at a time (up to Recording.MAX_STEP_TICKS), for phones
+    // that are too slow to keep up with every tick.
+    public static final String EXTRA_STEP_TICKS = "ca.brocku.cosc.duckyjump.STEP_TICKS";
+    // The resolution to draw the game at, relative to the screen (such as 0.5 for half). The game
+    // is then scaled up to the screen.
+    public static final String EXTRA_RENDER_SCALE = "ca.brocku.cosc.duckyjump.RENDER_SCALE";
+    // When the tap that launched the game happened, from System.nanoTime(). The engine measures
+    // the time from then (or from the creation of the activity, without it) to the first frame.
+    public static final String EXTRA_LAUNCH_TIME = "ca.brocku.cosc.duckyjump.LAUNCH_TIME";
+    public static final String RECORDING_FILE = "last-session.djr";
+
+    private static final String TAG = "PlayGame";
+
+    private Engine engine;
+    private GameSurfaceView surfaceView; // Null when the game is drawn in a GameView.
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        setContentView(new Engine(this));
+        long launchTime = getIntent().getLongExtra(EXTRA_LAUNCH_TIME, System.nanoTime());
+        boolean pixelCollision = getIntent().getBooleanExtra(EXTRA_PIXEL_COLLISION, false);
+        int stepTicks = getIntent().getIntExtra(EXTRA_STEP_TICKS, 1);
+        // What a recording can save.
+        stepTicks = Math.max(1, Math.min(Recording.MAX_STEP_TICKS, stepTicks));
+        engine = new Engine(this, loadReplay(), pixelCollision, stepTicks);
+        engine.setRenderScale(getIntent().getFloatExtra(EXTRA_RENDER_SCALE, 1));
+        engine.setLaunchTime(launchTime);
+        RenderMode mode = getRenderMode();
+        if (mode != RenderMode.VIEW) {
+            surfaceView = new GameSurfaceView(this, engine, mode == RenderMode.DIRTY);
+            setContentView(surfaceView);
+        } else {
+            setContentView(new GameView(this, engine));
+        }
     }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        if (surfaceView != null)
+            surfaceView.onResume();
+    }
+
+    @Override
+    protected void onPause() {
+        if (surfaceView != null)
+            surfaceView.onPause();
+        try {
+            engine.saveRecording(new File(getFilesDir(), RECORDING_FILE));
+        } catch (IOException e) {
+            Log.w(TAG, "Could not save the recording of the session", e);
+        }
+        HighScores.getInstance(this).flush();
+        super.onPause();
+    }
+
+    /**
+     * Get the engine that runs the game.
+     * @return  The engine.
+     */
+    Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Load the recording that was requested to be replayed through the intent.
+     * @return  The recording, or null to play a new game.
+     */
+    private Recording loadReplay() {
+        String path = getIntent().getStringExtra(EXTRA_REPLAY);
+        if (path == null)
+            return null;
+        try {
+            InputStream in = new FileInputStream(path);
+            try {
+                return Recording.read(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Could not load the recording " + path + ", playing a new game instead", e);
+            return null;
+        }
+    }
+
+    /**
+     * Get the render mode that was requested through the intent.
+     * @return  The render mode.
+     */
+    private RenderMode getRenderMode() {
+        String mode = getIntent().getStringExtra(EXTRA_RENDER_MODE);
+        if (mode == null)
+            return RenderMode.SURFACE;
+        return RenderMode.valueOf(mode);
+    }
+
+    /**
+     * The ways that the engine can be drawn to the screen.
+     */
+    public enum RenderMode {
+        VIEW,       // onDraw(...) on the UI thread.
+        SURFACE,    // A render thread that locks the canvas of a surface.
+        DIRTY       // A render thread that only redraws the parts of the surface that changed.
+    }
+
 }
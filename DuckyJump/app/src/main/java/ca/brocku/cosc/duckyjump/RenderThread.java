@@ -0,0 +1,118 @@
+package ca.brocku.cosc.duckyjump;
+
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.view.SurfaceHolder;
+
+/**
+ * Draws the frames of the engine onto a surface. Each frame locks the canvas of the surface, lets
+ * the engine update and draw, and then posts the canvas. Posting blocks until the display can
+ * take another buffer, which paces the loop to the refresh rate of the screen.
+ *
+ * A dirty render thread only locks the part of the surface that changed since the previous frame.
+ * The rest of the surface keeps what was posted before, so less is drawn and copied every frame.
+ * When nothing changed, nothing is posted and the thread waits for the next frame instead.
+ */
+class RenderThread extends Thread {
+
+    private static final long IDLE_MS = 16; // How long to wait when there is nothing to draw.
+
+    private final SurfaceHolder holder;
+    private final Engine engine;
+    private final boolean dirty; // Only redraw what changed.
+    private volatile boolean running = true;
+
+    /**
+     * Construct the render thread.
+     * @param holder    The holder of the surface to draw to.
+     * @param engine    The engine that draws the frames.
+     * @param dirty     True to only redraw the parts of the surface that changed.
+     */
+    RenderThread(SurfaceHolder holder, Engine engine, boolean dirty) {
+        super("RenderThread");
+        this.holder = holder;
+        this.engine = engine;
+        this.dirty = dirty;
+    }
+
+    @Override
+    public void run() {
+        if (dirty) {
+            runDirty();
+            return;
+        }
+        while (running) {
+            Canvas canvas = holder.lockCanvas();
+            if (canvas == null) {
+                // The surface is not ready (yet), wait and try again.
+                try {
+                    Thread.sleep(IDLE_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                engine.drawFrame(canvas);
+            } finally {
+                holder.unlockCanvasAndPost(canvas);
+            }
+        }
+    }
+
+    /**
+     * Draw only the parts of the surface that changed. The engine stays locked from finding the
+     * damage until it is drawn, so that a touch in between cannot change what needs drawing.
+     */
+    private void runDirty() {
+        Rect damage = new Rect();
+        while (running) {
+            boolean idle;
+            synchronized (engine) {
+                Rect frame = holder.getSurfaceFrame();
+                engine.advanceFrame(frame.width(), frame.height(), damage);
+                idle = damage.isEmpty();
+                if (!idle) {
+                    // The surface may grow the rectangle, the engine draws whatever is inside it.
+                    Canvas canvas = holder.lockCanvas(damage);
+                    if (canvas == null) {
+                        // The surface is not ready (yet), wait outside the lock and try again.
+                        engine.redrawAll();
+                        idle = true;
+                    } else {
+                        try {
+                            engine.renderFrame(canvas);
+                        } finally {
+                            holder.unlockCanvasAndPost(canvas);
+                        }
+                    }
+                }
+            }
+            if (idle) {
+                try {
+                    Thread.sleep(IDLE_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Ask the thread to stop after the current frame and wait for it to finish.
+     */
+    void requestStop() {
+        running = false;
+        boolean interrupted = false;
+        while (isAlive()) {
+            try {
+                join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+}
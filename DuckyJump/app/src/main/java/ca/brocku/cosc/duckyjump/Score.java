@@ -0,0 +1,57 @@
+package ca.brocku.cosc.duckyjump;
+
+/**
+ * A saved score: the points of a game and when it was played.
+ */
+public class Score {
+
+    private final long id;
+    private final int points;
+    private final long date;
+
+    /**
+     * Construct a score that is not saved yet.
+     * @param points    The points of the game.
+     * @param date      When the game was played, in milliseconds since the epoch.
+     */
+    public Score(int points, long date) {
+        this(0, points, date);
+    }
+
+    /**
+     * Construct a score that was read from the database.
+     * @param id        The row of the score in the database.
+     * @param points    The points of the game.
+     * @param date      When the game was played, in milliseconds since the epoch.
+     */
+    Score(long id, int points, long date) {
+        this.id = id;
+        this.points = points;
+        this.date = date;
+    }
+
+    /**
+     * Get the row of the score in the database, which orders the scores that have the same points.
+     * @return  The row, or 0 if the score is not saved yet.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Get the points of the game.
+     * @return  The points.
+     */
+    public int getPoints() {
+        return points;
+    }
+
+    /**
+     * Get when the game was played.
+     * @return  The date, in milliseconds since the epoch.
+     */
+    public long getDate() {
+        return date;
+    }
+
+}
@@ -0,0 +1,159 @@
+package ca.brocku.cosc.duckyjump;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteException;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.BaseAdapter;
+import android.widget.TextView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Shows the saved scores in a list, reading them from the database a page at a time as the list is
+ * scrolled. The pages are read on a background thread and added to the list on the UI thread, so
+ * the scoreboard opens right away however many scores there are. Only the rows on the screen are
+ * made into text, and the views of the rows that scroll off the screen are reused for the rows
+ * that scroll on.
+ */
+public class ScoreAdapter extends BaseAdapter {
+
+    private static final String TAG = "ScoreAdapter";
+    private static final int PAGE_SIZE = 50;
+    private static final int PREFETCH = 20; // How near the end of the list the next page is read.
+
+    private final Database db;
+    private final LayoutInflater inflater;
+    private final ExecutorService executor;
+    private final Handler handler;
+    private final List<Score> scores = new ArrayList<>();
+    private boolean loading, complete, closed;
+
+    /**
+     * Construct the adapter, without reading any scores.
+     * @param context   The context of the list.
+     */
+    public ScoreAdapter(Context context) {
+        db = Database.getInstance(context);
+        inflater = LayoutInflater.from(context);
+        handler = new Handler(Looper.getMainLooper());
+        executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, TAG);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Start reading the first page of scores.
+     */
+    public void start() {
+        loadNextPage();
+    }
+
+    /**
+     * Stop reading scores, such as when the scoreboard is closed.
+     */
+    public void close() {
+        closed = true;
+        executor.shutdownNow();
+    }
+
+    /**
+     * Read the page after the scores in the list in the background, unless one is already being
+     * read or every score was read.
+     */
+    private void loadNextPage() {
+        if (loading || complete || closed)
+            return;
+        loading = true;
+        final Score after = scores.isEmpty() ? null : scores.get(scores.size() - 1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final List<Score> page;
+                try {
+                    page = db.queryScores(after, PAGE_SIZE);
+                } catch (SQLiteException e) {
+                    Log.w(TAG, "Could not read the scores", e);
+                    handler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            loading = false; // Read again when the list is next scrolled.
+                        }
+                    });
+                    return;
+                }
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        addPage(page);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Add a page that was read to the list.
+     * @param page  The scores of the page.
+     */
+    private void addPage(List<Score> page) {
+        if (closed)
+            return;
+        loading = false;
+        complete = page.size() < PAGE_SIZE;
+        scores.addAll(page);
+        notifyDataSetChanged();
+    }
+
+    @Override
+    public int getCount() {
+        return scores.size();
+    }
+
+    @Override
+    public Score getItem(int position) {
+        return scores.get(position);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return scores.get(position).getId();
+    }
+
+    @Override
+    public boolean hasStableIds() {
+        return true;
+    }
+
+    @Override
+    public View getView(int position, View convertView, ViewGroup parent) {
+        if (position >= scores.size() - PREFETCH)
+            loadNextPage();
+        View view = convertView;
+        if (view == null) {
+            view = inflater.inflate(R.layout.list_item, parent, false);
+            // Not looked up again when the view is reused.
+            view.setTag(view.findViewById(R.id.score_text_item));
+        }
+        TextView text = (TextView) view.getTag();
+        Score score = scores.get(position);
+        text.setText(String.format(Locale.CANADA, "Score: %d | Date: %tD", score.getPoints(),
+                score.getDate()));
+        return view;
+    }
+
+}
@@ -1,5 +1,6 @@
 package ca.brocku.cosc.duckyjump;
 
+import android.content.res.Resources;
 import android.graphics.Color;
 import android.os.Handler;
 import android.support.v7.app.AppCompatActivity;
@@ -8,10 +9,12 @@ import android.os.Bundle;
 import com.hitomi.cmlibrary.CircleMenu;
 import com.hitomi.cmlibrary.OnMenuSelectedListener;
 
+import ca.brocku.cosc.duckyjump.GameObjects.BitmapCache;
 import ca.brocku.cosc.duckyjump.GameObjects.SkinManager.Skin;
 
 /**
- * Responsible for the screen where the user can pick which duck they want to play with.
+ * Responsible for the screen where the user can pick which duck they want to play with. The images
+ * of the menu come from the BitmapCache, so the ducks are not decoded again every time.
  */
 public class SkinPicker extends AppCompatActivity {
 
@@ -30,17 +33,21 @@ public class SkinPicker extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_skin_picker);
-        db = new Database(getBaseContext());
+        db = Database.getInstance(this);
 
         final Handler setDelay = new Handler();
+        BitmapCache cache = BitmapCache.getInstance();
+        Resources res = getResources();
         CircleMenu circleMenu = (CircleMenu) findViewById(R.id.circle_skin_menu);
-        circleMenu.setMainMenu(Color.parseColor("#222222"), R.drawable.icon_settings, R.drawable.icon_settings)
-                .addSubMenu(Color.parseColor("#222222"),  R.drawable.duck_yellow)
-                .addSubMenu(Color.parseColor("#222222"),R.drawable.duck_blue)
-                .addSubMenu(Color.parseColor("#222222"), R.drawable.duck_orange)
-                .addSubMenu(Color.parseColor("#222222"), R.drawable.duck_purple)
-                .addSubMenu(Color.parseColor("#222222"), R.drawable.duck_red)
-                .addSubMenu(Color.parseColor("#222222"), R.drawable.duck_green)
+        int menuColor = Color.parseColor("#222222");
+        circleMenu.setMainMenu(menuColor, cache.getDrawable(res, R.drawable.icon_settings),
+                        cache.getDrawable(res, R.drawable.icon_settings))
+                .addSubMenu(menuColor, cache.getDrawable(res, R.drawable.duck_yellow))
+                .addSubMenu(menuColor, cache.getDrawable(res, R.drawable.duck_blue))
+                .addSubMenu(menuColor, cache.getDrawable(res, R.drawable.duck_orange))
+                .addSubMenu(menuColor, cache.getDrawable(res, R.drawable.duck_purple))
+                .addSubMenu(menuColor, cache.getDrawable(res, R.drawable.duck_red))
+                .addSubMenu(menuColor, cache.getDrawable(res, R.drawable.duck_green))
                 .setOnMenuSelectedListener(new OnMenuSelectedListener() {
                     Runnable startDelay;
                     @Override
@@ -65,6 +72,7 @@ public class SkinPicker extends AppCompatActivity {
      */
     public void setSkin(String duck) {
         db.updateSkin(duck);
+        WarmUp.get(this).reloadSkin();
         this.finish();
         overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
     }
@@ -0,0 +1,213 @@
+package ca.brocku.cosc.duckyjump;
+
+import android.content.Context;
+import android.graphics.Point;
+import android.graphics.Rect;
+import android.util.Log;
+import android.view.WindowManager;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import ca.brocku.cosc.duckyjump.GameObjects.ScoreDrawer;
+import ca.brocku.cosc.duckyjump.GameObjects.SkinManager.Skin;
+import ca.brocku.cosc.duckyjump.GameObjects.SpriteAtlas;
+import ca.brocku.cosc.duckyjump.core.World;
+
+/**
+ * Prepares what a game needs while the user is still in the menus, so that PlayGame can draw its
+ * first frame without loading anything. The work starts with the process (see DuckyJumpApplication)
+ * and is done in order on a single background thread:
+ *
+ * 1. The selected skin is read from the database.
+ * 2. The sprite atlas is loaded, and the collision masks of the selected skin and the spikes are
+ *    found. The atlas is shared by every game of the process.
+ * 3. A score drawer is made for the size of the screen. A score drawer belongs to a single game, so
+ *    a new one is prepared for the next game whenever one is taken.
+ *
+ * Each result is published as a Future. Getting a result that is not ready yet waits for it, so
+ * an engine that starts early still works, only slower. If the work failed, it is done again on
+ * the thread that asked for it.
+ */
+public class WarmUp {
+
+    private static final String TAG = "WarmUp";
+
+    private final Context context;
+    private final ExecutorService executor;
+    private Future<Skin> skin;
+    private Future<SpriteAtlas> atlas;
+    private Future<ScoreDrawer> scoreDrawer;
+
+    /**
+     * Construct the warm up, without starting it.
+     * @param context   The context of the application.
+     */
+    WarmUp(Context context) {
+        this.context = context.getApplicationContext();
+        executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, TAG);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Get the warm up of the process.
+     * @param context   Any context of the app.
+     * @return          The warm up.
+     */
+    public static WarmUp get(Context context) {
+        return ((DuckyJumpApplication) context.getApplicationContext()).getWarmUp();
+    }
+
+    /**
+     * Start preparing the skin, the atlas and a score drawer in the background.
+     */
+    synchronized void start() {
+        // The atlas waits for this skin, not the field: a skin reloaded before the atlas task runs
+        // is queued behind it on the same thread.
+        final Future<Skin> selected = skin = executor.submit(new Callable<Skin>() {
+            @Override
+            public Skin call() {
+                return loadSkin();
+            }
+        });
+        atlas = executor.submit(new Callable<SpriteAtlas>() {
+            @Override
+            public SpriteAtlas call() throws Exception {
+                return loadAtlas(selected.get());
+            }
+        });
+        prepareScoreDrawer();
+    }
+
+    /**
+     * Read the skin again, such as after the user picked another one.
+     */
+    public synchronized void reloadSkin() {
+        skin = executor.submit(new Callable<Skin>() {
+            @Override
+            public Skin call() {
+                return loadSkin();
+            }
+        });
+    }
+
+    /**
+     * Get the selected skin, waiting for it if it was not read yet.
+     * @return  The skin.
+     */
+    public Skin getSkin() {
+        Future<Skin> skin;
+        synchronized (this) {
+            skin = this.skin;
+        }
+        Skin result = get(skin, "skin");
+        return result != null ? result : loadSkin();
+    }
+
+    /**
+     * Get the sprite atlas, waiting for it if it was not loaded yet.
+     * @return  The atlas, shared by every game.
+     */
+    public SpriteAtlas getAtlas() {
+        Future<SpriteAtlas> atlas;
+        synchronized (this) {
+            atlas = this.atlas;
+        }
+        SpriteAtlas result = get(atlas, "atlas");
+        return result != null ? result : SpriteAtlas.load(context);
+    }
+
+    /**
+     * Take the prepared score drawer for a game, and start preparing one for the next game.
+     * @return  The score drawer, for a world WIDTH units wide.
+     */
+    public ScoreDrawer takeScoreDrawer() {
+        Future<ScoreDrawer> scoreDrawer;
+        synchronized (this) {
+            scoreDrawer = this.scoreDrawer;
+            prepareScoreDrawer();
+        }
+        ScoreDrawer result = get(scoreDrawer, "score drawer");
+        return result != null ? result : createScoreDrawer();
+    }
+
+    /**
+     * Start preparing a score drawer in the background.
+     */
+    private void prepareScoreDrawer() {
+        scoreDrawer = executor.submit(new Callable<ScoreDrawer>() {
+            @Override
+            public ScoreDrawer call() {
+                return createScoreDrawer();
+            }
+        });
+    }
+
+    /**
+     * Read the selected skin from the database.
+     * @return  The skin.
+     */
+    private Skin loadSkin() {
+        return Database.getInstance(context).getSkin();
+    }
+
+    /**
+     * Load the atlas, and find the collision masks of a skin and of the spikes.
+     * @param skin  The skin that the next game is played with.
+     * @return      The atlas.
+     */
+    private SpriteAtlas loadAtlas(Skin skin) {
+        SpriteAtlas atlas = SpriteAtlas.load(context);
+        for (boolean jumping : new boolean[] {false, true}) {
+            Rect duck = atlas.getRegion(SpriteAtlas.getDuckName(skin, jumping));
+            atlas.getMask(duck, false, false);
+            atlas.getMask(duck, true, false);
+        }
+        Rect spike = atlas.getRegion(SpriteAtlas.SPIKE);
+        Rect sideSpike = atlas.getRegion(SpriteAtlas.SIDE_SPIKE);
+        atlas.getMask(spike, false, false);
+        atlas.getMask(spike, false, true);
+        atlas.getMask(sideSpike, false, false);
+        atlas.getMask(sideSpike, true, false);
+        return atlas;
+    }
+
+    /**
+     * Make a score drawer for the world on this screen.
+     * @return  The score drawer.
+     */
+    private ScoreDrawer createScoreDrawer() {
+        WindowManager wm = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+        Point size = new Point();
+        wm.getDefaultDisplay().getSize(size);
+        return new ScoreDrawer(World.WIDTH, World.getHeight(size.x, size.y));
+    }
+
+    /**
+     * Wait for a result.
+     * @param future    The result.
+     * @param name      What the result is, for the log.
+     * @return          The result, or null if the work failed.
+     */
+    private static <T> T get(Future<T> future, String name) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Log.w(TAG, "Could not prepare the " + name + ", preparing it again", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,114 @@
+package ca.brocku.cosc.duckyjump.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+
+import ca.brocku.cosc.duckyjump.core.BubbleTrail;
+import ca.brocku.cosc.duckyjump.core.ParticleEmitter;
+import ca.brocku.cosc.duckyjump.core.ParticleSystem;
+
+/**
+ * The bubble trail while the player spams the jump button (a jump every tick), which keeps the
+ * queue of bubbles to create as full as it gets. burst() keeps thousands of particles alive by
+ * setting off a death burst every tick.
+ *
+ * The sprite batch is not available on a plain JVM, so draw() measures everything that
+ * Bubbles.draw(...) does per bubble except the batch.draw(...) call itself: skipping the bubbles
+ * that shrunk away, interpolating the position and size, offsetting the trail and building the
+ * tint of the kind of particle. It draws the trail and the bursts.
+ */
+@State(Scope.Thread)
+public class BubbleBenchmark {
+
+    private static final int MAX_VAL = 255;
+    private static final int COLOR = 0xFFFDD301;
+    private static final int WHITE = 0xFFFFFFFF;
+    private static final int WARM_UP_TICKS = 300;
+
+    private static final int BURST_PARTICLES = 4096;
+
+    private ParticleSystem particles;
+    private BubbleTrail trail;
+    private ParticleSystem bursts;
+    private int x, y;
+
+    @Setup
+    public void setUp() {
+        particles = new ParticleSystem(BURST_PARTICLES, new Random(1));
+        trail = new BubbleTrail(particles);
+        bursts = new ParticleSystem(BURST_PARTICLES, new Random(1));
+        x = Screens.WIDTH / 2;
+        y = Screens.HEIGHT / 2;
+        for (int i = 0; i < WARM_UP_TICKS; i++) {
+            jumpAndUpdate();
+            burstAndUpdate();
+        }
+    }
+
+    @Benchmark
+    public int update() {
+        jumpAndUpdate();
+        return particles.size();
+    }
+
+    @Benchmark
+    public int burst() {
+        burstAndUpdate();
+        return bursts.size();
+    }
+
+    @Benchmark
+    public void draw(Blackhole blackhole) {
+        draw(particles, blackhole);
+        draw(bursts, blackhole);
+    }
+
+    /**
+     * Do the work of Bubbles.draw(...) for every particle, and consume what would be batched.
+     * @param particles     The particles to draw.
+     * @param blackhole     Consumes the corners and the tint of every bubble.
+     */
+    private static void draw(ParticleSystem particles, Blackhole blackhole) {
+        float alpha = 0.5f;
+        for (int i = 0; i < particles.size(); i++) {
+            float size = particles.getSize(i, alpha);
+            if (size == 0)
+                continue;
+            boolean trail = particles.getKind(i) == ParticleEmitter.TRAIL;
+            float x = particles.getX(i, alpha) + (trail ? size / 2 : 0);
+            float y = particles.getY(i, alpha) + (trail ? size : 0);
+            int opacity = (int)(size / particles.getStartSize(i) * MAX_VAL);
+            int rgb = particles.getKind(i) == ParticleEmitter.SCORE_BURST ? WHITE : COLOR;
+            blackhole.consume(x - size);
+            blackhole.consume(y - size);
+            blackhole.consume(x + size);
+            blackhole.consume(y + size);
+            blackhole.consume((opacity << 24) | (rgb & 0x00FFFFFF));
+        }
+    }
+
+    /**
+     * Jump and move the duck a bit, like the player spamming the screen.
+     */
+    private void jumpAndUpdate() {
+        x = (x + 7) % Screens.WIDTH;
+        y = (y + 3) % Screens.HEIGHT;
+        trail.start(x, y);
+        particles.update();
+        trail.update(x, y);
+    }
+
+    /**
+     * Set off a death burst and move every particle, like a screen full of bursts.
+     */
+    private void burstAndUpdate() {
+        ParticleEmitter.DEATH_EMITTER.emit(bursts, Screens.WIDTH / 2, Screens.HEIGHT / 2);
+        bursts.update();
+    }
+
+}
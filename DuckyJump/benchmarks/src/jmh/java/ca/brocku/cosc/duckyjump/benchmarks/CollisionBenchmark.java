@@ -0,0 +1,46 @@
+package ca.brocku.cosc.duckyjump.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+import ca.brocku.cosc.duckyjump.core.CollisionDetection;
+import ca.brocku.cosc.duckyjump.core.Direction;
+import ca.brocku.cosc.duckyjump.core.DuckBody;
+import ca.brocku.cosc.duckyjump.core.SpikeWall;
+
+/**
+ * The collision check that runs every tick, at every level of the difficulty map (the score
+ * decides how many spikes there are on the wall). Only the slot that the duck is level with is
+ * looked at, so the time should not depend on the score. The duck does not touch a spike.
+ */
+@State(Scope.Thread)
+public class CollisionBenchmark {
+
+    // The scores where the difficulty map changes the number of spikes.
+    @Param({"0", "1", "2", "5", "13", "22", "30", "35", "40", "45"})
+    public int score;
+
+    private DuckBody duck;
+    private SpikeWall spikes;
+
+    @Setup
+    public void setUp() {
+        spikes = new SpikeWall(Screens.SPRITES.getSpikeSize(), new Random(score));
+        spikes.setDimensions(Screens.WIDTH, Screens.HEIGHT);
+        spikes.spawn(Direction.RIGHT, score);
+        duck = new DuckBody(Screens.SPRITES.getDuckWidth(), Screens.SPRITES.getDuckHeight());
+        duck.setScreenWidth(Screens.WIDTH);
+        duck.setPosition(Screens.WIDTH / 2, Screens.HEIGHT / 2);
+    }
+
+    @Benchmark
+    public boolean detected() {
+        return CollisionDetection.detected(duck, spikes);
+    }
+
+}
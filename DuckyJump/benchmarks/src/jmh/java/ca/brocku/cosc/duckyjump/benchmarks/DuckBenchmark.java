@@ -0,0 +1,39 @@
+package ca.brocku.cosc.duckyjump.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ca.brocku.cosc.duckyjump.core.DuckBody;
+
+/**
+ * One tick of the duck physics: gravity and movement speed are added to the velocity, the velocity
+ * to the position (each add limits the vector with a square root), and the wall hit is checked.
+ */
+@State(Scope.Thread)
+public class DuckBenchmark {
+
+    private static final int JUMP_EVERY = 20; // Ticks, so the duck stays on the screen.
+
+    private DuckBody body;
+    private int tick;
+
+    @Setup
+    public void setUp() {
+        body = new DuckBody(Screens.SPRITES.getDuckWidth(), Screens.SPRITES.getDuckHeight());
+        body.setScreenWidth(Screens.WIDTH);
+        body.setPosition(Screens.WIDTH / 2, Screens.HEIGHT / 2);
+    }
+
+    @Benchmark
+    public float update() {
+        if (++tick == JUMP_EVERY) {
+            tick = 0;
+            body.jump();
+        }
+        body.update();
+        return body.getY();
+    }
+
+}
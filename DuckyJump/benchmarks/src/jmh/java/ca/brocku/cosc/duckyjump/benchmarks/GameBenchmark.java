@@ -0,0 +1,49 @@
+package ca.brocku.cosc.duckyjump.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+import ca.brocku.cosc.duckyjump.core.DuckBody;
+import ca.brocku.cosc.duckyjump.core.Game;
+import ca.brocku.cosc.duckyjump.core.GameListener;
+
+/**
+ * A whole game tick, which is what Engine.update() runs per tick minus the score ring animation
+ * (which needs Android): the duck, the bubbles, the spikes, the collision and the scoring. A simple
+ * bot keeps the duck alive, and restarts the game when it dies.
+ */
+@State(Scope.Thread)
+public class GameBenchmark {
+
+    private Game game;
+
+    @Setup
+    public void setUp() {
+        game = new Game(Screens.SPRITES, new Random(1), new GameListener() {
+            @Override
+            public void onGameOver(int score) {
+            }
+
+            @Override
+            public void onRestart() {
+            }
+        });
+        game.setDimensions(Screens.WIDTH, Screens.HEIGHT);
+    }
+
+    @Benchmark
+    public int tick() {
+        DuckBody duck = game.getDuck();
+        if (!game.isAlive())
+            game.press(0);
+        else if (!game.isRunning() || (duck.getY() > Screens.HEIGHT / 2 && duck.getVelocityY() > 0))
+            game.press(Screens.HEIGHT);
+        game.tick();
+        return game.getScore();
+    }
+
+}
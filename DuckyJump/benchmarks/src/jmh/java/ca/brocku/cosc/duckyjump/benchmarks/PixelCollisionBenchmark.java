@@ -0,0 +1,114 @@
+package ca.brocku.cosc.duckyjump.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+import ca.brocku.cosc.duckyjump.core.AlphaMask;
+import ca.brocku.cosc.duckyjump.core.DeathCause;
+import ca.brocku.cosc.duckyjump.core.Direction;
+import ca.brocku.cosc.duckyjump.core.DuckBody;
+import ca.brocku.cosc.duckyjump.core.PixelCollision;
+import ca.brocku.cosc.duckyjump.core.SpikeWall;
+import ca.brocku.cosc.duckyjump.core.SpriteMasks;
+
+/**
+ * The pixel accurate collision check, with an elliptic duck and triangular spikes standing in for
+ * the images. The duck is right next to the right wall, level with the gap in between two slots,
+ * so that its image overlaps the images of both spikes (the worst case) without touching either.
+ */
+@State(Scope.Thread)
+public class PixelCollisionBenchmark {
+
+    @Param({"1", "45"})
+    public int score;
+
+    private DuckBody duck;
+    private SpikeWall spikes;
+    private SpriteMasks masks;
+
+    @Setup
+    public void setUp() {
+        int size = Screens.SPRITES.getSpikeSize();
+        final AlphaMask ellipse = ellipse(Screens.SPRITES.getDuckWidth(),
+                Screens.SPRITES.getDuckHeight());
+        final AlphaMask triangle = triangle(size);
+        masks = new SpriteMasks() {
+            @Override
+            public AlphaMask getDuckMask(Direction direction, boolean jumping) {
+                return ellipse;
+            }
+
+            @Override
+            public AlphaMask getTopSpikeMask() {
+                return triangle;
+            }
+
+            @Override
+            public AlphaMask getBottomSpikeMask() {
+                return triangle;
+            }
+
+            @Override
+            public AlphaMask getSideSpikeMask(Direction wall) {
+                return triangle;
+            }
+        };
+
+        spikes = new SpikeWall(size, new Random(score));
+        spikes.setDimensions(Screens.WIDTH, Screens.HEIGHT);
+        spikes.spawn(Direction.RIGHT, score);
+        for (int i = 0; i < size; i++)
+            spikes.update(); // Let the spikes slide in.
+
+        duck = new DuckBody(Screens.SPRITES.getDuckWidth(), Screens.SPRITES.getDuckHeight());
+        duck.setScreenWidth(Screens.WIDTH);
+        int x = Screens.WIDTH - Screens.SPRITES.getDuckWidth() - size / 3; // Clear of the spikes.
+        int boundary = size * (Screens.HEIGHT / 2 / size); // In between two slots.
+        duck.setPosition(x, boundary - Screens.SPRITES.getDuckHeight() / 2);
+        if (PixelCollision.getCause(duck, spikes, masks) != null)
+            throw new IllegalStateException("The duck should not touch the spikes.");
+    }
+
+    @Benchmark
+    public DeathCause getCause() {
+        return PixelCollision.getCause(duck, spikes, masks);
+    }
+
+    /**
+     * Make the mask of an ellipse that fills an image.
+     * @param width     The width of the image.
+     * @param height    The height of the image.
+     * @return          The mask.
+     */
+    private static AlphaMask ellipse(int width, int height) {
+        int[] pixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                float dx = (x + 0.5f) / width * 2 - 1, dy = (y + 0.5f) / height * 2 - 1;
+                pixels[y * width + x] = dx * dx + dy * dy <= 1 ? 0xff000000 : 0;
+            }
+        }
+        return new AlphaMask(width, height, pixels, 128);
+    }
+
+    /**
+     * Make the mask of a spike pointing left, with its base on the right edge of the image.
+     * @param size  The size of the square image.
+     * @return      The mask.
+     */
+    private static AlphaMask triangle(int size) {
+        int[] pixels = new int[size * size];
+        for (int y = 0; y < size; y++) {
+            int half = Math.min(y, size - 1 - y); // Half the width of the spike at this row.
+            for (int x = size - half; x < size; x++)
+                pixels[y * size + x] = 0xff000000;
+        }
+        return new AlphaMask(size, size, pixels, 128);
+    }
+
+}
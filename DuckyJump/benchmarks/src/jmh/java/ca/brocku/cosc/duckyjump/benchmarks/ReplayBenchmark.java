@@ -0,0 +1,91 @@
+package ca.brocku.cosc.duckyjump.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import ca.brocku.cosc.duckyjump.core.DuckBody;
+import ca.brocku.cosc.duckyjump.core.Game;
+import ca.brocku.cosc.duckyjump.core.GameListener;
+import ca.brocku.cosc.duckyjump.core.Recording;
+import ca.brocku.cosc.duckyjump.core.Replay;
+
+/**
+ * Replays a whole session without a screen. By default the session is five minutes of a simple
+ * bot playing, but a real session pulled from a phone (files/last-session.djr) can be replayed
+ * instead by running the benchmarks jar directly:
+ *   ./gradlew :benchmarks:jmhJar
+ *   java -jar benchmarks/build/libs/benchmarks-jmh.jar ReplayBenchmark -p file=/path/to/session.djr
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReplayBenchmark {
+
+    private static final int BOT_TICKS = 5 * 60 * 60; // Five minutes.
+
+    private static final GameListener LISTENER = new GameListener() {
+        @Override
+        public void onGameOver(int score) {
+        }
+
+        @Override
+        public void onRestart() {
+        }
+    };
+
+    @Param("")
+    public String file; // The recording to replay, or empty for a session played by a bot.
+
+    private Recording recording;
+
+    @Setup
+    public void setUp() throws IOException {
+        if (file.isEmpty()) {
+            recording = recordBot();
+        } else {
+            InputStream in = new FileInputStream(file);
+            try {
+                recording = Recording.read(in);
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+    @Benchmark
+    public int replay() {
+        return new Replay(recording, LISTENER).run().getTicks();
+    }
+
+    /**
+     * Record a simple bot that jumps when the duck falls below the middle of the screen, and
+     * restarts the game when it dies.
+     * @return  The recording.
+     */
+    private static Recording recordBot() {
+        Recording recording = new Recording(1, Screens.WIDTH, Screens.HEIGHT, Screens.SPRITES);
+        Game game = new Game(Screens.SPRITES, new Random(recording.getSeed()), LISTENER);
+        game.setDimensions(Screens.WIDTH, Screens.HEIGHT);
+        game.setRecording(recording);
+        while (game.getTicks() < BOT_TICKS) {
+            DuckBody duck = game.getDuck();
+            if (!game.isAlive())
+                game.press(0);
+            else if (!game.isRunning()
+                    || (duck.getY() > Screens.HEIGHT / 2 && duck.getVelocityY() > 0))
+                game.press(Screens.HEIGHT);
+            game.tick();
+        }
+        return recording;
+    }
+
+}
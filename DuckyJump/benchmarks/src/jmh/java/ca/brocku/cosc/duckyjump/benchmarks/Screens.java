@@ -0,0 +1,35 @@
+package ca.brocku.cosc.duckyjump.benchmarks;
+
+import ca.brocku.cosc.duckyjump.core.SpriteMetrics;
+
+/**
+ * The sizes used by the benchmarks. These are the sizes of the images on a 1080 x 1920 screen
+ * (xxhdpi), where the duck is scaled by 0.3 and the spikes by 0.2.
+ */
+final class Screens {
+
+    static final int WIDTH = 1080, HEIGHT = 1920;
+
+    static final SpriteMetrics SPRITES = new SpriteMetrics() {
+        @Override
+        public int getDuckWidth() {
+            return 169;
+        }
+
+        @Override
+        public int getDuckHeight() {
+            return 150;
+        }
+
+        @Override
+        public int getSpikeSize() {
+            return 120;
+        }
+    };
+
+    /**
+     * Static classes should not be instantiated.
+     */
+    private Screens(){}
+
+}
@@ -0,0 +1,43 @@
+package ca.brocku.cosc.duckyjump.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+import ca.brocku.cosc.duckyjump.core.Direction;
+import ca.brocku.cosc.duckyjump.core.SpikeWall;
+
+/**
+ * Spawning the spikes on a wall (fill the slots of the mask and shuffle them), which happens every
+ * time the duck bounces off a wall.
+ */
+@State(Scope.Thread)
+public class SpikeSpawnBenchmark {
+
+    @Param({"1", "13", "45"})
+    public int score;
+
+    @Param({"1920", "3200"})
+    public int screenHeight;
+
+    private SpikeWall spikes;
+    private Direction direction = Direction.RIGHT;
+
+    @Setup
+    public void setUp() {
+        spikes = new SpikeWall(Screens.SPRITES.getSpikeSize(), new Random(1));
+        spikes.setDimensions(Screens.WIDTH, screenHeight);
+    }
+
+    @Benchmark
+    public long spawn() {
+        direction = direction == Direction.RIGHT ? Direction.LEFT : Direction.RIGHT;
+        spikes.spawn(direction, score);
+        return spikes.getSpawnLocations();
+    }
+
+}
@@ -0,0 +1,117 @@
+package ca.brocku.cosc.duckyjump.core;
+
+/**
+ * Which pixels of an image are solid, one bit per pixel. Every row is packed into 64 bit words
+ * (bit c of a row is column c), so that two masks can be checked for overlap 64 pixels at a time
+ * with a single AND. The first and last solid column of every row are kept as well, so the rows
+ * where the solid parts of two images cannot touch are skipped without looking at the words.
+ */
+public class AlphaMask {
+
+    private final int width, height;
+    private final int words; // Per row.
+    private final long[] bits;
+    private final int[] first, last; // The first and last solid column of a row (inclusive).
+
+    /**
+     * Construct a mask from the pixels of an image.
+     * @param width         The width of the image.
+     * @param height        The height of the image.
+     * @param argb          The pixels of the image, row by row, as ARGB colors.
+     * @param threshold     The lowest alpha (0 to 255) of a solid pixel.
+     */
+    public AlphaMask(int width, int height, int[] argb, int threshold) {
+        this.width = width;
+        this.height = height;
+        words = (width + 63) >>> 6;
+        bits = new long[words * height];
+        first = new int[height];
+        last = new int[height];
+        for (int y = 0; y < height; y++) {
+            first[y] = width; // An empty row starts after it ends.
+            last[y] = -1;
+            for (int x = 0; x < width; x++) {
+                if (argb[y * width + x] >>> 24 >= threshold) {
+                    bits[y * words + (x >>> 6)] |= 1L << x;
+                    first[y] = Math.min(first[y], x);
+                    last[y] = x;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get 64 pixels of a row, starting at a column. Columns past the end of the row are empty.
+     * @param y     The row.
+     * @param x     The first column.
+     * @return      The pixels, the first column in the lowest bit.
+     */
+    private long get(int y, int x) {
+        int word = y * words + (x >>> 6);
+        int shift = x & 63;
+        long pixels = bits[word] >>> shift;
+        if (shift != 0 && (x >>> 6) + 1 < words)
+            pixels |= bits[word + 1] << (64 - shift);
+        return pixels;
+    }
+
+    /**
+     * Check if two masks have a solid pixel in the same place. Only the rows and columns where
+     * the two images overlap are looked at.
+     * @param a     The first mask.
+     * @param ax    The x coordinate of the first mask.
+     * @param ay    The y coordinate of the first mask.
+     * @param b     The second mask.
+     * @param bx    The x coordinate of the second mask.
+     * @param by    The y coordinate of the second mask.
+     * @return      True if the masks overlap.
+     */
+    public static boolean overlap(AlphaMask a, int ax, int ay, AlphaMask b, int bx, int by) {
+        int left = Math.max(ax, bx), right = Math.min(ax + a.width, bx + b.width);
+        int top = Math.max(ay, by), bottom = Math.min(ay + a.height, by + b.height);
+        if (left >= right || top >= bottom)
+            return false;
+
+        for (int y = top; y < bottom; y++) {
+            int rowA = y - ay, rowB = y - by;
+            // Only the columns that are in between the first and last solid pixels of both rows.
+            int from = Math.max(left, Math.max(ax + a.first[rowA], bx + b.first[rowB]));
+            int to = Math.min(right, Math.min(ax + a.last[rowA], bx + b.last[rowB]) + 1);
+            for (int x = from; x < to; x += 64) {
+                long overlap = a.get(rowA, x - ax) & b.get(rowB, x - bx);
+                if (to - x < 64)
+                    overlap &= (1L << (to - x)) - 1; // Past the columns to check.
+                if (overlap != 0)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if a pixel is solid.
+     * @param x     The column.
+     * @param y     The row.
+     * @return      True if the pixel is solid.
+     */
+    public boolean isSolid(int x, int y) {
+        return (bits[y * words + (x >>> 6)] >>> x & 1) != 0;
+    }
+
+    /**
+     * Get the width of the image.
+     * @return  The width in pixels.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Get the height of the image.
+     * @return  The height in pixels.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+}
@@ -0,0 +1,73 @@
+package ca.brocku.cosc.duckyjump.core;
+
+/**
+ * The trail of bubbles that follows the duck when it jumps. The bubbles are particles of the
+ * TRAIL kind in the particle system of the game, this only decides when they are spawned. The
+ * drawing is done by whoever displays the game.
+ */
+public class BubbleTrail {
+
+    private static final int MAX_BUBBLES = 3;
+    public static final int MAX_BUBBLE_SIZE = 30;
+    public static final int INCREMENT = 1; // The amount that the bubbles shrink by.
+    private static final int BUBBLE_DISTANCE = 5; // The spread of the bubbles.
+
+    private ParticleSystem particles; // Where the bubbles are.
+
+    private int updateCounter = 0; // Used to increase distance between bubbles.
+    private int queue = 0; // The number of bubbles left to create.
+
+    /**
+     * Construct bubbles.
+     * @param particles     The particle system to spawn the bubbles in.
+     */
+    public BubbleTrail(ParticleSystem particles) {
+        this.particles = particles;
+    }
+
+    /**
+     * Begin the trail of bubbles. To be used when a jump is performed.
+     * @param x     The x coordinate of the duck.
+     * @param y     The y coordinate of the duck.
+     */
+    public void start(int x, int y) {
+        if (particles.count(ParticleEmitter.TRAIL) == 0)
+            createBubble(x, y); // Create the first bubble, if first bubble does not exist.
+
+        // Don't queue up too many bubbles if there is already a lot.
+        if (queue >= MAX_BUBBLES)
+            queue++;
+        else
+            queue += MAX_BUBBLES;
+    }
+
+    /**
+     * Create more bubbles if necessary (depending on the queue) to create a trail. This is to be
+     * called once per game tick, after the particles have been updated (which shrinks the bubbles).
+     * @param x     The x coordinate of the duck.
+     * @param y     The y coordinate of the duck.
+     */
+    public void update(int x, int y) {
+        updateCounter++;
+        if (updateCounter != BUBBLE_DISTANCE){
+            return;
+        }
+        updateCounter = 0;
+
+        if (queue != 0){
+            createBubble(x, y);
+            queue--;
+        }
+
+    }
+
+    /**
+     * Create a bubble at the specified location. Usually this location is where the duck was last.
+     * @param x     The x coordinate of the duck.
+     * @param y     The y coordinate of the duck.
+     */
+    private void createBubble(int x, int y) {
+        ParticleEmitter.TRAIL_EMITTER.emit(particles, x, y);
+    }
+
+}
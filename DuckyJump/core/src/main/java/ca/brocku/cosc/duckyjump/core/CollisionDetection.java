@@ -0,0 +1,126 @@
+package ca.brocku.cosc.duckyjump.core;
+
+/**
+ * Detect if the duck has collided with a spike. When the duck was moved several ticks in one step,
+ * the side spikes are checked where it touched the wall and the top spikes at the highest point
+ * it reached, so that it cannot pass through spikes in between the ends of the step. The top
+ * spikes are checked before the contact first, so that the spikes it would have hit first one
+ * tick at a time are the cause.
+ */
+public class CollisionDetection {
+
+    /**
+     * Static classes should not be instantiated.
+     */
+    private CollisionDetection(){}
+
+    /**
+     * Check if the duck has collided with a spike.
+     * @param duck      The specified duck.
+     * @param spikes    The specified spikes.
+     * @return          True if a collision occurred.
+     */
+    public static boolean detected(DuckBody duck, SpikeWall spikes) {
+        return getCause(duck, spikes) != null;
+    }
+
+    /**
+     * Check which spikes the duck has collided with, if any.
+     * @param duck      The specified duck.
+     * @param spikes    The specified spikes.
+     * @return          The spikes that were hit, or null if no collision occurred.
+     */
+    public static DeathCause getCause(DuckBody duck, SpikeWall spikes) {
+        // In the order they would be hit one tick at a time.
+        boolean early = duck.hasHighestBeforeContact();
+        if (early && topSpikeCollision(duck.getHighestYBeforeContact(), spikes))
+            return DeathCause.TOP;
+        if (sideSpikeCollision(duck, spikes))
+            return DeathCause.SIDE;
+        if (topSpikeCollision(duck.getHighestY(), spikes))
+            return DeathCause.TOP;
+        if (bottomSpikeCollision(duck, spikes))
+            return DeathCause.BOTTOM;
+        return null;
+    }
+
+    /**
+     * Check if the duck has collided with a spike on the wall it is flying towards. Only the slot
+     * that the center of the duck is level with can be hit, so only that slot is checked.
+     * @param duck      The specified duck.
+     * @param spikes    The specified spikes.
+     * @return          True if a collision occurred.
+     */
+    private static boolean sideSpikeCollision(DuckBody duck, SpikeWall spikes) {
+        // The slots start one spike below the top of the screen.
+        int tBase = spikes.getSpikeBase();
+        int level = duck.getContactCenterY() - tBase;
+        if (level <= 0 || level % tBase == 0)
+            return false; // Above the first slot, or exactly in between two slots.
+
+        int slot = level / tBase;
+        if (!spikes.hasSpike(slot))
+            return false;
+
+        if (spikes.getDirection() == Direction.RIGHT)
+            return rightSpikeCollision(duck, spikes);
+        else
+            return leftSpikeCollision(duck, spikes, level % tBase);
+    }
+
+    /**
+     * Check if the duck has collided with the spike on the right side that it is level with.
+     * @param duck      The specified duck.
+     * @param spikes    The specified spikes.
+     * @return          True if a collision occurred.
+     */
+    private static boolean rightSpikeCollision(DuckBody duck, SpikeWall spikes){
+        // Triangle properties.
+        int tHeight = spikes.getSpikeHeight();
+
+        // Screen properties.
+        int sWidth = spikes.getScreenWidth();
+
+        // Location of the spike.
+        int x = sWidth - tHeight;
+
+        float rightSideOfDuck = duck.getContactX() + duck.getWidth();
+        float leftSideOfSpike = x + spikes.getSpikeHeight();
+        return rightSideOfDuck >= leftSideOfSpike;
+    }
+
+    /**
+     * Check if the duck has collided with the spike on the left side that it is level with.
+     * @param duck      The specified duck.
+     * @param spikes    The specified spikes.
+     * @param level     How far the center of the duck is below the top of the slot.
+     * @return          True if a collision occurred.
+     */
+    private static boolean leftSpikeCollision(DuckBody duck, SpikeWall spikes, int level){
+        boolean sameLevel = level < spikes.getSpikeHeight();
+        return duck.getContactX() <= 0 && sameLevel;
+    }
+
+    /**
+     * Check if the duck has collided with a spike on the top side.
+     * @param y         The y coordinate of the duck.
+     * @param spikes    The specified spikes.
+     * @return          True if a collision occurred.
+     */
+    private static boolean topSpikeCollision(float y, SpikeWall spikes){
+        // The duck's hair touching the spike shouldn't kill it, hence the division by 3.
+        return y < spikes.getSpikeHeight() / 3;
+    }
+
+    /**
+     * Check if the duck has collided with a spike on the bottom side.
+     * @param duck      The specified duck.
+     * @param spikes    The specified spikes.
+     * @return          True if a collision occurred.
+     */
+    private static boolean bottomSpikeCollision(DuckBody duck, SpikeWall spikes){
+        int height = spikes.getScreenHeight();
+        return duck.getY() + duck.getHeight() > height - spikes.getSpikeHeight();
+    }
+
+}
@@ -0,0 +1,10 @@
+package ca.brocku.cosc.duckyjump.core;
+
+/**
+ * The spikes that killed the duck.
+ */
+public enum DeathCause {
+    SIDE,   // The spikes that come out of the left and right walls.
+    TOP,
+    BOTTOM,
+}
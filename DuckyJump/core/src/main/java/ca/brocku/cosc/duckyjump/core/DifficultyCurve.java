@@ -0,0 +1,86 @@
+package ca.brocku.cosc.duckyjump.core;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maps the score to the number of spikes that come out of a wall. The curve is a list of steps:
+ * from a score onwards, there are that many spikes, until the next step. The curve the game ships
+ * with is DEFAULT, and others can be tried out by the difficulty analyser of the tools module.
+ */
+public class DifficultyCurve {
+
+    // The curve the game was tuned with: (score, spikes) steps.
+    public static final DifficultyCurve DEFAULT = new DifficultyCurve(new int[][] {
+            {0, 0}, {1, 2}, {2, 3}, {5, 4}, {13, 5}, {22, 6}, {30, 7}, {35, 8}, {40, 9}, {45, 10}
+    });
+
+    private final TreeMap<Integer, Integer> steps = new TreeMap<>();
+
+    /**
+     * Construct a curve.
+     * @param steps     The (score, spikes) steps. There must be a step for a score of 0.
+     */
+    public DifficultyCurve(int[][] steps) {
+        for (int[] step : steps)
+            this.steps.put(step[0], step[1]);
+        if (!this.steps.containsKey(0))
+            throw new IllegalArgumentException("The curve needs a step for a score of 0.");
+    }
+
+    /**
+     * Read a curve written as "score:spikes" steps separated by commas, such as "0:0,1:2,5:4".
+     * @param text  The curve.
+     * @return      The curve.
+     * @throws IllegalArgumentException     If the text is not a curve.
+     */
+    public static DifficultyCurve parse(String text) {
+        String[] parts = text.trim().split("\\s*,\\s*");
+        int[][] steps = new int[parts.length][];
+        for (int i = 0; i < parts.length; i++) {
+            String[] step = parts[i].split(":");
+            if (step.length != 2)
+                throw new IllegalArgumentException("Not a score:spikes step: " + parts[i]);
+            steps[i] = new int[] {Integer.parseInt(step[0].trim()),
+                    Integer.parseInt(step[1].trim())};
+        }
+        return new DifficultyCurve(steps);
+    }
+
+    /**
+     * Get the number of spikes for a score. A higher score means more spikes.
+     * @param score     The current score in the game.
+     * @return          The number of spikes that should be spawned.
+     */
+    public int getSpikes(int score) {
+        return steps.floorEntry(score).getValue();
+    }
+
+    /**
+     * Get the scores at which the number of spikes changes.
+     * @return  The scores, in increasing order.
+     */
+    public int[] getStepScores() {
+        int[] scores = new int[steps.size()];
+        int i = 0;
+        for (int score : steps.keySet())
+            scores[i++] = score;
+        return scores;
+    }
+
+    /**
+     * Write the curve the way parse(...) reads it.
+     * @return  The curve as text.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<Integer, Integer> step : steps.entrySet()) {
+            if (text.length() > 0)
+                text.append(',');
+            text.append(step.getKey()).append(':').append(step.getValue());
+        }
+        return text.toString();
+    }
+
+}
@@ -0,0 +1,10 @@
+package ca.brocku.cosc.duckyjump.core;
+
+/**
+ * Used for determining which direction the duck is facing and on which wall to create the
+ * spikes on.
+ */
+public enum Direction {
+    LEFT,
+    RIGHT,
+}
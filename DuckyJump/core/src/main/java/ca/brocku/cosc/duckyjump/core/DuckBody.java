@@ -0,0 +1,346 @@
+package ca.brocku.cosc.duckyjump.core;
+
+/**
+ * The physics of the duck, without any of the images. All the values are per game tick, so the
+ * body must be updated at a fixed rate (see FixedTimestep) for the game to play the same on every
+ * display. The position of the previous tick is kept so that the duck can be drawn in between two
+ * ticks.
+ *
+ * The body can also be moved several ticks in one step, so that the game only has to check for
+ * collisions once per step. So that a step does not pass over a collision that one tick at a time
+ * would have caught, the step is swept: where the duck was at the tick it touched a wall, and at
+ * the highest point it reached in the step and before that tick, are kept for the collision checks.
+ */
+public class DuckBody {
+
+    // Default physics values.
+    private static float DEFAULT_DUCK_X             = 0f,       DEFAULT_DUCK_Y              = 0f;
+    private static float DEFAULT_VELOCITY_X         = 10f,      DEFAULT_VELOCITY_Y          = 0f;
+    private static float DEFAULT_JUMP_VELOCITY_X    = 0f,       DEFAULT_JUMP_VELOCITY_Y     = -20f;
+    private static float DEFAULT_GRAVITY_X          = 0f,       DEFAULT_GRAVITY_Y           = 1.5f;
+    private static float DEFAULT_MOVEMENT_SPEED_X   = 0.2f,     DEFAULT_MOVEMENT_SPEED_Y    = 0f;
+
+    // The number of game ticks to keep the jump animation up for.
+    private static final int JUMP_ANIMATION_COUNTDOWN = 8;
+
+    private Vector duckPosition, duckVelocity, jumpVelocity, gravity, movementSpeed;
+    private float previousX, previousY; // The position at the previous tick (or step).
+    private float highestX, highestY; // At the tick of the last step with the smallest y.
+    private float earlyX, earlyY; // The same, over the ticks before the contact.
+    private float contactX, contactY; // At the tick of the last step that the duck touched a wall.
+    private Direction direction; // Movement direction.
+    private int width, height; // Of the duck.
+    private int sWidth; // Screen width.
+    private int jumpAnimationCountDown = 0;
+
+    /**
+     * Construct the body.
+     * @param width     The width of the duck.
+     * @param height    The height of the duck.
+     */
+    public DuckBody(int width, int height) {
+        this.width = width;
+        this.height = height;
+        reset();
+    }
+
+    /**
+     * This needs to be set when the engine has access to the canvas.
+     * @param width     Width of the canvas.
+     */
+    public void setScreenWidth(int width) {
+        sWidth = width;
+    }
+
+    /**
+     * Reset the location & physics. To be used on a game restart.
+     */
+    public void reset() {
+        gravity = new Vector(DEFAULT_GRAVITY_X, DEFAULT_GRAVITY_Y);
+        jumpVelocity = new Vector(DEFAULT_JUMP_VELOCITY_X, DEFAULT_JUMP_VELOCITY_Y);
+        duckPosition = new Vector(DEFAULT_DUCK_X, DEFAULT_DUCK_Y);
+        duckVelocity = new Vector(DEFAULT_VELOCITY_X, DEFAULT_VELOCITY_Y);
+        duckVelocity.limit(20);
+        movementSpeed = new Vector(DEFAULT_MOVEMENT_SPEED_X, DEFAULT_MOVEMENT_SPEED_Y);
+        direction = Direction.RIGHT;
+        jumpAnimationCountDown = 0;
+        savePreviousPosition();
+    }
+
+    /**
+     * Advance the physics by one tick.
+     */
+    public void update() {
+        update(1);
+    }
+
+    /**
+     * Advance the physics by a number of ticks in one step. The duck still moves tick by tick
+     * (the velocity limit makes the path depend on every tick), but only the start and the end
+     * of the step are kept for drawing, and the highest point and the wall contact for the
+     * collision checks.
+     * @param ticks     The number of ticks.
+     */
+    public void update(int ticks) {
+        savePreviousPosition();
+        highestY = Float.MAX_VALUE;
+        boolean touched = false;
+        for (int i = 0; i < ticks; i++) {
+            if (jumpAnimationCountDown > 0)
+                jumpAnimationCountDown--;
+            addForces();
+            boolean hit = accountForWallHit();
+            if (hit || (!touched && i == ticks - 1)) {
+                // Without touching a wall, the contact is where the step ends.
+                touched |= hit;
+                contactX = duckPosition.getX();
+                contactY = duckPosition.getY();
+                earlyX = highestX;
+                earlyY = highestY;
+            }
+            if (duckPosition.getY() < highestY) {
+                highestX = duckPosition.getX();
+                highestY = duckPosition.getY();
+            }
+        }
+    }
+
+    /**
+     * Move the duck according to physics calculations.
+     */
+    private void addForces() {
+        duckVelocity.add(gravity);
+        duckVelocity.add(movementSpeed);
+        duckPosition.add(duckVelocity);
+    }
+
+    /**
+     * If the duck hits a wall, flip it.
+     * @return  True if the duck hit a wall.
+     */
+    private boolean accountForWallHit() {
+        int xPos = 0;
+        if (direction == Direction.RIGHT) {
+            xPos = sWidth - width;
+        }
+
+        if ((xPos == 0 && duckPosition.getX() < xPos)
+                || (xPos != 0 && duckPosition.getX() > xPos)) {
+            movementSpeed.mul(-1);
+            duckVelocity.setXY(duckVelocity.getX() * -1, duckVelocity.getY());
+            duckPosition.setXY(xPos, duckPosition.getY());
+            changeDirection();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Perform the physics of a jump.
+     */
+    public void jump() {
+        jumpAnimationCountDown = JUMP_ANIMATION_COUNTDOWN;
+        duckVelocity.setXY(duckVelocity.getX(), 0);
+        duckVelocity.add(jumpVelocity);
+    }
+
+    /**
+     * Move the duck without animating the movement. To be used on a game restart.
+     * @param x     The new x coordinate of the duck.
+     * @param y     The new y coordinate of the duck.
+     */
+    public void setPosition(float x, float y) {
+        duckPosition.setXY(x, y);
+        savePreviousPosition();
+    }
+
+    /**
+     * Remember where the duck is before it moves, so that it can be drawn in between.
+     */
+    private void savePreviousPosition() {
+        previousX = duckPosition.getX();
+        previousY = duckPosition.getY();
+    }
+
+    /**
+     * Get the direction that the duck is facing and moving towards.
+     * @return  The direction that the duck is facing.
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * Check if the jump animation should be shown.
+     * @return  True if the duck has jumped recently.
+     */
+    public boolean isJumping() {
+        return jumpAnimationCountDown > 0;
+    }
+
+    /**
+     * Get the width of the duck. This includes for the beak and the tail.
+     * @return  The width of the duck.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Get the height of the duck. This includes the hair.
+     * @return  The height of the duck.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Get the x coordinate of the top left location of the duck.
+     * @return  The x coordinate of the duck.
+     */
+    public float getX() {
+        return duckPosition.getX();
+    }
+
+    /**
+     * Get the y coordinate of the top left location of the duck.
+     * @return  The y coordinate of the duck.
+     */
+    public float getY() {
+        return duckPosition.getY();
+    }
+
+    /**
+     * Get the x coordinate of the duck at the highest point that it reached in the last step.
+     * After a step of one tick, this is getX().
+     * @return  The x coordinate of the duck at its highest point.
+     */
+    public float getHighestX() {
+        return highestX;
+    }
+
+    /**
+     * Get the highest point (the smallest y coordinate) that the duck reached in the last step.
+     * After a step of one tick, this is getY().
+     * @return  The highest y coordinate of the duck.
+     */
+    public float getHighestY() {
+        return highestY;
+    }
+
+    /**
+     * Get the x coordinate of the duck at the tick of the last step that it touched a wall. After
+     * a step of one tick, or a step without touching a wall, this is getX().
+     * @return  The x coordinate of the duck when it touched the wall.
+     */
+    public float getContactX() {
+        return contactX;
+    }
+
+    /**
+     * Get the y coordinate of the duck at the tick of the last step that it touched a wall. After
+     * a step of one tick, or a step without touching a wall, this is getY().
+     * @return  The y coordinate of the duck when it touched the wall.
+     */
+    public float getContactY() {
+        return contactY;
+    }
+
+    /**
+     * Get the y coordinate of the center of the duck at the tick of the last step that it touched
+     * a wall. After a step of one tick, or a step without touching a wall, this is getCenterY().
+     * @return  The y coordinate of the center of the duck when it touched the wall.
+     */
+    public int getContactCenterY() {
+        return (int) contactY + (height / 2);
+    }
+
+    /**
+     * Check if the duck moved for some ticks of the last step before the tick that it touched a
+     * wall (or, without touching a wall, the last tick), so that the top spikes are checked there
+     * before the side spikes. After a step of one tick, this is false.
+     * @return  True if there were ticks before the contact.
+     */
+    public boolean hasHighestBeforeContact() {
+        return earlyY != Float.MAX_VALUE;
+    }
+
+    /**
+     * Get the x coordinate of the duck at the highest point that it reached in the last step
+     * before the tick that it touched a wall.
+     * @return  The x coordinate of the duck at that point.
+     */
+    public float getHighestXBeforeContact() {
+        return earlyX;
+    }
+
+    /**
+     * Get the highest point (the smallest y coordinate) that the duck reached in the last step
+     * before the tick that it touched a wall.
+     * @return  The y coordinate of the duck at that point.
+     */
+    public float getHighestYBeforeContact() {
+        return earlyY;
+    }
+
+    /**
+     * Get the x coordinate to draw the duck at, in between the previous and the current tick.
+     * @param alpha     How far the display is into the next tick (0 to 1).
+     * @return          The interpolated x coordinate of the duck.
+     */
+    public float getX(float alpha) {
+        return previousX + (duckPosition.getX() - previousX) * alpha;
+    }
+
+    /**
+     * Get the y coordinate to draw the duck at, in between the previous and the current tick.
+     * @param alpha     How far the display is into the next tick (0 to 1).
+     * @return          The interpolated y coordinate of the duck.
+     */
+    public float getY(float alpha) {
+        return previousY + (duckPosition.getY() - previousY) * alpha;
+    }
+
+    /**
+     * Get the x coordinate of the center of the duck.
+     * @return  The x coordinate of the center of the duck.
+     */
+    public int getCenterX() {
+        return (int) duckPosition.getX() + (width / 2);
+    }
+
+    /**
+     * Get the y coordinate of the center of the duck.
+     * @return  The y coordinate of the center of the duck.
+     */
+    public int getCenterY() {
+        return (int) duckPosition.getY() + (height / 2);
+    }
+
+    /**
+     * Get the x component of the velocity.
+     * @return  The x velocity in pixels per tick.
+     */
+    public float getVelocityX() {
+        return duckVelocity.getX();
+    }
+
+    /**
+     * Get the y component of the velocity.
+     * @return  The y velocity in pixels per tick.
+     */
+    public float getVelocityY() {
+        return duckVelocity.getY();
+    }
+
+    /**
+     * Change the direction of the duck. To be used when the duck hits a wall.
+     */
+    private void changeDirection() {
+        if (direction == Direction.LEFT)
+            direction = Direction.RIGHT;
+        else
+            direction = Direction.LEFT;
+    }
+
+}
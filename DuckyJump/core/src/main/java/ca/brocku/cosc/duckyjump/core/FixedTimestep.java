@@ -0,0 +1,59 @@
+package ca.brocku.cosc.duckyjump.core;
+
+/**
+ * Decides how many game ticks to simulate for each displayed frame. The game is simulated at a
+ * fixed rate, no matter how fast the display refreshes. The time that passes between frames is
+ * collected in an accumulator and every full tick in the accumulator is simulated. What is left in
+ * the accumulator (less than a tick) is used to draw the game objects in between the previous and
+ * the current tick.
+ */
+public class FixedTimestep {
+
+    public static final int TICKS_PER_SECOND = 60;
+    public static final long TICK_NANOS = 1000000000L / TICKS_PER_SECOND;
+
+    // If the game falls this far behind (a pause or a very slow frame) the time is dropped instead
+    // of being simulated all at once.
+    private static final int MAX_TICKS_PER_FRAME = 5;
+
+    private long accumulator = 0;
+    private long lastFrame = -1;
+
+    /**
+     * Collect the time since the previous frame.
+     * @param now   The current time in nanoseconds.
+     * @return      The number of ticks to simulate before drawing this frame.
+     */
+    public int advance(long now) {
+        if (lastFrame < 0) {
+            lastFrame = now;
+            return 0;
+        }
+        accumulator += now - lastFrame;
+        lastFrame = now;
+
+        int ticks = (int) Math.min(accumulator / TICK_NANOS, MAX_TICKS_PER_FRAME);
+        accumulator -= ticks * TICK_NANOS;
+        if (ticks == MAX_TICKS_PER_FRAME && accumulator >= TICK_NANOS)
+            accumulator = 0; // Too far behind, forget the rest.
+        return ticks;
+    }
+
+    /**
+     * Get how far the display is into the next tick.
+     * @return  A value from 0 (inclusive) to 1 (exclusive).
+     */
+    public float getAlpha() {
+        return (float) accumulator / TICK_NANOS;
+    }
+
+    /**
+     * Forget the time of the previous frame, so that the time while the game was not drawn (such
+     * as while the activity was paused) is not simulated.
+     */
+    public void reset() {
+        accumulator = 0;
+        lastFrame = -1;
+    }
+
+}
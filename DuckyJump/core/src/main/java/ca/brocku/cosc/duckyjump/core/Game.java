@@ -0,0 +1,343 @@
+package ca.brocku.cosc.duckyjump.core;
+
+import java.util.Random;
+
+/**
+ * The rules of the game: the duck, the spikes, the collisions and the score. There is nothing in
+ * here that needs Android, so a game can be played in a unit test or in a tool on a plain JVM as
+ * fast as the CPU allows. On the phone, the Engine ticks the game at a fixed rate and draws it.
+ */
+public class Game {
+
+    private static final int MAX_PARTICLES = 1024; // Many times what the emitters of a game spawn.
+
+    private DuckBody duck;
+    private SpikeWall spikes;
+    private ParticleSystem particles; // The bubbles and the bursts.
+    private BubbleTrail bubbles; // The trail that follows the duck when jumping.
+    private GameListener listener;
+    private PhaseTimer timer; // Times the update and the collision check of each tick.
+    private Recording recording; // Where the inputs are recorded, if anywhere.
+    private SpriteMasks masks; // For pixel accurate collisions, or null for the rectangle checks.
+
+    private int width, height; // Of the screen.
+    private boolean running; // The duck is moving.
+    private boolean alive;
+    private DeathCause deathCause; // Of the last game, or null if the duck did not die yet.
+    private Direction direction; // Of the duck.
+    private int score;
+    private int ticks; // The number of ticks that the duck was moving.
+    private int gameTicks, jumps; // Of the current game.
+    private int stepTicks = 1; // The number of ticks that a call to tick() moves the game.
+
+    /**
+     * Construct a game.
+     * @param sprites   The sizes of the images of the duck and the spikes.
+     * @param random    Decides where the spikes are placed.
+     * @param listener  Notified when the duck dies and when the game restarts.
+     */
+    public Game(SpriteMetrics sprites, Random random, GameListener listener) {
+        this(sprites, random, listener, DifficultyCurve.DEFAULT);
+    }
+
+    /**
+     * Construct a game with another difficulty than the one the game ships with.
+     * @param sprites   The sizes of the images of the duck and the spikes.
+     * @param random    Decides where the spikes are placed.
+     * @param listener  Notified when the duck dies and when the game restarts.
+     * @param curve     Decides how many spikes there are for a score.
+     */
+    public Game(SpriteMetrics sprites, Random random, GameListener listener,
+                DifficultyCurve curve) {
+        this.listener = listener;
+        timer = new PhaseTimer(); // Off until another timer is set.
+        duck = new DuckBody(sprites.getDuckWidth(), sprites.getDuckHeight());
+        spikes = new SpikeWall(sprites.getSpikeSize(), random, curve);
+        // Not the Random of the spikes, so that the particles do not change where they spawn.
+        particles = new ParticleSystem(MAX_PARTICLES, new Random(0));
+        bubbles = new BubbleTrail(particles);
+        running = false;
+        alive = true;
+        direction = duck.getDirection();
+        score = 0;
+    }
+
+    /**
+     * Set the dimensions of the screen. This must be done before the first tick.
+     * @param width     The width of the screen.
+     * @param height    The height of the screen.
+     */
+    public void setDimensions(int width, int height) {
+        this.width = width;
+        this.height = height;
+        duck.setScreenWidth(width);
+        spikes.setDimensions(width, height);
+        if (!running) {
+            spawnDuck();
+            spikes.spawn(direction, score);
+        }
+    }
+
+    /**
+     * Use a timer to time the update and the collision check of each tick.
+     * @param timer     The timer.
+     */
+    public void setPhaseTimer(PhaseTimer timer) {
+        this.timer = timer;
+    }
+
+    /**
+     * Detect collisions down to the pixel, using the solid pixels of the images, instead of with
+     * the rectangle checks of CollisionDetection.
+     * @param masks     The solid pixels of the images, or null to go back to the rectangle checks.
+     */
+    public void setSpriteMasks(SpriteMasks masks) {
+        this.masks = masks;
+    }
+
+    /**
+     * Check if collisions are detected down to the pixel.
+     * @return  True if the collisions are pixel accurate.
+     */
+    public boolean isPixelCollision() {
+        return masks != null;
+    }
+
+    /**
+     * Record the jumps and restarts of the game from now on.
+     * @param recording     The recording to add the inputs to.
+     */
+    public void setRecording(Recording recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Move the game several ticks at every call to tick(), for slow devices that cannot keep up
+     * with the full rate. The duck is swept over the step so it cannot pass through spikes, but
+     * where it dies can be off by a few pixels. The default is one tick.
+     * @param stepTicks     The number of ticks per step.
+     * @throws IllegalArgumentException     If the step is less than one tick.
+     */
+    public void setStepTicks(int stepTicks) {
+        if (stepTicks < 1)
+            throw new IllegalArgumentException("A step must be at least one tick.");
+        this.stepTicks = stepTicks;
+    }
+
+    /**
+     * Get the number of ticks that a call to tick() moves the game.
+     * @return  The number of ticks per step.
+     */
+    public int getStepTicks() {
+        return stepTicks;
+    }
+
+    /**
+     * Update the locations and animations of the game objects by one game step, which is one
+     * tick unless setStepTicks(...) says otherwise. Nothing moves until the first jump, or after
+     * the duck has died, except for the particles that are left.
+     */
+    public void tick() {
+        if (!running) {
+            particles.update(stepTicks); // The death burst plays out on the game over screen.
+            return;
+        }
+        ticks += stepTicks;
+        gameTicks += stepTicks;
+
+        timer.begin(PhaseTimer.UPDATE);
+        duck.update(stepTicks);
+        for (int i = 0; i < stepTicks; i++) {
+            particles.update();
+            bubbles.update(duck.getCenterX(), duck.getCenterY());
+        }
+        spikes.update(stepTicks);
+        timer.end(PhaseTimer.UPDATE);
+
+        timer.begin(PhaseTimer.COLLISION);
+        DeathCause cause = masks != null
+                ? PixelCollision.getCause(duck, spikes, masks)
+                : CollisionDetection.getCause(duck, spikes);
+        timer.end(PhaseTimer.COLLISION);
+
+        if (cause != null) {
+            alive = false;
+            deathCause = cause;
+            particles.clear();
+            ParticleEmitter.DEATH_EMITTER.emit(particles, duck.getCenterX(), duck.getCenterY());
+            spikes.clear();
+            running = false;
+            listener.onGameOver(score);
+            return;
+        }
+
+        if (duckChangedDirection()) {
+            direction = duck.getDirection();
+            score++;
+            spikes.spawn(direction, score);
+            // Sparks where the duck touched the wall it bounced off.
+            float wall = direction == Direction.LEFT
+                    ? duck.getContactX() + duck.getWidth()
+                    : duck.getContactX();
+            ParticleEmitter.SCORE_EMITTER.emit(particles, wall, duck.getContactCenterY());
+        }
+    }
+
+    /**
+     * Pressing down on the screen cases the duck to jump and it also restarts the game if the
+     * duck is dead.
+     * @param y     The y coordinate of the press.
+     */
+    public void press(float y) {
+        if (alive) {
+            record(Recording.JUMP);
+            running = true;
+            jump();
+        } else if (y < height / 2) {
+            // To restart, the user must click the top of the screen. This prevents users from
+            // accidentally restarting the game (especially if they are spam clicking).
+            record(Recording.RESTART);
+            restart();
+        }
+    }
+
+    /**
+     * Add an input to the recording, if the game is being recorded.
+     * @param kind  JUMP or RESTART.
+     */
+    private void record(byte kind) {
+        if (recording != null)
+            recording.add(ticks, kind);
+    }
+
+    /**
+     * Perform a jump. This does the physics calculations and creates a trail of bubbles.
+     */
+    private void jump() {
+        jumps++;
+        duck.jump();
+        bubbles.start(duck.getCenterX(), duck.getCenterY());
+    }
+
+    /**
+     * Start a new game after the duck has died.
+     */
+    private void restart() {
+        spikes.clear();
+        particles.clear();
+        direction = Direction.RIGHT;
+        duck.reset();
+        alive = true;
+        deathCause = null;
+        score = 0;
+        gameTicks = 0;
+        jumps = 0;
+        spawnDuck();
+        listener.onRestart();
+    }
+
+    /**
+     * Place duck in the center of the screen.
+     */
+    private void spawnDuck() {
+        duck.setPosition(width/2-duck.getWidth()/2, height/2-duck.getHeight()/2);
+    }
+
+    /**
+     * Check if the duck has bounced off a wall.
+     * @return      True if the duck has bounces off a wall.
+     */
+    private boolean duckChangedDirection() {
+        return this.direction != duck.getDirection();
+    }
+
+    /**
+     * Check if the duck is moving. It is not moving before the first jump and after it died.
+     * @return  True if the game is running.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Check if anything moves: the duck, or the particles that are left after it died.
+     * @return  True if the next tick changes what is on the screen.
+     */
+    public boolean isAnimating() {
+        return running || particles.size() > 0;
+    }
+
+    /**
+     * Check if the duck is alive.
+     * @return  True if the duck is alive.
+     */
+    public boolean isAlive() {
+        return alive;
+    }
+
+    /**
+     * Get the spikes that the duck hit.
+     * @return  The cause of death, or null if the duck is alive.
+     */
+    public DeathCause getDeathCause() {
+        return deathCause;
+    }
+
+    /**
+     * Get the number of ticks that the duck was moving, over all the games played. Ticks while
+     * waiting for the first jump or after the duck died are not counted.
+     * @return  The number of ticks.
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Get the number of ticks that the duck was moving in the current game.
+     * @return  The number of ticks.
+     */
+    public int getGameTicks() {
+        return gameTicks;
+    }
+
+    /**
+     * Get the number of jumps in the current game.
+     * @return  The number of jumps.
+     */
+    public int getJumps() {
+        return jumps;
+    }
+
+    /**
+     * Get the score of the current game. A point is scored every time the duck bounces off a wall.
+     * @return  The score.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Get the duck.
+     * @return  The duck.
+     */
+    public DuckBody getDuck() {
+        return duck;
+    }
+
+    /**
+     * Get the spikes on the walls.
+     * @return  The spikes.
+     */
+    public SpikeWall getSpikes() {
+        return spikes;
+    }
+
+    /**
+     * Get the particles: the trail of bubbles behind the duck and the bursts.
+     * @return  The particles.
+     */
+    public ParticleSystem getParticles() {
+        return particles;
+    }
+
+}
@@ -0,0 +1,20 @@
+package ca.brocku.cosc.duckyjump.core;
+
+/**
+ * Notified of the events in a game that the outside world cares about, such as saving the score
+ * when the duck dies.
+ */
+public interface GameListener {
+
+    /**
+     * The duck hit a spike.
+     * @param score     The final score of the game.
+     */
+    void onGameOver(int score);
+
+    /**
+     * A new game was started after the duck died.
+     */
+    void onRestart();
+
+}
@@ -0,0 +1,93 @@
+package ca.brocku.cosc.duckyjump.core;
+
+import java.util.Random;
+
+/**
+ * Spawns a group of particles of one kind: how many, how fast and in which directions they fly,
+ * how big they start and how quickly they shrink. An emitter only holds its settings, so one can
+ * be shared by any number of particle systems.
+ */
+public class ParticleEmitter {
+
+    public static final int TRAIL = 0; // The bubbles behind the duck.
+    public static final int DEATH_BURST = 1; // When the duck hits the spikes.
+    public static final int SCORE_BURST = 2; // When the duck bounces off a wall.
+
+    // The bubbles of the trail stay where they are and only shrink.
+    public static final ParticleEmitter TRAIL_EMITTER = new ParticleEmitter(TRAIL, 1,
+            0, 0, 0, BubbleTrail.MAX_BUBBLE_SIZE, BubbleTrail.INCREMENT);
+    public static final ParticleEmitter DEATH_EMITTER = new ParticleEmitter(DEATH_BURST, 48,
+            3, 12, 0.4f, 24, 0.4f);
+    public static final ParticleEmitter SCORE_EMITTER = new ParticleEmitter(SCORE_BURST, 16,
+            2, 6, 0, 12, 0.5f);
+
+    // The directions that the particles fly off in, so that no trigonometry is done per particle.
+    private static final int DIRECTIONS = 64;
+    private static final float[] COS = new float[DIRECTIONS], SIN = new float[DIRECTIONS];
+
+    static {
+        for (int i = 0; i < DIRECTIONS; i++) {
+            COS[i] = (float) Math.cos(Math.PI * 2 * i / DIRECTIONS);
+            SIN[i] = (float) Math.sin(Math.PI * 2 * i / DIRECTIONS);
+        }
+    }
+
+    private final int kind;
+    private final int count;
+    private final float minSpeed, maxSpeed;
+    private final float gravity;
+    private final float size, shrink;
+
+    /**
+     * Construct an emitter. The particles fly off in every direction.
+     * @param kind      The kind of the particles (0 to 255).
+     * @param count     The number of particles spawned at once.
+     * @param minSpeed  The slowest a particle flies off, per tick.
+     * @param maxSpeed  The fastest a particle flies off, per tick.
+     * @param gravity   How much faster the particles fall every tick.
+     * @param size      The size that the particles start at.
+     * @param shrink    How much the particles shrink per tick.
+     */
+    public ParticleEmitter(int kind, int count, float minSpeed, float maxSpeed, float gravity,
+                           float size, float shrink) {
+        this.kind = kind;
+        this.count = count;
+        this.minSpeed = minSpeed;
+        this.maxSpeed = maxSpeed;
+        this.gravity = gravity;
+        this.size = size;
+        this.shrink = shrink;
+    }
+
+    /**
+     * Spawn the particles of the emitter at a point. Particles that do not fit in the system are
+     * dropped, and fewer are spawned if the system has a lower density.
+     * @param particles     The system to spawn them in.
+     * @param x             The x coordinate of the point.
+     * @param y             The y coordinate of the point.
+     */
+    public void emit(ParticleSystem particles, float x, float y) {
+        Random random = particles.getRandom();
+        int allowed = particles.allow(count);
+        for (int i = 0; i < allowed; i++) {
+            float vx = 0, vy = 0;
+            if (maxSpeed > 0) {
+                int direction = random.nextInt(DIRECTIONS);
+                float speed = minSpeed + random.nextFloat() * (maxSpeed - minSpeed);
+                vx = COS[direction] * speed;
+                vy = SIN[direction] * speed;
+            }
+            if (!particles.spawn(kind, x, y, vx, vy, gravity, size, shrink))
+                return;
+        }
+    }
+
+    /**
+     * Get the kind of the particles of the emitter.
+     * @return  The kind.
+     */
+    public int getKind() {
+        return kind;
+    }
+
+}
@@ -0,0 +1,239 @@
+package ca.brocku.cosc.duckyjump.core;
+
+import java.util.Random;
+
+/**
+ * A fixed number of particles that fly, fall and shrink until they are gone. The particles are
+ * kept as a struct of arrays (one primitive array per property) that is allocated up front, so
+ * spawning, updating and removing particles allocates nothing, however many there are. A particle
+ * that is gone is replaced by the last one (a swap remove), so the live particles are always the
+ * first size() of the arrays and removing one is O(1). This does not keep the particles in the
+ * order they were spawned.
+ *
+ * Every particle has the kind of the emitter that spawned it, so they can be drawn differently.
+ * Particles are only for show, they never change the game.
+ */
+public class ParticleSystem {
+
+    private final int capacity;
+    private final float[] x, y; // The locations of the particles.
+    private final float[] vx, vy; // How far they move per tick.
+    private final float[] gravity; // How much faster they fall every tick.
+    private final float[] size, startSize; // The current and first size of each particle.
+    private final float[] shrink; // How much the particles shrink per tick.
+    private final byte[] kind; // Of the emitter that spawned them.
+    private final int[] counts = new int[256]; // The live particles of every kind.
+    private int live;
+    private Random random; // Spreads the particles of an emitter.
+    private float density = 1; // The share of the particles of the emitters that are spawned.
+    private float owed; // The part of a particle that the density left over from the last emit.
+
+    /**
+     * Construct an empty particle system.
+     * @param capacity  The most particles that can be alive at once. Particles spawned when it is
+     *                  full are dropped.
+     * @param random    Spreads the particles of the emitters.
+     */
+    public ParticleSystem(int capacity, Random random) {
+        this.capacity = capacity;
+        this.random = random;
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        gravity = new float[capacity];
+        size = new float[capacity];
+        startSize = new float[capacity];
+        shrink = new float[capacity];
+        kind = new byte[capacity];
+    }
+
+    /**
+     * Spawn a particle.
+     * @param kind      The kind of the particle (0 to 255).
+     * @param x         The x coordinate of the particle.
+     * @param y         The y coordinate of the particle.
+     * @param vx        How far it moves right per tick.
+     * @param vy        How far it moves down per tick.
+     * @param gravity   How much faster it falls every tick.
+     * @param size      The size of the particle.
+     * @param shrink    How much it shrinks per tick.
+     * @return          False if the system is full, in which case nothing is spawned.
+     */
+    public boolean spawn(int kind, float x, float y, float vx, float vy, float gravity, float size,
+                         float shrink) {
+        if (live == capacity)
+            return false;
+        int i = live++;
+        this.kind[i] = (byte) kind;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.vx[i] = vx;
+        this.vy[i] = vy;
+        this.gravity[i] = gravity;
+        this.size[i] = size;
+        this.startSize[i] = size;
+        this.shrink[i] = shrink;
+        counts[kind & 0xff]++;
+        return true;
+    }
+
+    /**
+     * Spawn only a share of the particles that the emitters ask for, such as on a phone that
+     * struggles to draw them all. The share is kept across emits, so an emitter of one particle at
+     * half the density spawns one every other time.
+     * @param density   The share, from 0 to 1.
+     */
+    public void setDensity(float density) {
+        this.density = density;
+        owed = 0;
+    }
+
+    /**
+     * Find how many of the particles that an emitter asks for are to be spawned.
+     * @param count     The number of particles that the emitter asks for.
+     * @return          The number of particles to spawn.
+     */
+    int allow(int count) {
+        if (density >= 1)
+            return count;
+        owed += count * density;
+        int allowed = (int) owed;
+        owed -= allowed;
+        return allowed;
+    }
+
+    /**
+     * Move and shrink every particle by one tick, and remove the ones that shrank to nothing.
+     */
+    public void update() {
+        for (int i = 0; i < live; i++) {
+            x[i] += vx[i];
+            y[i] += vy[i];
+            vy[i] += gravity[i];
+            size[i] -= shrink[i];
+            if (size[i] <= 0) {
+                remove(i);
+                i--; // The last particle is in this slot now.
+            }
+        }
+    }
+
+    /**
+     * Move and shrink every particle by a number of ticks.
+     * @param ticks     The number of ticks.
+     */
+    public void update(int ticks) {
+        for (int tick = 0; tick < ticks && live > 0; tick++)
+            update();
+    }
+
+    /**
+     * Remove a particle by moving the last particle into its place.
+     * @param i     The index of the particle.
+     */
+    private void remove(int i) {
+        counts[kind[i] & 0xff]--;
+        int last = --live;
+        x[i] = x[last];
+        y[i] = y[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        gravity[i] = gravity[last];
+        size[i] = size[last];
+        startSize[i] = startSize[last];
+        shrink[i] = shrink[last];
+        kind[i] = kind[last];
+    }
+
+    /**
+     * Remove every particle.
+     */
+    public void clear() {
+        for (int i = 0; i < live; i++)
+            counts[kind[i] & 0xff] = 0;
+        live = 0;
+    }
+
+    /**
+     * Get the number of live particles.
+     * @return  The number of particles.
+     */
+    public int size() {
+        return live;
+    }
+
+    /**
+     * Get the number of live particles of a kind.
+     * @param kind  The kind of the particles.
+     * @return      The number of particles.
+     */
+    public int count(int kind) {
+        return counts[kind & 0xff];
+    }
+
+    /**
+     * Get the most particles that can be alive at once.
+     * @return  The capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the Random that spreads the particles of the emitters.
+     * @return  The Random.
+     */
+    Random getRandom() {
+        return random;
+    }
+
+    /**
+     * Get the kind of a particle.
+     * @param i     The index of the particle.
+     * @return      The kind (0 to 255).
+     */
+    public int getKind(int i) {
+        return kind[i] & 0xff;
+    }
+
+    /**
+     * Get the x coordinate of a particle, part of the way into the next tick.
+     * @param i         The index of the particle.
+     * @param alpha     How far the display is into the next tick (0 to 1).
+     * @return          The x coordinate.
+     */
+    public float getX(int i, float alpha) {
+        return x[i] + vx[i] * alpha;
+    }
+
+    /**
+     * Get the y coordinate of a particle, part of the way into the next tick.
+     * @param i         The index of the particle.
+     * @param alpha     How far the display is into the next tick (0 to 1).
+     * @return          The y coordinate.
+     */
+    public float getY(int i, float alpha) {
+        return y[i] + vy[i] * alpha;
+    }
+
+    /**
+     * Get the size of a particle, part of the way into the next tick.
+     * @param i         The index of the particle.
+     * @param alpha     How far the display is into the next tick (0 to 1).
+     * @return          The size, never below 0.
+     */
+    public float getSize(int i, float alpha) {
+        return Math.max(0, size[i] - shrink[i] * alpha);
+    }
+
+    /**
+     * Get the size that a particle was spawned with, to fade it out as it shrinks.
+     * @param i     The index of the particle.
+     * @return      The size it started at.
+     */
+    public float getStartSize(int i) {
+        return startSize[i];
+    }
+
+}
@@ -0,0 +1,217 @@
+package ca.brocku.cosc.duckyjump.core;
+
+import java.util.Arrays;
+
+/**
+ * Times the phases of a frame (the game update, the collision check, drawing and saving the
+ * score) to find out which one is responsible for a slow frame.
+ *
+ * The time spent in each phase during a frame is added up and stored as one sample when the next
+ * frame starts. For every phase the latest samples are kept in a ring buffer, and a histogram of
+ * the samples in the ring buffer is kept up to date as samples come and go, so the percentiles can
+ * be read without sorting. All the memory is allocated up front and nothing is allocated while
+ * timing. When the timer is turned off, begin(...) and end(...) return straight away.
+ *
+ * The timer is not thread safe. It is meant to be used by the thread drawing the frames, and
+ * anything else (such as turning it on from a touch) must hold the same lock as the frames.
+ */
+public class PhaseTimer {
+
+    public static final int FRAME = 0;      // The time between the start of two frames.
+    public static final int UPDATE = 1;     // Moving the game objects.
+    public static final int COLLISION = 2;  // Checking if the duck hit a spike.
+    public static final int DRAW = 3;       // Drawing the game.
+    public static final int SAVE = 4;       // Saving the score when the duck dies.
+    public static final int PHASES = 5;
+
+    private static final String[] NAMES = {"frame", "update", "collision", "draw", "save"};
+
+    private static final int CAPACITY = 256; // Samples per phase.
+    private static final long BUCKET_NANOS = 100000; // 0.1 ms per bucket of the histogram.
+    private static final int BUCKETS = 400; // Up to 40 ms, the last bucket holds anything slower.
+
+    private boolean enabled;
+
+    private final long[][] samples = new long[PHASES][CAPACITY];
+    private final int[] next = new int[PHASES]; // Where the next sample of a phase is written.
+    private final int[] count = new int[PHASES]; // The number of valid samples of a phase.
+    private final int[][] histogram = new int[PHASES][BUCKETS];
+
+    private final long[] started = new long[PHASES]; // When the current run of a phase began.
+    private final long[] elapsed = new long[PHASES]; // The time of a phase in the current frame.
+    private final boolean[] ran = new boolean[PHASES]; // The phase ran in the current frame.
+    private long lastFrame = -1;
+
+    /**
+     * Turn the timer on or off. Turning it on starts with no samples.
+     * @param enabled   True to time the phases.
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled)
+            reset();
+        this.enabled = enabled;
+    }
+
+    /**
+     * Check if the timer is on.
+     * @return  True if the phases are being timed.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Mark the start of a new frame. The phases of the previous frame are stored as samples.
+     * @param now   The current time in nanoseconds.
+     */
+    public void frame(long now) {
+        if (!enabled)
+            return;
+        for (int phase = FRAME + 1; phase < PHASES; phase++) {
+            if (ran[phase])
+                add(phase, elapsed[phase]);
+            ran[phase] = false;
+            elapsed[phase] = 0;
+        }
+        if (lastFrame >= 0)
+            add(FRAME, now - lastFrame);
+        lastFrame = now;
+    }
+
+    /**
+     * Start timing a phase.
+     * @param phase     The phase.
+     */
+    public void begin(int phase) {
+        if (!enabled)
+            return;
+        started[phase] = System.nanoTime();
+    }
+
+    /**
+     * Stop timing a phase. A phase may run several times in a frame (once per tick), the times are
+     * added up.
+     * @param phase     The phase.
+     */
+    public void end(int phase) {
+        if (!enabled)
+            return;
+        elapsed[phase] += System.nanoTime() - started[phase];
+        ran[phase] = true;
+    }
+
+    /**
+     * Store a sample of a phase, replacing the oldest one if the ring buffer is full.
+     * @param phase     The phase.
+     * @param nanos     The time of the phase in nanoseconds.
+     */
+    private void add(int phase, long nanos) {
+        long[] ring = samples[phase];
+        if (count[phase] == CAPACITY)
+            histogram[phase][bucket(ring[next[phase]])]--;
+        else
+            count[phase]++;
+        ring[next[phase]] = nanos;
+        histogram[phase][bucket(nanos)]++;
+        next[phase] = (next[phase] + 1) % CAPACITY;
+    }
+
+    /**
+     * Get the bucket of the histogram that a time falls in.
+     * @param nanos     The time in nanoseconds.
+     * @return          The bucket.
+     */
+    private static int bucket(long nanos) {
+        return (int) Math.min(nanos / BUCKET_NANOS, BUCKETS - 1);
+    }
+
+    /**
+     * Forget all the samples.
+     */
+    public void reset() {
+        for (int phase = 0; phase < PHASES; phase++) {
+            next[phase] = 0;
+            count[phase] = 0;
+            elapsed[phase] = 0;
+            ran[phase] = false;
+            Arrays.fill(histogram[phase], 0);
+        }
+        lastFrame = -1;
+    }
+
+    /**
+     * Get the number of samples of a phase.
+     * @param phase     The phase.
+     * @return          The number of samples.
+     */
+    public int getCount(int phase) {
+        return count[phase];
+    }
+
+    /**
+     * Get a percentile of a phase. The value is the upper end of the histogram bucket (0.1 ms
+     * wide) that the percentile falls in, or the maximum if it falls in the last bucket.
+     * @param phase         The phase.
+     * @param percentile    The percentile between 0 and 100.
+     * @return              The time in nanoseconds, or 0 if there are no samples.
+     */
+    public long getPercentile(int phase, int percentile) {
+        int total = count[phase];
+        if (total == 0)
+            return 0;
+        int wanted = Math.max(1, (total * percentile + 99) / 100);
+        int seen = 0;
+        for (int bucket = 0; bucket < BUCKETS - 1; bucket++) {
+            seen += histogram[phase][bucket];
+            if (seen >= wanted)
+                return (bucket + 1) * BUCKET_NANOS;
+        }
+        return getMax(phase);
+    }
+
+    /**
+     * Get the slowest sample of a phase.
+     * @param phase     The phase.
+     * @return          The time in nanoseconds, or 0 if there are no samples.
+     */
+    public long getMax(int phase) {
+        long max = 0;
+        long[] ring = samples[phase];
+        for (int i = 0; i < count[phase]; i++)
+            max = Math.max(max, ring[i]);
+        return max;
+    }
+
+    /**
+     * Get one of the most recent samples of a phase.
+     * @param phase     The phase.
+     * @param age       0 for the most recent sample, 1 for the one before, and so on.
+     * @return          The time in nanoseconds, or 0 if there is no such sample.
+     */
+    public long getRecent(int phase, int age) {
+        if (age >= count[phase])
+            return 0;
+        int index = next[phase] - 1 - age;
+        if (index < 0)
+            index += CAPACITY;
+        return samples[phase][index];
+    }
+
+    /**
+     * Get the number of samples that are kept per phase.
+     * @return  The capacity of the ring buffers.
+     */
+    public int getCapacity() {
+        return CAPACITY;
+    }
+
+    /**
+     * Get the name of a phase, to show in the debug overlay.
+     * @param phase     The phase.
+     * @return          The name of the phase.
+     */
+    public static String getName(int phase) {
+        return NAMES[phase];
+    }
+
+}
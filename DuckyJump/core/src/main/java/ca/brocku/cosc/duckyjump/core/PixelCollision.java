@@ -0,0 +1,124 @@
+package ca.brocku.cosc.duckyjump.core;
+
+/**
+ * Detect if the duck has collided with a spike, down to the pixel. The solid pixels of the duck
+ * are compared with those of the spikes that its image overlaps, placed where they are drawn at
+ * the end of the tick, so the duck dies when (and only when) it is drawn touching a spike. This is
+ * the alternative to the rectangle checks of CollisionDetection.
+ *
+ * When the duck was moved several ticks in one step, the side spikes are checked where it touched
+ * the wall and the top spikes where it was at the highest point it reached, before and after it
+ * touched the wall, in the order of CollisionDetection.
+ */
+public class PixelCollision {
+
+    /**
+     * Static classes should not be instantiated.
+     */
+    private PixelCollision(){}
+
+    /**
+     * Check which spikes the duck has collided with, if any.
+     * @param duck      The specified duck.
+     * @param spikes    The specified spikes.
+     * @param masks     The solid pixels of the images.
+     * @return          The spikes that were hit, or null if no collision occurred.
+     */
+    public static DeathCause getCause(DuckBody duck, SpikeWall spikes, SpriteMasks masks) {
+        AlphaMask mask = masks.getDuckMask(duck.getDirection(), duck.isJumping());
+        int x = Math.round(duck.getX());
+        int y = Math.round(duck.getY());
+
+        // In the order they would be hit one tick at a time.
+        AlphaMask top = masks.getTopSpikeMask();
+        int earlyX = Math.round(duck.getHighestXBeforeContact());
+        int earlyY = Math.round(duck.getHighestYBeforeContact());
+        if (duck.hasHighestBeforeContact() && rowCollision(mask, earlyX, earlyY, spikes, top, 0))
+            return DeathCause.TOP;
+        int contactX = Math.round(duck.getContactX());
+        int contactY = Math.round(duck.getContactY());
+        AlphaMask side = masks.getSideSpikeMask(spikes.getDirection());
+        if (sideSpikeCollision(mask, contactX, contactY, spikes, side))
+            return DeathCause.SIDE;
+        int highestX = Math.round(duck.getHighestX());
+        int highestY = Math.round(duck.getHighestY());
+        if (rowCollision(mask, highestX, highestY, spikes, top, 0))
+            return DeathCause.TOP;
+        AlphaMask bottom = masks.getBottomSpikeMask();
+        if (rowCollision(mask, x, y, spikes, bottom, spikes.getScreenHeight() - bottom.getHeight()))
+            return DeathCause.BOTTOM;
+        return null;
+    }
+
+    /**
+     * Check if the duck has collided with a spike on the wall it is flying towards. Only the slots
+     * that the duck is level with are checked.
+     * @param duck      The mask of the duck.
+     * @param x         The x coordinate of the duck.
+     * @param y         The y coordinate of the duck.
+     * @param spikes    The specified spikes.
+     * @param spike     The mask of a spike on the wall.
+     * @return          True if a collision occurred.
+     */
+    private static boolean sideSpikeCollision(AlphaMask duck, int x, int y, SpikeWall spikes,
+                                              AlphaMask spike) {
+        // Spikes are drawn one spike apart, starting one spike below the top of the screen, and
+        // slide in from the wall as the offset goes to 0.
+        int size = spike.getHeight();
+        int offset = Math.round(spikes.getOffset(1));
+        int spikeX = spikes.getDirection() == Direction.RIGHT
+                ? spikes.getScreenWidth() - spike.getWidth() - offset
+                : offset;
+
+        int first = Math.max(floorDiv(y - size, size), 0);
+        int last = floorDiv(y + duck.getHeight() - 1 - size, size);
+        for (int slot = first; slot <= last; slot++) {
+            if (spikes.hasSpike(slot)
+                    && AlphaMask.overlap(duck, x, y, spike, spikeX, size + size * slot))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check if the duck has collided with a spike in the top or bottom row. The rows are drawn
+     * from the right edge of the screen to the left, one spike apart.
+     * @param duck      The mask of the duck.
+     * @param x         The x coordinate of the duck.
+     * @param y         The y coordinate of the duck.
+     * @param spikes    The specified spikes.
+     * @param spike     The mask of a spike in the row.
+     * @param rowY      The y coordinate of the row.
+     * @return          True if a collision occurred.
+     */
+    private static boolean rowCollision(AlphaMask duck, int x, int y, SpikeWall spikes,
+                                        AlphaMask spike, int rowY) {
+        if (y >= rowY + spike.getHeight() || y + duck.getHeight() <= rowY)
+            return false;
+
+        int size = spike.getWidth();
+        int width = spikes.getScreenWidth();
+        // Spike k (from 1) is at width - k * size, so only the ones from first to last can overlap.
+        int first = Math.max(floorDiv(width - x - duck.getWidth(), size), 1);
+        int last = floorDiv(width - x + size - 1, size);
+        for (int k = first; k <= last; k++) {
+            int spikeX = width - k * size;
+            if (spikeX <= -size)
+                break; // Past the left edge, where no more spikes are drawn.
+            if (AlphaMask.overlap(duck, x, y, spike, spikeX, rowY))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Divide and round towards negative infinity (Math.floorDiv(...) needs Java 8).
+     * @param a     The dividend.
+     * @param b     The divisor, which must be positive.
+     * @return      The rounded quotient.
+     */
+    private static int floorDiv(int a, int b) {
+        return a >= 0 ? a / b : -((-a + b - 1) / b);
+    }
+
+}
@@ -0,0 +1,179 @@
+package ca.brocku.cosc.duckyjump.core;
+
+/**
+ * Trades visual effects for frame rate on phones that cannot keep up. The governor is told how
+ * long the work of every frame took (updating and drawing, not waiting for the display), and looks
+ * at the frames in windows of WINDOW frames:
+ *
+ * - If more than one in ten frames of a window came close to the frame budget, the quality goes
+ *   down a level straight away.
+ * - If every frame of several windows in a row left at least half of the budget unused, the
+ *   quality goes back up a level.
+ *
+ * Going down is quick and going up is slow, and the thresholds are far apart, so the level does
+ * not flip back and forth around the budget (hysteresis). If the quality has to go down again right
+ * after going up, the next attempt to go up waits twice as long.
+ *
+ * Every level keeps the reductions of the levels above it:
+ * 0. Everything.
+ * 1. Half of the particles.
+ * 2. No anti-aliasing or bitmap filtering.
+ * 3. No ring animation.
+ * 4. Drawn at 3/4 of the resolution of the screen and scaled up.
+ *
+ * Nothing is allocated, and the governor is not thread safe: it is meant to be used by the thread
+ * drawing the frames.
+ */
+public class QualityGovernor {
+
+    public static final int LEVELS = 5;
+    public static final int FEWER_PARTICLES = 1;
+    public static final int NO_ANTI_ALIAS = 2;
+    public static final int NO_RING_ANIMATION = 3;
+    public static final int LOWER_RESOLUTION = 4;
+
+    public static final long FRAME_BUDGET = 16666667; // 60 fps, in nanoseconds.
+
+    private static final int WINDOW = 30; // Frames, half a second at 60 fps.
+    private static final int MAX_SLOW = WINDOW / 10; // Slow frames a window may have.
+    private static final long SLOW = FRAME_BUDGET * 8 / 10; // Too close to the budget.
+    private static final long FAST = FRAME_BUDGET / 2; // Enough headroom for more quality.
+    private static final int UP_WINDOWS = 4; // Fast windows in a row before going up.
+    private static final int MAX_UP_WINDOWS = 64;
+
+    private int level;
+    private int frames, slowFrames; // In the current window.
+    private boolean fastWindow; // No frame of the current window was slower than FAST.
+    private int fastWindows; // In a row.
+    private int upWindows = UP_WINDOWS; // Needed in a row before going up.
+    private boolean justWentUp; // No full window has passed since the level went up.
+    private int stepsDown, stepsUp;
+
+    /**
+     * Construct a governor at the best quality.
+     */
+    public QualityGovernor() {
+        reset();
+    }
+
+    /**
+     * Report how long the work of a frame took.
+     * @param nanos     The time of the frame, in nanoseconds.
+     * @return          True if the level changed.
+     */
+    public boolean frame(long nanos) {
+        frames++;
+        if (nanos > SLOW)
+            slowFrames++;
+        if (nanos > FAST)
+            fastWindow = false;
+
+        if (slowFrames > MAX_SLOW && level < LEVELS - 1) {
+            // Slow frames are visible right away, so don't wait for the end of the window.
+            if (justWentUp)
+                upWindows = Math.min(upWindows * 2, MAX_UP_WINDOWS); // It was too early.
+            setLevel(level + 1);
+            stepsDown++;
+            return true;
+        }
+        if (frames < WINDOW)
+            return false;
+
+        boolean up = false;
+        fastWindows = fastWindow ? fastWindows + 1 : 0;
+        justWentUp = false;
+        if (fastWindows >= upWindows && level > 0) {
+            setLevel(level - 1);
+            stepsUp++;
+            justWentUp = true;
+            up = true;
+        }
+        startWindow();
+        return up;
+    }
+
+    /**
+     * Start a new window of frames.
+     */
+    private void startWindow() {
+        frames = 0;
+        slowFrames = 0;
+        fastWindow = true;
+    }
+
+    /**
+     * Change the level, and start counting the frames again.
+     * @param level     The new level.
+     */
+    private void setLevel(int level) {
+        this.level = level;
+        fastWindows = 0;
+        startWindow();
+    }
+
+    /**
+     * Forget the frames so far, such as when the frames stop for a while. The level is kept.
+     */
+    public void reset() {
+        fastWindows = 0;
+        justWentUp = false;
+        startWindow();
+    }
+
+    /**
+     * Get the current level.
+     * @return  The level, from 0 (the best quality) to LEVELS - 1.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Get how many times the quality went down.
+     * @return  The number of steps down.
+     */
+    public int getStepsDown() {
+        return stepsDown;
+    }
+
+    /**
+     * Get how many times the quality went back up.
+     * @return  The number of steps up.
+     */
+    public int getStepsUp() {
+        return stepsUp;
+    }
+
+    /**
+     * Get the share of the particles that should be spawned.
+     * @return  The density, from 0 to 1.
+     */
+    public float getParticleDensity() {
+        return level >= FEWER_PARTICLES ? 0.5f : 1;
+    }
+
+    /**
+     * Check if edges should be anti-aliased and bitmaps filtered.
+     * @return  True for smooth edges.
+     */
+    public boolean isAntiAlias() {
+        return level < NO_ANTI_ALIAS;
+    }
+
+    /**
+     * Check if the ring around the score should light up and fade.
+     * @return  True to animate the ring.
+     */
+    public boolean isRingAnimated() {
+        return level < NO_RING_ANIMATION;
+    }
+
+    /**
+     * Get the resolution to draw at, relative to the screen.
+     * @return  The scale, from 0 to 1.
+     */
+    public float getRenderScale() {
+        return level >= LOWER_RESOLUTION ? 0.75f : 1;
+    }
+
+}
@@ -0,0 +1,282 @@
+package ca.brocku.cosc.duckyjump.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Everything needed to play a session again exactly as it was played: the seed of the spikes, the
+ * size of the screen and the images, the kind of collision detection, the number of ticks per
+ * step, and the tick of every jump and restart. The game only changes at tick boundaries, so this
+ * is enough to reproduce every frame of the session.
+ *
+ * A recording is saved in a compact binary format. After a small header, every input is a single
+ * variable length number that holds the number of ticks since the previous input and its kind.
+ * A minute of frantic jumping takes a few hundred bytes.
+ */
+public class Recording implements SpriteMetrics {
+
+    public static final byte JUMP = 0;
+    public static final byte RESTART = 1;
+    public static final int MAX_STEP_TICKS = 255; // The step is saved in a single byte.
+
+    private static final int MAGIC = 0x444a5233; // "DJR3"
+    private static final int MAGIC_V2 = 0x444a5232; // "DJR2", without the step.
+    private static final int MAGIC_V1 = 0x444a5231; // "DJR1", without the flags.
+    private static final int PIXEL_COLLISION = 1; // Flag.
+
+    private long seed;
+    private int width, height; // Of the screen.
+    private int duckWidth, duckHeight, spikeSize;
+    private boolean pixelCollision; // The game detected collisions with the sprite masks.
+    private int stepTicks = 1; // The number of ticks that the game moved at a time.
+
+    private int[] ticks = new int[64]; // The tick of every input.
+    private byte[] kinds = new byte[64]; // JUMP or RESTART.
+    private int size;
+
+    /**
+     * Construct an empty recording.
+     * @param seed      The seed of the Random that places the spikes.
+     * @param width     The width of the screen.
+     * @param height    The height of the screen.
+     * @param sprites   The sizes of the images of the duck and the spikes.
+     */
+    public Recording(long seed, int width, int height, SpriteMetrics sprites) {
+        this.seed = seed;
+        this.width = width;
+        this.height = height;
+        duckWidth = sprites.getDuckWidth();
+        duckHeight = sprites.getDuckHeight();
+        spikeSize = sprites.getSpikeSize();
+    }
+
+    /**
+     * Add an input to the end of the recording.
+     * @param tick  The number of ticks that the game ran before the input.
+     * @param kind  JUMP or RESTART.
+     */
+    public void add(int tick, byte kind) {
+        if (size == ticks.length) {
+            ticks = Arrays.copyOf(ticks, size * 2);
+            kinds = Arrays.copyOf(kinds, size * 2);
+        }
+        ticks[size] = tick;
+        kinds[size] = kind;
+        size++;
+    }
+
+    /**
+     * Save the recording.
+     * @param out   Where to save it. The stream is not closed.
+     * @throws IOException  If the recording could not be written.
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(pixelCollision ? PIXEL_COLLISION : 0);
+        data.writeByte(stepTicks);
+        data.writeLong(seed);
+        data.writeInt(width);
+        data.writeInt(height);
+        data.writeInt(duckWidth);
+        data.writeInt(duckHeight);
+        data.writeInt(spikeSize);
+        data.writeInt(size);
+        int previous = 0;
+        for (int i = 0; i < size; i++) {
+            writeVarInt(data, (ticks[i] - previous) << 1 | kinds[i]);
+            previous = ticks[i];
+        }
+        data.flush();
+    }
+
+    /**
+     * Load a recording that was saved with write(...).
+     * @param in    Where to load it from. The stream is not closed.
+     * @return      The recording.
+     * @throws IOException  If the recording could not be read or is not a recording.
+     */
+    public static Recording read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        int magic = data.readInt();
+        if (magic != MAGIC && magic != MAGIC_V2 && magic != MAGIC_V1)
+            throw new IOException("Not a recording");
+        int flags = magic != MAGIC_V1 ? data.readByte() : 0;
+        int stepTicks = magic == MAGIC ? data.readUnsignedByte() : 1;
+        if (stepTicks < 1)
+            throw new IOException("Malformed recording");
+        long seed = data.readLong();
+        int width = data.readInt();
+        int height = data.readInt();
+        final int duckWidth = data.readInt();
+        final int duckHeight = data.readInt();
+        final int spikeSize = data.readInt();
+        Recording recording = new Recording(seed, width, height, new SpriteMetrics() {
+            @Override
+            public int getDuckWidth() {
+                return duckWidth;
+            }
+
+            @Override
+            public int getDuckHeight() {
+                return duckHeight;
+            }
+
+            @Override
+            public int getSpikeSize() {
+                return spikeSize;
+            }
+        });
+        recording.setPixelCollision((flags & PIXEL_COLLISION) != 0);
+        recording.setStepTicks(stepTicks);
+
+        int size = data.readInt();
+        int tick = 0;
+        for (int i = 0; i < size; i++) {
+            int value = readVarInt(data);
+            tick += value >>> 1;
+            recording.add(tick, (byte) (value & 1));
+        }
+        return recording;
+    }
+
+    /**
+     * Write a non-negative number in as few bytes as possible, 7 bits per byte. The high bit of a
+     * byte is set when more bytes follow.
+     * @param out       Where to write it.
+     * @param value     The number.
+     * @throws IOException  If the number could not be written.
+     */
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Read a number that was written with writeVarInt(...).
+     * @param in    Where to read it from.
+     * @return      The number.
+     * @throws IOException  If the number could not be read.
+     */
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Malformed recording");
+    }
+
+    /**
+     * Set whether the game detected collisions down to the pixel (see Game.setSpriteMasks(...)).
+     * A replay must detect collisions the same way.
+     * @param pixelCollision    True if the collisions were pixel accurate.
+     */
+    public void setPixelCollision(boolean pixelCollision) {
+        this.pixelCollision = pixelCollision;
+    }
+
+    /**
+     * Check whether the game detected collisions down to the pixel.
+     * @return  True if the collisions were pixel accurate.
+     */
+    public boolean isPixelCollision() {
+        return pixelCollision;
+    }
+
+    /**
+     * Set the number of ticks that the game moved at a time (see Game.setStepTicks(...)). A replay
+     * must move the same way.
+     * @param stepTicks     The number of ticks per step, 1 to MAX_STEP_TICKS.
+     * @throws IllegalArgumentException     If the step cannot be saved.
+     */
+    public void setStepTicks(int stepTicks) {
+        if (stepTicks < 1 || stepTicks > MAX_STEP_TICKS)
+            throw new IllegalArgumentException(
+                    "A step must be 1 to " + MAX_STEP_TICKS + " ticks: " + stepTicks);
+        this.stepTicks = stepTicks;
+    }
+
+    /**
+     * Get the number of ticks that the game moved at a time.
+     * @return  The number of ticks per step.
+     */
+    public int getStepTicks() {
+        return stepTicks;
+    }
+
+    /**
+     * Get the number of inputs in the recording.
+     * @return  The number of inputs.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the tick of an input.
+     * @param index     The index of the input.
+     * @return          The number of ticks that the game ran before the input.
+     */
+    public int getTick(int index) {
+        return ticks[index];
+    }
+
+    /**
+     * Get the kind of an input.
+     * @param index     The index of the input.
+     * @return          JUMP or RESTART.
+     */
+    public byte getKind(int index) {
+        return kinds[index];
+    }
+
+    /**
+     * Get the seed of the Random that places the spikes.
+     * @return  The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the width of the screen that the session was played on.
+     * @return  The width of the screen.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Get the height of the screen that the session was played on.
+     * @return  The height of the screen.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getDuckWidth() {
+        return duckWidth;
+    }
+
+    @Override
+    public int getDuckHeight() {
+        return duckHeight;
+    }
+
+    @Override
+    public int getSpikeSize() {
+        return spikeSize;
+    }
+
+}
@@ -0,0 +1,121 @@
+package ca.brocku.cosc.duckyjump.core;
+
+import java.util.Random;
+
+/**
+ * Plays a recording again. The game is constructed with the same seed and dimensions as the
+ * recorded one, and every input is applied right before the tick it was recorded at, so the
+ * replayed game goes through exactly the same states.
+ *
+ * Without a screen, run() replays the whole session as fast as the CPU allows. On a screen, the
+ * replay is ticked like a game. The recorded game did not tick while the duck was waiting for the
+ * first jump or lying dead, so for the viewer's sake the replay can wait a few ticks before the
+ * inputs that end those pauses.
+ *
+ * A session that was played with pixel accurate collisions can only be replayed with the same
+ * sprite masks, which need the images (and so Android) to be built.
+ */
+public class Replay {
+
+    private Recording recording;
+    private Game game;
+    private int next; // The index of the next input.
+    private int pause; // The steps to wait while the game is stopped.
+    private int waited; // The steps waited so far.
+
+    /**
+     * Construct a replay.
+     * @param recording     The session to replay.
+     * @param listener      Notified when the duck dies and when the game restarts.
+     */
+    public Replay(Recording recording, GameListener listener) {
+        this(recording, listener, null);
+    }
+
+    /**
+     * Construct a replay.
+     * @param recording     The session to replay.
+     * @param listener      Notified when the duck dies and when the game restarts.
+     * @param masks         The solid pixels of the images, or null if there are none.
+     * @throws IllegalArgumentException     If the session needs the masks but there are none.
+     */
+    public Replay(Recording recording, GameListener listener, SpriteMasks masks) {
+        this.recording = recording;
+        game = new Game(recording, new Random(recording.getSeed()), listener);
+        game.setStepTicks(recording.getStepTicks());
+        if (recording.isPixelCollision()) {
+            if (masks == null)
+                throw new IllegalArgumentException("The session needs the sprite masks to replay.");
+            game.setSpriteMasks(masks);
+        }
+        game.setDimensions(recording.getWidth(), recording.getHeight());
+    }
+
+    /**
+     * Wait a number of steps while the game is stopped, before the next input is applied. The
+     * default is not to wait.
+     * @param steps     The number of steps to wait.
+     */
+    public void setPause(int steps) {
+        pause = steps;
+    }
+
+    /**
+     * Apply the inputs of the current tick and then tick the game by one step.
+     * @throws IllegalStateException    If the recording does not match the game (it was recorded
+     *                                  with different rules).
+     */
+    public void tick() {
+        while (next < recording.size() && recording.getTick(next) == game.getTicks()) {
+            if (!game.isRunning() && waited++ < pause)
+                return;
+            apply(recording.getKind(next));
+            next++;
+            waited = 0;
+        }
+        if (!game.isRunning() && next < recording.size())
+            throw new IllegalStateException("The replay is out of sync at tick " + game.getTicks());
+        game.tick();
+    }
+
+    /**
+     * Apply an input to the game.
+     * @param kind  JUMP or RESTART.
+     */
+    private void apply(byte kind) {
+        if (game.isAlive() != (kind == Recording.JUMP))
+            throw new IllegalStateException("The replay is out of sync at tick " + game.getTicks());
+        game.press(0); // A press at the top jumps when alive and restarts when dead.
+    }
+
+    /**
+     * Replay the rest of the session without waiting.
+     * @return  The game after the last input, once the duck has stopped.
+     */
+    public Game run() {
+        int pause = this.pause;
+        this.pause = 0;
+        while (!isFinished())
+            tick();
+        this.pause = pause;
+        return game;
+    }
+
+    /**
+     * Check if the whole session was replayed. The replay is finished when all the inputs were
+     * applied and the duck has stopped.
+     * @return  True if the replay is finished.
+     */
+    public boolean isFinished() {
+        return next == recording.size() && !game.isRunning();
+    }
+
+    /**
+     * Get the game that is being replayed.
+     * @return  The game.
+     */
+    public Game getGame() {
+        return game;
+    }
+
+}
@@ -0,0 +1,255 @@
+package ca.brocku.cosc.duckyjump.core;
+
+import java.util.Random;
+
+/**
+ * Responsible for generating and animating the spikes that come out of the left and right walls.
+ * The spikes on the top and the bottom never change, so only their measurements are kept here.
+ */
+public class SpikeWall {
+
+    private static final int OFFSET_INCREMENT = 5; // How far the spikes slide in per tick.
+
+    // A wall is split into slots of the size of a spike, and a spike may come out of every slot
+    // except the top and bottom ones. Bit i of the mask is set if there is a spike in slot i. Only
+    // one side is stored at a time. There are at most 64 slots, enough for a screen 66 spikes high.
+    private static final int MAX_SLOTS = Long.SIZE;
+    private long spikes;
+    private int slots; // The number of slots on a wall.
+
+    private Random random; // Decides where the spikes are placed.
+    private DifficultyCurve curve; // Decides how many spikes there are.
+    private boolean capped; // The last spawn wanted more spikes than fit on the wall.
+    private int spikeSize; // The spikes are square images.
+    private Direction direction = Direction.RIGHT; // Determines which wall to spawn spikes on.
+    private int width = -1, height = -1; // This must be set when access to the canvas is possible.
+    private int offset; // Spikes come out from the sides starting at a particular offset.
+    private int previousOffset; // The offset at the previous tick, for drawing in between ticks.
+
+    /**
+     * Construct the spikes.
+     * @param spikeSize     The size of a spike image.
+     * @param random        Decides where the spikes are placed.
+     */
+    public SpikeWall(int spikeSize, Random random) {
+        this(spikeSize, random, DifficultyCurve.DEFAULT);
+    }
+
+    /**
+     * Construct the spikes.
+     * @param spikeSize     The size of a spike image.
+     * @param random        Decides where the spikes are placed.
+     * @param curve         Decides how many spikes there are for a score.
+     */
+    public SpikeWall(int spikeSize, Random random, DifficultyCurve curve) {
+        this.spikeSize = spikeSize;
+        this.random = random;
+        this.curve = curve;
+    }
+
+    /**
+     * Remove the spikes from the sides (not from the top and bottom).
+     */
+    public void clear(){
+        spawnSpikes(0);
+    }
+
+    /**
+     * The number of spikes to spawn depends on the score. A higher score means more speaks.
+     * @param score     The current score in the game.
+     * @return          The number of spikes that should be spawn.
+     */
+    private int getNumberOfSpikesToSpawn(int score){
+        return curve.getSpikes(score);
+    }
+
+    /**
+     * Spawn spikes at the left or right wall. The number of spikes depends on the score.
+     * @param direction     The wall to spawn on.
+     * @param score         The current score in the game.
+     */
+    public void spawn(Direction direction, int score) {
+        this.direction = direction;
+        int numOfSpikes = getNumberOfSpikesToSpawn(score);
+        spawnSpikes(numOfSpikes);
+        resetOffset();
+    }
+
+    /**
+     * Spawn the left or right spikes.
+     * @param numOfSpikes   The number of spikes to spawn.
+     */
+    private void spawnSpikes(int numOfSpikes) {
+        if (height == -1)
+            throw new IllegalStateException("Cannot spawn before the dimensions are set.");
+
+        // Don't create more spikes than can fit & have at least space for one empty spot.
+        capped = numOfSpikes >= slots;
+        if (capped)
+            numOfSpikes = Math.max(slots - 1, 0);
+
+        spikes = (1L << numOfSpikes) - 1; // The first slots, then shuffled.
+        shuffle();
+    }
+
+    /**
+     * Shuffle the spikes. This is for spawning spikes in random locations. Every slot is swapped
+     * with a random slot, the same way and with the same random numbers as when the slots were
+     * an array, so a seed still gives the same spikes as it always did (and old recordings still
+     * replay).
+     */
+    private void shuffle() {
+        for (int i = 0; i < slots; i++) {
+            int j = random.nextInt(slots);
+            if (((spikes >>> i ^ spikes >>> j) & 1) != 0)
+                spikes ^= 1L << i | 1L << j; // The bits differ, so swapping them flips both.
+        }
+    }
+
+    /**
+     * When new spikes are spawned the offset needs to be reset. This is so that the spikes are
+     * placed outside the boundaries of the screen and then move into the screen to perform the
+     * spawn animation.
+     */
+    private void resetOffset() {
+        offset = -spikeSize / 2;
+        previousOffset = offset;
+    }
+
+    /**
+     * Update the spawn animation. This is to be called once per game tick.
+     */
+    public void update() {
+        update(1);
+    }
+
+    /**
+     * Update the spawn animation by a number of game ticks in one step.
+     * @param ticks     The number of ticks.
+     */
+    public void update(int ticks) {
+        previousOffset = offset;
+        for (int i = 0; i < ticks && offset < 0; i++)
+            offset += OFFSET_INCREMENT;
+    }
+
+    /**
+     * Get how far the spikes are from sliding in completely, in between the previous and the
+     * current tick.
+     * @param alpha     How far the display is into the next tick (0 to 1).
+     * @return          The offset of the spikes in pixels.
+     */
+    public float getOffset(float alpha) {
+        return previousOffset + (offset - previousOffset) * alpha;
+    }
+
+    /**
+     * Set the dimensions of the canvas.
+     * @param width     The width of the canvas.
+     * @param height    The height of the canvas.
+     */
+    public void setDimensions(int width, int height) {
+        this.width = width;
+        this.height = height;
+        slots = Math.max(Math.min(getMaxPossibleSpikes(height), MAX_SLOTS), 0);
+    }
+
+    /**
+     * Get the width of the screen. This is used by the collision detection algorithm.
+     * @return  The width of the screen.
+     */
+    int getScreenWidth() {
+        if (width == -1)
+            throw new IllegalStateException("Cannot get the screen width before spawning.");
+        return width;
+    }
+
+    /**
+     * Get the height of the screen. This is used by the collision detection algorithm.
+     * @return  The height of the screen.
+     */
+    int getScreenHeight() {
+        if (height == - 1)
+            throw new IllegalStateException("Cannot get the screen height before spawning.");
+        return height;
+    }
+
+    /**
+     * A spike is an isosceles triangle. The base is the measurement of the longest side.
+     * @return  The base measurement in pixels.
+     */
+    public int getSpikeBase() {
+        return spikeSize;
+    }
+
+    /**
+     * A spike is an isosceles triangle. The height is the measurement between the center of the
+     * two acute angles and the obtuse angle.
+     * @return  The height measurement in pixels.
+     */
+    public int getSpikeHeight() {
+        return spikeSize / 2;
+    }
+
+    /**
+     * Get the size of a spike image. This is also the space between two spikes on a wall.
+     * @return  The size of a spike in pixels.
+     */
+    public int getSpikeSize() {
+        return spikeSize;
+    }
+
+    /**
+     * Get where the spikes are. Bit i is set if there is a spike in slot i, counting from the top.
+     * @return  The spikes.
+     */
+    public long getSpawnLocations() {
+        return spikes;
+    }
+
+    /**
+     * Check if there is a spike in a slot.
+     * @param slot  The slot, counting from the top.
+     * @return      True if there is a spike in the slot.
+     */
+    public boolean hasSpike(int slot) {
+        return slot >= 0 && slot < slots && (spikes >>> slot & 1) != 0;
+    }
+
+    /**
+     * Get the number of slots on a wall that a spike may come out of.
+     * @return  The number of slots.
+     */
+    public int getSlots() {
+        return slots;
+    }
+
+    /**
+     * Check if the last spawn wanted more spikes than fit on the wall (leaving one empty spot), so
+     * fewer spikes were spawned than the difficulty curve asked for.
+     * @return  True if the number of spikes was capped.
+     */
+    public boolean wasCapped() {
+        return capped;
+    }
+
+    /**
+     * Get the wall that the spikes are created on (left or right).
+     * @return  The wall that the spikes are created on.
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * The maximum possible spikes that can be spawned on one side of the screen.
+     * @param height    The height of the screen.
+     * @return          The maximum number of spikes that can be spawned.
+     */
+    public int getMaxPossibleSpikes(int height) {
+        // Do not draw a spike right at the top or right at the bottom.
+        int trimmedHeight = height - spikeSize * 2;
+        return trimmedHeight / spikeSize;
+    }
+
+}
@@ -0,0 +1,36 @@
+package ca.brocku.cosc.duckyjump.core;
+
+/**
+ * The solid pixels of the images that the game is played with, for the pixel accurate collision
+ * detection. Like SpriteMetrics, this lets the simulation look at the images without Android.
+ */
+public interface SpriteMasks {
+
+    /**
+     * Get the mask of the image of the duck that is drawn.
+     * @param direction     The direction the duck is facing.
+     * @param jumping       True if the jump image is drawn.
+     * @return              The mask of the duck.
+     */
+    AlphaMask getDuckMask(Direction direction, boolean jumping);
+
+    /**
+     * Get the mask of the spikes in the top row, which point down.
+     * @return  The mask of a top spike.
+     */
+    AlphaMask getTopSpikeMask();
+
+    /**
+     * Get the mask of the spikes in the bottom row, which point up.
+     * @return  The mask of a bottom spike.
+     */
+    AlphaMask getBottomSpikeMask();
+
+    /**
+     * Get the mask of the spikes that come out of a wall.
+     * @param wall  The wall the spikes are on.
+     * @return      The mask of a spike on that wall.
+     */
+    AlphaMask getSideSpikeMask(Direction wall);
+
+}
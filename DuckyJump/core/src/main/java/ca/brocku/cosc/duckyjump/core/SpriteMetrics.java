@@ -0,0 +1,28 @@
+package ca.brocku.cosc.duckyjump.core;
+
+/**
+ * The sizes of the images that the game is played with. The simulation never touches the images
+ * themselves, only their measurements, so that it can run without Android.
+ */
+public interface SpriteMetrics {
+
+    /**
+     * Get the width of the duck. This includes for the beak and the tail.
+     * @return  The width of the duck in pixels.
+     */
+    int getDuckWidth();
+
+    /**
+     * Get the height of the duck. This includes the hair.
+     * @return  The height of the duck in pixels.
+     */
+    int getDuckHeight();
+
+    /**
+     * Get the size of a spike image. The spike images are square, and this is both the base of a
+     * spike and the space between two spikes on a wall.
+     * @return  The size of a spike in pixels.
+     */
+    int getSpikeSize();
+
+}
@@ -1,4 +1,4 @@
-package ca.brocku.cosc.duckyjump.GameObjects;
+package ca.brocku.cosc.duckyjump.core;
 
 /**
  * Used to represent locations and forces that are acted out on the duck.
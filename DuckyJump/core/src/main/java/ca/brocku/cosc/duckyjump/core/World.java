@@ -0,0 +1,41 @@
+package ca.brocku.cosc.duckyjump.core;
+
+/**
+ * The units that the game is played in. The world is always WIDTH units wide, and as tall as the
+ * aspect ratio of the screen makes it, so the physics (which are in units per tick) and the sizes
+ * of the images play the same on every phone and at every resolution the game is drawn at. Only
+ * the screen scales the world, never the other way around.
+ *
+ * A unit is a pixel of a 1080 pixel wide screen at xxhdpi, the screen that the physics and the
+ * difficulty were tuned on.
+ */
+public class World {
+
+    public static final int WIDTH = 1080;
+    public static final int DENSITY = 480; // Dots per inch that the images are sized for (xxhdpi).
+
+    /**
+     * Static classes should not be instantiated.
+     */
+    private World(){}
+
+    /**
+     * Get the height of the world on a screen.
+     * @param screenWidth   The width of the screen.
+     * @param screenHeight  The height of the screen.
+     * @return              The height of the world, in units.
+     */
+    public static int getHeight(int screenWidth, int screenHeight) {
+        return Math.round((float) screenHeight * WIDTH / screenWidth);
+    }
+
+    /**
+     * Get how many pixels of a screen a unit of the world is.
+     * @param screenWidth   The width of the screen.
+     * @return              The pixels per unit.
+     */
+    public static float getScale(int screenWidth) {
+        return (float) screenWidth / WIDTH;
+    }
+
+}
@@ -0,0 +1,63 @@
+package ca.brocku.cosc.duckyjump.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the word wide overlap test of the masks against a pixel by pixel one.
+ */
+public class AlphaMaskTest {
+
+    @Test
+    public void overlapMatchesPixelByPixel() throws Exception {
+        Random random = new Random(3);
+        for (int i = 0; i < 2000; i++) {
+            AlphaMask a = randomMask(random, 1 + random.nextInt(150), 1 + random.nextInt(40));
+            AlphaMask b = randomMask(random, 1 + random.nextInt(150), 1 + random.nextInt(40));
+            int bx = random.nextInt(300) - 150;
+            int by = random.nextInt(80) - 40;
+            assertEquals("Case " + i, slowOverlap(a, 0, 0, b, bx, by),
+                    AlphaMask.overlap(a, 0, 0, b, bx, by));
+        }
+    }
+
+    @Test
+    public void transparentPixelsDoNotCount() throws Exception {
+        // Two 2x1 images, solid on opposite sides, drawn on top of each other.
+        AlphaMask left = new AlphaMask(2, 1, new int[] {0xff000000, 0x7f000000}, 128);
+        AlphaMask right = new AlphaMask(2, 1, new int[] {0x00ffffff, 0x80ffffff}, 128);
+        assertFalse(AlphaMask.overlap(left, 0, 0, right, 0, 0));
+        assertTrue(AlphaMask.overlap(left, 1, 0, right, 0, 0));
+    }
+
+    /**
+     * Make a mask with about a tenth of the pixels solid, so that overlaps are not certain.
+     * @param random    Decides which pixels are solid.
+     * @param width     The width of the mask.
+     * @param height    The height of the mask.
+     * @return          The mask.
+     */
+    private static AlphaMask randomMask(Random random, int width, int height) {
+        int[] pixels = new int[width * height];
+        for (int i = 0; i < pixels.length; i++)
+            pixels[i] = random.nextInt(10) == 0 ? 0xff000000 : 0;
+        return new AlphaMask(width, height, pixels, 128);
+    }
+
+    private static boolean slowOverlap(AlphaMask a, int ax, int ay, AlphaMask b, int bx, int by) {
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                int x2 = x + ax - bx, y2 = y + ay - by;
+                if (x2 < 0 || y2 < 0 || x2 >= b.getWidth() || y2 >= b.getHeight())
+                    continue;
+                if (a.isSolid(x, y) && b.isSolid(x2, y2))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,110 @@
+package ca.brocku.cosc.duckyjump.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static ca.brocku.cosc.duckyjump.core.TestGames.*;
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the game plays the same no matter how fast the display refreshes.
+ */
+public class FixedTimestepTest {
+
+    private static final int SECONDS = 5;
+    private static final int SLOWEST_FPS = 30; // Its frames are also frames at 60 and 120 fps.
+    // When the screen is touched, in milliseconds. Some of them fall in the middle of a tick.
+    private static final long[] JUMP_MS = {90, 500, 520, 1170, 2010, 3000, 3010, 4170};
+
+    @Test
+    public void sameTrajectoryAt30And60And120Fps() throws Exception {
+        List<Float> drawn30 = new ArrayList<>();
+        List<Float> drawn60 = new ArrayList<>();
+        List<Float> drawn120 = new ArrayList<>();
+        float[] at30 = trajectory(30, drawn30);
+        float[] at60 = trajectory(60, drawn60);
+        float[] at120 = trajectory(120, drawn120);
+
+        assertEquals(SECONDS * FixedTimestep.TICKS_PER_SECOND * 2, at60.length);
+        assertEquals(at60.length, at30.length);
+        assertEquals(at60.length, at120.length);
+        for (int i = 0; i < at60.length; i++) {
+            assertEquals("30 fps differs at " + i, at60[i], at30[i], 0f);
+            assertEquals("120 fps differs at " + i, at60[i], at120[i], 0f);
+        }
+
+        // In between the ticks, the duck is drawn at the same place at the same time.
+        assertEquals(drawn60, drawn30);
+        assertEquals(drawn60, drawn120);
+    }
+
+    @Test
+    public void alphaStaysWithinOneTick() throws Exception {
+        FixedTimestep timestep = new FixedTimestep();
+        timestep.advance(0);
+        for (int frame = 1; frame < 1000; frame++) {
+            timestep.advance(frame * 1000000000L / 144);
+            float alpha = timestep.getAlpha();
+            assertTrue(alpha >= 0 && alpha < 1);
+        }
+    }
+
+    @Test
+    public void ticksAtTheFixedRate() throws Exception {
+        FixedTimestep timestep = new FixedTimestep();
+        int ticks = timestep.advance(0);
+        for (int frame = 1; frame <= 120; frame++)
+            ticks += timestep.advance(frame * 1000000000L / 120);
+        assertEquals(FixedTimestep.TICKS_PER_SECOND, ticks);
+    }
+
+    @Test
+    public void longPauseIsNotSimulated() throws Exception {
+        FixedTimestep timestep = new FixedTimestep();
+        timestep.advance(0);
+        int ticks = timestep.advance(10000000000L); // 10 seconds in the background.
+        assertTrue(ticks <= 5);
+        assertEquals(1, timestep.advance(10000000000L + FixedTimestep.TICK_NANOS));
+    }
+
+    /**
+     * Play the game with the same touches at the specified frame rate. A touch makes the duck jump
+     * at the first tick that ends at or after it.
+     * @param fps       The frame rate of the display.
+     * @param drawn     Gets the x and y coordinates that the duck is drawn at, in the frames that
+     *                  are common to every frame rate.
+     * @return          The x and y coordinates of the duck after every tick.
+     */
+    private float[] trajectory(int fps, List<Float> drawn) {
+        FixedTimestep timestep = new FixedTimestep();
+        DuckBody body = new DuckBody(DUCK_WIDTH, DUCK_HEIGHT);
+        body.setScreenWidth(SCREEN_WIDTH);
+        body.setPosition(SCREEN_WIDTH / 2, 800);
+
+        List<Float> positions = new ArrayList<>();
+        int tick = 0, jump = 0;
+        for (int frame = 0; frame <= SECONDS * fps; frame++) {
+            int ticks = timestep.advance(frame * 1000000000L / fps);
+            for (int i = 0; i < ticks; i++, tick++) {
+                long end = (tick + 1) * FixedTimestep.TICK_NANOS;
+                for (; jump < JUMP_MS.length && JUMP_MS[jump] * 1000000L <= end; jump++)
+                    body.jump();
+                body.update();
+                positions.add(body.getX());
+                positions.add(body.getY());
+            }
+            if (frame % (fps / SLOWEST_FPS) == 0) {
+                drawn.add(body.getX(timestep.getAlpha()));
+                drawn.add(body.getY(timestep.getAlpha()));
+            }
+        }
+
+        float[] result = new float[positions.size()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = positions.get(i);
+        return result;
+    }
+
+}
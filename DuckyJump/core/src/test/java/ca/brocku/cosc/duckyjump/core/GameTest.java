@@ -0,0 +1,174 @@
+package ca.brocku.cosc.duckyjump.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static ca.brocku.cosc.duckyjump.core.TestGames.*;
+import static org.junit.Assert.*;
+
+/**
+ * Plays the real rules of the game without Android.
+ */
+public class GameTest {
+
+    private int gameOvers, restarts, finalScore;
+    private GameListener listener = new GameListener() {
+        @Override
+        public void onGameOver(int score) {
+            gameOvers++;
+            finalScore = score;
+        }
+
+        @Override
+        public void onRestart() {
+            restarts++;
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        gameOvers = 0;
+        restarts = 0;
+        finalScore = -1;
+    }
+
+    @Test
+    public void nothingMovesBeforeTheFirstJump() throws Exception {
+        Game game = newGame(1);
+        float y = game.getDuck().getY();
+        for (int i = 0; i < 1000; i++)
+            game.tick();
+        assertFalse(game.isRunning());
+        assertEquals(y, game.getDuck().getY(), 0f);
+    }
+
+    @Test
+    public void duckDiesOnTheBottomSpikesWithoutJumping() throws Exception {
+        Game game = newGame(1);
+        game.press(SCREEN_HEIGHT);
+        for (int i = 0; i < 1000 && game.isAlive(); i++)
+            game.tick();
+        assertFalse(game.isAlive());
+        assertEquals(1, gameOvers);
+        assertEquals(game.getScore(), finalScore);
+        assertEquals(DeathCause.BOTTOM, game.getDeathCause());
+    }
+
+    @Test
+    public void bouncingOffTheWallsScores() throws Exception {
+        Game game = newGame(1);
+        play(game, 60 * 60);
+        assertTrue(game.getScore() > 0);
+    }
+
+    @Test
+    public void restartOnlyFromTheTopOfTheScreen() throws Exception {
+        Game game = newGame(1);
+        game.press(SCREEN_HEIGHT);
+        while (game.isAlive())
+            game.tick();
+
+        game.press(SCREEN_HEIGHT - 1);
+        assertFalse(game.isAlive());
+        game.press(0);
+        assertTrue(game.isAlive());
+        assertEquals(1, restarts);
+        assertEquals(0, game.getScore());
+    }
+
+    @Test
+    public void restartStartsTheCountsOfTheGameOver() throws Exception {
+        Game game = newGame(1);
+        game.press(SCREEN_HEIGHT);
+        int ticks = 0;
+        while (game.isAlive()) {
+            game.tick();
+            ticks++;
+        }
+        assertEquals(1, game.getJumps());
+        assertEquals(ticks, game.getGameTicks());
+
+        game.press(0);
+        assertEquals(0, game.getJumps());
+        assertEquals(0, game.getGameTicks());
+        assertEquals(ticks, game.getTicks());
+    }
+
+    @Test
+    public void sameSeedSameSpikes() throws Exception {
+        Game first = newGame(42);
+        Game second = newGame(42);
+        for (int tick = 0; tick < 60 * 60; tick++) {
+            keepAlive(first);
+            keepAlive(second);
+            first.tick();
+            second.tick();
+            assertEquals(first.getSpikes().getSpawnLocations(),
+                    second.getSpikes().getSpawnLocations());
+            assertEquals(first.getDuck().getY(), second.getDuck().getY(), 0f);
+        }
+    }
+
+    @Test
+    public void pixelCollisionDiesOnTheBottomSpikes() throws Exception {
+        Game game = newGame(1);
+        game.setSpriteMasks(SOLID);
+        game.press(SCREEN_HEIGHT);
+        while (game.isAlive())
+            game.tick();
+        assertEquals(DeathCause.BOTTOM, game.getDeathCause());
+        // The bottom spikes are solid from the top of their image, so the duck dies on them first.
+        assertTrue(game.getDuck().getY() + SPRITES.getDuckHeight()
+                > SCREEN_HEIGHT - SPRITES.getSpikeSize());
+    }
+
+    @Test
+    public void curveIsReadBackFromText() throws Exception {
+        DifficultyCurve curve = DifficultyCurve.parse(DifficultyCurve.DEFAULT.toString());
+        for (int score = 0; score < 60; score++)
+            assertEquals(DifficultyCurve.DEFAULT.getSpikes(score), curve.getSpikes(score));
+        assertEquals(4, curve.getSpikes(12));
+        assertEquals(10, curve.getSpikes(1000));
+    }
+
+    @Test
+    public void millionsOfTicks() throws Exception {
+        Game game = newGame(7);
+        play(game, 2000000);
+        assertTrue(restarts > 0 || game.getScore() > 0);
+    }
+
+    /**
+     * Construct a game on the test screen.
+     * @param seed  The seed of the spikes.
+     * @return      The game.
+     */
+    private Game newGame(long seed) {
+        return TestGames.newGame(seed, listener);
+    }
+
+    /**
+     * Let a simple bot play, restarting whenever the duck dies.
+     * @param game  The game to play.
+     * @param ticks The number of ticks to play for.
+     */
+    private void play(Game game, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            if (!game.isAlive())
+                game.press(0);
+            keepAlive(game);
+            game.tick();
+        }
+    }
+
+    /**
+     * Jump when the duck falls below the middle of the screen.
+     * @param game  The game to play.
+     */
+    private void keepAlive(Game game) {
+        DuckBody duck = game.getDuck();
+        if (!game.isRunning() || (duck.getY() > SCREEN_HEIGHT / 2 && duck.getVelocityY() > 0))
+            game.press(SCREEN_HEIGHT);
+    }
+
+}
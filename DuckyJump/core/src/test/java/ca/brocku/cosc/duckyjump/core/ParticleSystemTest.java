@@ -0,0 +1,76 @@
+package ca.brocku.cosc.duckyjump.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static ca.brocku.cosc.duckyjump.core.TestGames.*;
+import static org.junit.Assert.*;
+
+/**
+ * Spawns, moves and removes particles, and checks that the swap remove keeps the right ones.
+ */
+public class ParticleSystemTest {
+
+    @Test
+    public void shrunkParticlesAreRemovedAndTheRestKept() throws Exception {
+        ParticleSystem particles = new ParticleSystem(8, new Random(1));
+        for (int i = 0; i < 6; i++)
+            particles.spawn(i % 2, i, 0, 0, 0, 0, i % 2 == 0 ? 1 : 3, 1);
+        assertEquals(3, particles.count(0));
+        assertEquals(3, particles.count(1));
+
+        particles.update();
+        assertEquals(3, particles.size());
+        assertEquals(0, particles.count(0));
+        assertEquals(3, particles.count(1));
+        float xs = 0;
+        for (int i = 0; i < particles.size(); i++) {
+            assertEquals(1, particles.getKind(i));
+            assertEquals(2, particles.getSize(i, 0), 0);
+            xs += particles.getX(i, 0);
+        }
+        assertEquals(1 + 3 + 5, xs, 0);
+    }
+
+    @Test
+    public void particlesMoveAndFall() throws Exception {
+        ParticleSystem particles = new ParticleSystem(1, new Random(1));
+        particles.spawn(0, 10, 20, 2, -3, 1, 10, 1);
+        particles.update(2);
+        assertEquals(14, particles.getX(0, 0), 0);
+        assertEquals(20 - 3 - 2, particles.getY(0, 0), 0);
+        assertEquals(8, particles.getSize(0, 0), 0);
+        assertEquals(7.5f, particles.getSize(0, 0.5f), 0);
+        assertEquals(10, particles.getStartSize(0), 0);
+    }
+
+    @Test
+    public void fullSystemDropsParticles() throws Exception {
+        ParticleSystem particles = new ParticleSystem(100, new Random(1));
+        ParticleEmitter.DEATH_EMITTER.emit(particles, 0, 0);
+        ParticleEmitter.DEATH_EMITTER.emit(particles, 0, 0);
+        ParticleEmitter.DEATH_EMITTER.emit(particles, 0, 0);
+        assertEquals(100, particles.size());
+        assertEquals(100, particles.count(ParticleEmitter.DEATH_BURST));
+        assertFalse(particles.spawn(0, 0, 0, 0, 0, 0, 1, 1));
+
+        particles.clear();
+        assertEquals(0, particles.size());
+        assertEquals(0, particles.count(ParticleEmitter.DEATH_BURST));
+    }
+
+    @Test
+    public void deathBurstPlaysOutAfterTheDuckDies() throws Exception {
+        Game game = newGame(1);
+        game.press(SCREEN_HEIGHT);
+        while (game.isAlive())
+            game.tick();
+        assertTrue(game.isAnimating());
+        assertTrue(game.getParticles().count(ParticleEmitter.DEATH_BURST) > 0);
+        while (game.isAnimating())
+            game.tick();
+        assertEquals(0, game.getParticles().size());
+    }
+
+}
@@ -0,0 +1,66 @@
+package ca.brocku.cosc.duckyjump.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the percentiles of the phase timer, using made up frame times.
+ */
+public class PhaseTimerTest {
+
+    private static final long MILLI = 1000000;
+
+    @Test
+    public void percentilesOfFrameTimes() throws Exception {
+        PhaseTimer timer = new PhaseTimer();
+        timer.setEnabled(true);
+
+        // 98 frames of 16 ms, then one of 25 ms and one of 60 ms.
+        long now = 0;
+        timer.frame(now);
+        for (int i = 0; i < 98; i++)
+            timer.frame(now += 16 * MILLI);
+        timer.frame(now += 25 * MILLI);
+        timer.frame(now += 60 * MILLI);
+
+        assertEquals(100, timer.getCount(PhaseTimer.FRAME));
+        assertEquals(16 * MILLI + MILLI / 10, timer.getPercentile(PhaseTimer.FRAME, 50));
+        assertEquals(16 * MILLI + MILLI / 10, timer.getPercentile(PhaseTimer.FRAME, 95));
+        assertEquals(25 * MILLI + MILLI / 10, timer.getPercentile(PhaseTimer.FRAME, 99));
+        assertEquals(60 * MILLI, timer.getPercentile(PhaseTimer.FRAME, 100));
+        assertEquals(60 * MILLI, timer.getMax(PhaseTimer.FRAME));
+        assertEquals(60 * MILLI, timer.getRecent(PhaseTimer.FRAME, 0));
+        assertEquals(25 * MILLI, timer.getRecent(PhaseTimer.FRAME, 1));
+    }
+
+    @Test
+    public void oldSamplesAreForgotten() throws Exception {
+        PhaseTimer timer = new PhaseTimer();
+        timer.setEnabled(true);
+
+        long now = 0;
+        timer.frame(now);
+        timer.frame(now += 100 * MILLI);
+        for (int i = 0; i < timer.getCapacity(); i++)
+            timer.frame(now += 8 * MILLI);
+
+        assertEquals(timer.getCapacity(), timer.getCount(PhaseTimer.FRAME));
+        assertEquals(8 * MILLI, timer.getMax(PhaseTimer.FRAME));
+        assertEquals(8 * MILLI + MILLI / 10, timer.getPercentile(PhaseTimer.FRAME, 100));
+    }
+
+    @Test
+    public void nothingIsTimedWhenOff() throws Exception {
+        PhaseTimer timer = new PhaseTimer();
+        timer.frame(0);
+        timer.begin(PhaseTimer.DRAW);
+        timer.end(PhaseTimer.DRAW);
+        timer.frame(16 * MILLI);
+
+        assertEquals(0, timer.getCount(PhaseTimer.FRAME));
+        assertEquals(0, timer.getCount(PhaseTimer.DRAW));
+        assertEquals(0, timer.getPercentile(PhaseTimer.FRAME, 50));
+    }
+
+}
@@ -0,0 +1,82 @@
+package ca.brocku.cosc.duckyjump.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Feeds the governor frame times and checks that it goes down quickly, up slowly, and waits longer
+ * after going up too early.
+ */
+public class QualityGovernorTest {
+
+    private static final long SLOW = QualityGovernor.FRAME_BUDGET;
+    private static final long FAST = QualityGovernor.FRAME_BUDGET / 4;
+
+    /**
+     * Report the same frame time a number of times.
+     * @param governor  The governor.
+     * @param nanos     The time of every frame.
+     * @param frames    The number of frames.
+     */
+    private static void frames(QualityGovernor governor, long nanos, int frames) {
+        for (int i = 0; i < frames; i++)
+            governor.frame(nanos);
+    }
+
+    @Test
+    public void slowFramesLowerTheQuality() throws Exception {
+        QualityGovernor governor = new QualityGovernor();
+        frames(governor, FAST, 100);
+        assertEquals(0, governor.getLevel());
+
+        frames(governor, SLOW, 4);
+        assertEquals(QualityGovernor.FEWER_PARTICLES, governor.getLevel());
+        assertEquals(0.5f, governor.getParticleDensity(), 0);
+        assertTrue(governor.isAntiAlias());
+
+        frames(governor, SLOW, 1000);
+        assertEquals(QualityGovernor.LEVELS - 1, governor.getLevel());
+        assertFalse(governor.isAntiAlias());
+        assertFalse(governor.isRingAnimated());
+        assertTrue(governor.getRenderScale() < 1);
+    }
+
+    @Test
+    public void aFewSlowFramesAreTolerated() throws Exception {
+        QualityGovernor governor = new QualityGovernor();
+        for (int i = 0; i < 300; i++)
+            governor.frame(i % 10 == 0 ? SLOW : FAST);
+        assertEquals(0, governor.getLevel());
+    }
+
+    @Test
+    public void fastFramesRaiseTheQualitySlowly() throws Exception {
+        QualityGovernor governor = new QualityGovernor();
+        frames(governor, SLOW, 4);
+        assertEquals(1, governor.getLevel());
+
+        frames(governor, FAST, 30 * 3);
+        assertEquals(1, governor.getLevel());
+        frames(governor, FAST, 30);
+        assertEquals(0, governor.getLevel());
+        assertEquals(1, governor.getStepsUp());
+    }
+
+    @Test
+    public void goingUpTooEarlyWaitsLonger() throws Exception {
+        QualityGovernor governor = new QualityGovernor();
+        frames(governor, SLOW, 4);
+        frames(governor, FAST, 30 * 4);
+        assertEquals(0, governor.getLevel());
+
+        frames(governor, SLOW, 4); // Right after going up.
+        assertEquals(1, governor.getLevel());
+        frames(governor, FAST, 30 * 4);
+        assertEquals(1, governor.getLevel());
+        frames(governor, FAST, 30 * 4);
+        assertEquals(0, governor.getLevel());
+        assertEquals(2, governor.getStepsDown());
+    }
+
+}
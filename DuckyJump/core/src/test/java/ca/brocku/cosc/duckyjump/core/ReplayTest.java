@@ -0,0 +1,150 @@
+package ca.brocku.cosc.duckyjump.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static ca.brocku.cosc.duckyjump.core.TestGames.*;
+import static org.junit.Assert.*;
+
+/**
+ * Records a session played by a bot and checks that replaying it goes through the same states.
+ */
+public class ReplayTest {
+
+    @Test
+    public void replayEndsLikeTheRecordedSession() throws Exception {
+        Recording recording = new Recording(99, SCREEN_WIDTH, SCREEN_HEIGHT, SPRITES);
+        Game played = record(recording, 60 * 60 * 10);
+        while (played.isRunning())
+            played.tick(); // No more inputs, so the duck falls to its death like in the replay.
+
+        Game replayed = new Replay(load(save(recording)), LISTENER).run();
+
+        assertTrue(recording.size() > 100);
+        assertEquals(played.getTicks(), replayed.getTicks());
+        assertEquals(played.getScore(), replayed.getScore());
+        assertEquals(played.getDuck().getX(), replayed.getDuck().getX(), 0f);
+        assertEquals(played.getDuck().getY(), replayed.getDuck().getY(), 0f);
+    }
+
+    @Test
+    public void replayOnScreenFollowsEveryTick() throws Exception {
+        Recording recording = new Recording(5, SCREEN_WIDTH, SCREEN_HEIGHT, SPRITES);
+        Game played = newGame(5);
+        played.setRecording(recording);
+        float[] ys = new float[60 * 60];
+        int[] scores = new int[ys.length];
+        while (played.getTicks() < ys.length) {
+            int before = played.getTicks();
+            play(played);
+            played.tick();
+            if (played.getTicks() != before) {
+                ys[before] = played.getDuck().getY();
+                scores[before] = played.getScore();
+            }
+        }
+
+        // Only the ticks where the duck moved are compared, not the pauses of the replay.
+        Replay replay = new Replay(recording, LISTENER);
+        replay.setPause(30);
+        Game replayed = replay.getGame();
+        int checked = 0;
+        while (replayed.getTicks() < played.getTicks()) {
+            int before = replayed.getTicks();
+            replay.tick();
+            if (replayed.getTicks() != before) {
+                assertEquals(ys[checked], replayed.getDuck().getY(), 0f);
+                assertEquals(scores[checked], replayed.getScore());
+                checked++;
+            }
+        }
+        assertEquals(ys.length, checked);
+    }
+
+    @Test
+    public void replayMovesInTheRecordedSteps() throws Exception {
+        Recording recording = new Recording(7, SCREEN_WIDTH, SCREEN_HEIGHT, SPRITES);
+        recording.setStepTicks(3);
+        Game played = newGame(7);
+        played.setStepTicks(3);
+        played.setRecording(recording);
+        for (int i = 0; i < 60 * 60; i++) {
+            play(played);
+            played.tick();
+        }
+        while (played.isRunning())
+            played.tick();
+
+        Game replayed = new Replay(load(save(recording)), LISTENER).run();
+
+        assertEquals(3, replayed.getStepTicks());
+        assertEquals(played.getTicks(), replayed.getTicks());
+        assertEquals(played.getScore(), replayed.getScore());
+        assertEquals(played.getDuck().getY(), replayed.getDuck().getY(), 0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stepThatDoesNotFitIsRejected() throws Exception {
+        Recording recording = new Recording(7, SCREEN_WIDTH, SCREEN_HEIGHT, SPRITES);
+        recording.setStepTicks(Recording.MAX_STEP_TICKS);
+        recording.setStepTicks(Recording.MAX_STEP_TICKS + 1);
+    }
+
+    @Test
+    public void inputsTakeAFewBytes() throws Exception {
+        Recording recording = new Recording(1, SCREEN_WIDTH, SCREEN_HEIGHT, SPRITES);
+        for (int i = 0; i < 1000; i++)
+            recording.add(i * 30, Recording.JUMP);
+        recording.add(1000000, Recording.RESTART);
+
+        byte[] bytes = save(recording);
+        Recording loaded = load(bytes);
+
+        assertTrue(bytes.length < 1100);
+        assertEquals(recording.size(), loaded.size());
+        assertEquals(1000000, loaded.getTick(1000));
+        assertEquals(Recording.RESTART, loaded.getKind(1000));
+        assertEquals(SPRITES.getDuckHeight(), loaded.getDuckHeight());
+    }
+
+    /**
+     * Let a simple bot play while recording, restarting whenever the duck dies.
+     * @param recording     Where to record the inputs.
+     * @param ticks         The number of ticks to play for.
+     * @return              The game that was played.
+     */
+    private Game record(Recording recording, int ticks) {
+        Game game = newGame(recording.getSeed());
+        game.setRecording(recording);
+        for (int i = 0; i < ticks; i++) {
+            play(game);
+            game.tick();
+        }
+        return game;
+    }
+
+    /**
+     * Restart when the duck is dead, and jump when it falls below the middle of the screen.
+     * @param game  The game to play.
+     */
+    private void play(Game game) {
+        DuckBody duck = game.getDuck();
+        if (!game.isAlive())
+            game.press(0);
+        else if (!game.isRunning() || (duck.getY() > SCREEN_HEIGHT / 2 && duck.getVelocityY() > 0))
+            game.press(SCREEN_HEIGHT);
+    }
+
+    private static byte[] save(Recording recording) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recording.write(out);
+        return out.toByteArray();
+    }
+
+    private static Recording load(byte[] bytes) throws Exception {
+        return Recording.read(new ByteArrayInputStream(bytes));
+    }
+
+}
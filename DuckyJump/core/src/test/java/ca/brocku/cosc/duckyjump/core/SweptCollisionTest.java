@@ -0,0 +1,164 @@
+package ca.brocku.cosc.duckyjump.core;
+
+import org.junit.Test;
+
+import static ca.brocku.cosc.duckyjump.core.TestGames.*;
+import static org.junit.Assert.*;
+
+/**
+ * Moves the duck several ticks at a time and checks that it ends up where, and dies the way, it
+ * does one tick at a time.
+ */
+public class SweptCollisionTest {
+
+    private static final int[] STEPS = {2, 3, 4};
+
+    @Test
+    public void stepEndsWhereTheTicksEnd() throws Exception {
+        for (int step : STEPS) {
+            DuckBody fine = newDuck(400, 900);
+            DuckBody coarse = newDuck(400, 900);
+            for (int tick = 0; tick < 240; tick += step) {
+                if (tick % 36 == 0) {
+                    fine.jump();
+                    coarse.jump();
+                }
+                for (int i = 0; i < step; i++)
+                    fine.update();
+                coarse.update(step);
+                assertEquals(fine.getDirection(), coarse.getDirection());
+                assertEquals(fine.getY(), coarse.getY(), 0);
+                assertEquals(fine.getX(), coarse.getX(), 0);
+            }
+        }
+    }
+
+    @Test
+    public void highestPointInsideAStepIsFound() throws Exception {
+        for (int step : STEPS) {
+            for (int before = 0; before < 20; before++) {
+                DuckBody fine = newDuck(400, 900);
+                DuckBody coarse = newDuck(400, 900);
+                fine.jump();
+                coarse.jump();
+                for (int i = 0; i < before; i++) {
+                    fine.update();
+                    coarse.update();
+                }
+
+                float highestX = Float.NaN, highestY = Float.MAX_VALUE;
+                for (int i = 0; i < step; i++) {
+                    fine.update();
+                    if (fine.getY() < highestY) {
+                        highestX = fine.getX();
+                        highestY = fine.getY();
+                    }
+                }
+                coarse.update(step);
+                assertEquals(highestX, coarse.getHighestX(), 0);
+                assertEquals(highestY, coarse.getHighestY(), 0);
+            }
+        }
+    }
+
+    @Test
+    public void wallIsTouchedAtTheRightTick() throws Exception {
+        for (int step : STEPS) {
+            for (int gap = 0; gap < 60; gap += 7) {
+                DuckBody fine = newDuck(SCREEN_WIDTH - DUCK_WIDTH - gap, 900);
+                DuckBody coarse = newDuck(SCREEN_WIDTH - DUCK_WIDTH - gap, 900);
+                fine.jump();
+                coarse.jump();
+
+                float contactY = Float.NaN;
+                for (int i = 0; i < step; i++) {
+                    fine.update();
+                    if (fine.getDirection() == Direction.LEFT && Float.isNaN(contactY))
+                        contactY = fine.getY();
+                }
+                coarse.update(step);
+                if (Float.isNaN(contactY)) {
+                    assertEquals(Direction.RIGHT, coarse.getDirection());
+                } else {
+                    assertEquals(Direction.LEFT, coarse.getDirection());
+                    assertEquals(SCREEN_WIDTH - DUCK_WIDTH, coarse.getContactX(), 0);
+                    assertEquals(contactY, coarse.getContactY(), 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void coarseStepsDieLikeFineSteps() throws Exception {
+        assertCoarseStepsDieLikeFineSteps(null);
+    }
+
+    @Test
+    public void coarseStepsDieLikeFineStepsDownToThePixel() throws Exception {
+        assertCoarseStepsDieLikeFineSteps(SOLID);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stepOfNoTicksIsRejected() throws Exception {
+        newGame(1).setStepTicks(0);
+    }
+
+    /**
+     * Construct a duck that is flying right.
+     * @param x     The x coordinate of the duck.
+     * @param y     The y coordinate of the duck.
+     * @return      The duck.
+     */
+    private static DuckBody newDuck(float x, float y) {
+        DuckBody duck = new DuckBody(DUCK_WIDTH, DUCK_HEIGHT);
+        duck.setScreenWidth(SCREEN_WIDTH);
+        duck.setPosition(x, y);
+        return duck;
+    }
+
+    /**
+     * Check that games played several ticks at a time die the way they do one tick at a time.
+     * Jumping too often flies into the top, too rarely falls into the bottom, and in between the
+     * duck bounces until the side spikes get it.
+     * @param masks     The masks of the collision checks, or null for the rectangle checks.
+     */
+    private static void assertCoarseStepsDieLikeFineSteps(SpriteMasks masks) {
+        int[] jumpEvery = {12, 24, 36, 48, 60};
+        for (int every : jumpEvery) {
+            for (long seed = 1; seed <= 20; seed++) {
+                Game fine = play(seed, 1, every, masks);
+                for (int step : STEPS) {
+                    Game coarse = play(seed, step, every, masks);
+                    String game = "seed " + seed + ", a jump every " + every + " ticks, step "
+                            + step;
+                    assertEquals(game, fine.getDeathCause(), coarse.getDeathCause());
+                    assertEquals(game, fine.getScore(), coarse.getScore());
+                    assertTrue(game, Math.abs(fine.getTicks() - coarse.getTicks()) < step);
+                }
+            }
+        }
+    }
+
+    /**
+     * Play a game until the duck dies, jumping at a fixed rate.
+     * @param seed          The seed of the spikes.
+     * @param stepTicks     The number of ticks per step.
+     * @param jumpEvery     The number of ticks between the jumps, a multiple of every step.
+     * @param masks         The masks of the collision checks, or null for the rectangle checks.
+     * @return              The game after the duck died.
+     */
+    private static Game play(long seed, int stepTicks, int jumpEvery, SpriteMasks masks) {
+        Game game = newGame(seed);
+        game.setStepTicks(stepTicks);
+        game.setSpriteMasks(masks);
+        game.press(SCREEN_HEIGHT);
+        while (game.isAlive() && game.getTicks() < 60 * 60) {
+            if (game.getTicks() > 0 && game.getTicks() % jumpEvery == 0)
+                game.press(SCREEN_HEIGHT);
+            game.tick();
+        }
+        assertFalse("The duck never died", game.isAlive());
+        return game;
+    }
+
+}
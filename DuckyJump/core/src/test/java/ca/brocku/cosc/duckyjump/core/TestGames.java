@@ -0,0 +1,104 @@
+package ca.brocku.cosc.duckyjump.core;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The screen, sprites and listener that the tests play their games with.
+ */
+class TestGames {
+
+    static final int SCREEN_WIDTH = 1080, SCREEN_HEIGHT = 1920;
+    static final int DUCK_WIDTH = 169, DUCK_HEIGHT = 150, SPIKE_SIZE = 120;
+
+    static final SpriteMetrics SPRITES = new SpriteMetrics() {
+        @Override
+        public int getDuckWidth() {
+            return DUCK_WIDTH;
+        }
+
+        @Override
+        public int getDuckHeight() {
+            return DUCK_HEIGHT;
+        }
+
+        @Override
+        public int getSpikeSize() {
+            return SPIKE_SIZE;
+        }
+    };
+
+    // Masks where every pixel of the images is solid.
+    static final SpriteMasks SOLID = new SpriteMasks() {
+        private AlphaMask duck = solid(DUCK_WIDTH, DUCK_HEIGHT);
+        private AlphaMask spike = solid(SPIKE_SIZE, SPIKE_SIZE);
+
+        @Override
+        public AlphaMask getDuckMask(Direction direction, boolean jumping) {
+            return duck;
+        }
+
+        @Override
+        public AlphaMask getTopSpikeMask() {
+            return spike;
+        }
+
+        @Override
+        public AlphaMask getBottomSpikeMask() {
+            return spike;
+        }
+
+        @Override
+        public AlphaMask getSideSpikeMask(Direction wall) {
+            return spike;
+        }
+    };
+
+    // Ignores the game overs and restarts.
+    static final GameListener LISTENER = new GameListener() {
+        @Override
+        public void onGameOver(int score) {
+        }
+
+        @Override
+        public void onRestart() {
+        }
+    };
+
+    private TestGames() {
+    }
+
+    /**
+     * Construct a game on the test screen that nothing listens to.
+     * @param seed  The seed of the spikes.
+     * @return      The game.
+     */
+    static Game newGame(long seed) {
+        return newGame(seed, LISTENER);
+    }
+
+    /**
+     * Construct a game on the test screen.
+     * @param seed      The seed of the spikes.
+     * @param listener  The listener of the game.
+     * @return          The game.
+     */
+    static Game newGame(long seed, GameListener listener) {
+        Game game = new Game(SPRITES, new Random(seed), listener);
+        game.setDimensions(SCREEN_WIDTH, SCREEN_HEIGHT);
+        return game;
+    }
+
+    /**
+     * Make a mask where every pixel is solid.
+     * @param width     The width of the mask.
+     * @param height    The height of the mask.
+     * @return          The mask.
+     */
+    private static AlphaMask solid(int width, int height) {
+        int[] pixels = new int[width * height];
+        Arrays.fill(pixels, 0xff000000);
+        return new AlphaMask(width, height, pixels, 128);
+    }
+
+}
@@ -0,0 +1,86 @@
+package ca.brocku.cosc.duckyjump.tools;
+
+import java.util.Random;
+
+import ca.brocku.cosc.duckyjump.core.DuckBody;
+import ca.brocku.cosc.duckyjump.core.Game;
+import ca.brocku.cosc.duckyjump.core.SpikeWall;
+
+/**
+ * A player that aims the duck at the gap in the spikes closest to it, on the wall it is flying
+ * towards. Like a person, it does not aim perfectly: every time it picks a gap, it misjudges the
+ * center of the gap by a random amount.
+ */
+class Bot {
+
+    private static final int JUMP_MARGIN = 10; // Jump when this far below the target.
+    private static final int JUMP_HEIGHT = 140; // How high a jump lifts the duck, roughly.
+
+    private Random random;
+    private float error; // The maximum misjudgement in pixels.
+    private float miss; // The misjudgement of the current target.
+    private int lastScore = -1; // The score when the target was last picked.
+
+    /**
+     * Construct a bot.
+     * @param random    Decides how much the bot misjudges the gaps.
+     * @param error     The maximum misjudgement in pixels.
+     */
+    Bot(Random random, float error) {
+        this.random = random;
+        this.error = error;
+    }
+
+    /**
+     * Press the screen if the duck should jump now. This is to be called before every tick.
+     * @param game      The game to play.
+     * @param height    The height of the screen.
+     */
+    void act(Game game, int height) {
+        if (!game.isRunning()) {
+            game.press(height); // The first jump.
+            return;
+        }
+
+        if (game.getScore() != lastScore) {
+            // New spikes, so a new gap to aim for.
+            lastScore = game.getScore();
+            miss = (random.nextFloat() * 2 - 1) * error;
+        }
+
+        DuckBody duck = game.getDuck();
+        float target = getTarget(game.getSpikes(), duck.getCenterY(), height) + miss;
+        // A jump towards a gap right below the ceiling would end in the top spikes.
+        float highest = game.getSpikes().getSpikeHeight() / 3 + duck.getHeight() / 2 + JUMP_HEIGHT;
+        target = Math.max(target, highest);
+        if (duck.getCenterY() > target + JUMP_MARGIN && duck.getVelocityY() >= 0)
+            game.press(height);
+    }
+
+    /**
+     * Find the center of the gap that is closest to the duck.
+     * @param spikes    The spikes on the wall the duck is flying towards.
+     * @param y         Where the duck is.
+     * @param height    The height of the screen.
+     * @return          The y coordinate to aim for.
+     */
+    private static float getTarget(SpikeWall spikes, float y, int height) {
+        int base = spikes.getSpikeBase();
+        float best = height / 2;
+        float bestDistance = Float.MAX_VALUE;
+        boolean any = false;
+        for (int i = 0; i < spikes.getSlots(); i++) {
+            if (spikes.hasSpike(i)) {
+                any = true;
+                continue;
+            }
+            float center = base + base * i + base / 2f;
+            if (Math.abs(center - y) < bestDistance) {
+                bestDistance = Math.abs(center - y);
+                best = center;
+            }
+        }
+        return any ? best : height / 2;
+    }
+
+}
@@ -0,0 +1,205 @@
+package ca.brocku.cosc.duckyjump.tools;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+import ca.brocku.cosc.duckyjump.core.DifficultyCurve;
+import ca.brocku.cosc.duckyjump.core.FixedTimestep;
+import ca.brocku.cosc.duckyjump.core.SpikeWall;
+import ca.brocku.cosc.duckyjump.core.SpriteMetrics;
+
+/**
+ * Finds out how hard a difficulty curve is by letting a bot play a large number of games with it.
+ * Every combination of the given curves and screen heights is played, and for each the tool
+ * reports the share of the games that reached every step of the curve, what killed the duck (the
+ * side, top or bottom spikes), and how often the curve asked for more spikes than fit on the wall.
+ *
+ * The games are spread over all the cores with fork/join. For example:
+ *   --games 100000 --heights 1600,1920,2400 --curve 0:0,1:2,2:3,5:4,13:5 --curve default
+ */
+public class DifficultyAnalyser {
+
+    private static final String USAGE =
+            "Usage: DifficultyAnalyser [options]\n"
+            + "  --games N          games per curve and height (default 10000)\n"
+            + "  --curve C          score:spikes steps such as 0:0,1:2,5:4, or 'default'\n"
+            + "                     (repeatable)\n"
+            + "  --heights H,H,...  screen heights in pixels (default 1920)\n"
+            + "  --width W          screen width in pixels (default 1080)\n"
+            + "  --sprites F        the sprite manifest of the app build (default: the sizes on\n"
+            + "                     xxhdpi)\n"
+            + "  --error E          how far off the bot aims, in pixels (default 40)\n"
+            + "  --minutes M        a game that lasts this long counts as survived (default 10)\n"
+            + "  --step S           ticks the game moves at a time (default 1)\n"
+            + "  --threads T        threads to play on (default: all the cores)\n"
+            + "  --seed S           the seed of the first game (default 1)";
+
+    // The sizes of the images on a 1080 x 1920 screen (xxhdpi).
+    private static final SpriteMetrics SPRITES = new SpriteMetrics() {
+        @Override
+        public int getDuckWidth() {
+            return 169;
+        }
+
+        @Override
+        public int getDuckHeight() {
+            return 150;
+        }
+
+        @Override
+        public int getSpikeSize() {
+            return 120;
+        }
+    };
+
+    /**
+     * Static classes should not be instantiated.
+     */
+    private DifficultyAnalyser(){}
+
+    /**
+     * Run the analysis.
+     * @param args  The options, see USAGE.
+     */
+    public static void main(String[] args) {
+        int games = 10000, width = 1080, minutes = 10, step = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        float error = 40;
+        long seed = 1;
+        List<DifficultyCurve> curves = new ArrayList<>();
+        List<Integer> heights = new ArrayList<>();
+        SpriteMetrics sprites = SPRITES;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--help")) {
+                    System.out.println(USAGE);
+                    return;
+                }
+                if (i + 1 == args.length)
+                    throw new IllegalArgumentException("Missing the value of " + option);
+                String value = args[++i];
+                switch (option) {
+                    case "--games":
+                        games = Integer.parseInt(value);
+                        break;
+                    case "--curve":
+                        curves.add(value.equals("default")
+                                ? DifficultyCurve.DEFAULT
+                                : DifficultyCurve.parse(value));
+                        break;
+                    case "--heights":
+                        for (String height : value.split(","))
+                            heights.add(Integer.parseInt(height.trim()));
+                        break;
+                    case "--width":
+                        width = Integer.parseInt(value);
+                        break;
+                    case "--sprites":
+                        sprites = readSprites(value);
+                        break;
+                    case "--error":
+                        error = Float.parseFloat(value);
+                        break;
+                    case "--minutes":
+                        minutes = Integer.parseInt(value);
+                        break;
+                    case "--step":
+                        step = Integer.parseInt(value);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        if (curves.isEmpty())
+            curves.add(DifficultyCurve.DEFAULT);
+        if (heights.isEmpty())
+            heights.add(1920);
+
+        PrintStream out = System.out;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        long ticks = 0;
+        for (DifficultyCurve curve : curves) {
+            for (int height : heights) {
+                Simulation.Setup setup = new Simulation.Setup();
+                setup.curve = curve;
+                setup.sprites = sprites;
+                setup.width = width;
+                setup.height = height;
+                setup.botError = error;
+                setup.maxTicks = minutes * 60 * FixedTimestep.TICKS_PER_SECOND;
+                setup.stepTicks = step;
+                setup.seed = seed;
+
+                long configStart = System.nanoTime();
+                Results results = pool.invoke(new Simulation(setup, 0, games));
+                double seconds = (System.nanoTime() - configStart) / 1e9;
+                ticks += results.getTicks();
+
+                int slots = new SpikeWall(sprites.getSpikeSize(), null)
+                        .getMaxPossibleSpikes(height);
+                out.printf(Locale.CANADA, "curve %s, screen %dx%d (%d spike slots), %.1f s%n",
+                        curve, width, height, slots, seconds);
+                results.print(out, getMilestones(curve));
+                out.println();
+            }
+        }
+        pool.shutdown();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        out.printf(Locale.CANADA, "%d threads, %.1f s, %.1f million ticks per second%n",
+                threads, seconds, ticks / seconds / 1e6);
+    }
+
+    /**
+     * Read the sizes of the sprites from the manifest that the app build generates.
+     * @param path  The path of the manifest.
+     * @return      The sizes of the sprites.
+     */
+    private static SpriteMetrics readSprites(String path) {
+        try {
+            InputStream in = new FileInputStream(path);
+            try {
+                return SpriteManifest.read(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read the sprites: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the scores to report the survival at: the steps of the curve, and the highest score
+     * that is counted.
+     * @param curve     The curve.
+     * @return          The scores.
+     */
+    private static int[] getMilestones(DifficultyCurve curve) {
+        int[] steps = curve.getStepScores();
+        int[] milestones = new int[steps.length];
+        System.arraycopy(steps, 1, milestones, 0, steps.length - 1); // Everyone reaches 0.
+        milestones[steps.length - 1] = Results.MAX_SCORE;
+        return milestones;
+    }
+
+}
@@ -0,0 +1,126 @@
+package ca.brocku.cosc.duckyjump.tools;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+import ca.brocku.cosc.duckyjump.core.DeathCause;
+
+/**
+ * What happened in a batch of games: how far the games got, what killed the duck, and how often
+ * the difficulty curve asked for more spikes than fit on the wall. Every thread fills its own
+ * results, and they are merged when the threads are done.
+ */
+class Results {
+
+    static final int MAX_SCORE = 100; // Higher scores are counted as 100.
+
+    private long[] finalScores = new long[MAX_SCORE + 1]; // The number of games per final score.
+    private long[] deaths = new long[DeathCause.values().length];
+    private long survived; // Games that were still going when the time ran out.
+    private long spawns, capped;
+    private long ticks;
+
+    /**
+     * Count a game that has ended.
+     * @param score     The final score.
+     * @param cause     What killed the duck, or null if it survived until the time ran out.
+     */
+    void addGame(int score, DeathCause cause) {
+        finalScores[Math.min(score, MAX_SCORE)]++;
+        if (cause == null)
+            survived++;
+        else
+            deaths[cause.ordinal()]++;
+    }
+
+    /**
+     * Count spikes being spawned on a wall.
+     * @param wasCapped     True if there were fewer spikes than the curve asked for.
+     */
+    void addSpawn(boolean wasCapped) {
+        spawns++;
+        if (wasCapped)
+            capped++;
+    }
+
+    /**
+     * Count the ticks that were played.
+     * @param ticks     The number of ticks.
+     */
+    void addTicks(long ticks) {
+        this.ticks += ticks;
+    }
+
+    /**
+     * Add the results of another batch to these.
+     * @param other     The other results.
+     * @return          These results.
+     */
+    Results merge(Results other) {
+        for (int i = 0; i <= MAX_SCORE; i++)
+            finalScores[i] += other.finalScores[i];
+        for (int i = 0; i < deaths.length; i++)
+            deaths[i] += other.deaths[i];
+        survived += other.survived;
+        spawns += other.spawns;
+        capped += other.capped;
+        ticks += other.ticks;
+        return this;
+    }
+
+    /**
+     * Get the number of games.
+     * @return  The number of games.
+     */
+    long getGames() {
+        long games = 0;
+        for (long count : finalScores)
+            games += count;
+        return games;
+    }
+
+    /**
+     * Get the number of ticks that were played.
+     * @return  The number of ticks.
+     */
+    long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Get the share of the games that reached a score.
+     * @param score     The score.
+     * @return          The share between 0 and 1.
+     */
+    double getSurvival(int score) {
+        long reached = 0;
+        for (int i = Math.min(score, MAX_SCORE); i <= MAX_SCORE; i++)
+            reached += finalScores[i];
+        return (double) reached / getGames();
+    }
+
+    /**
+     * Print the results.
+     * @param out           Where to print them.
+     * @param milestones    The scores to print the survival at.
+     */
+    void print(PrintStream out, int[] milestones) {
+        long games = getGames();
+        out.printf(Locale.CANADA, "  games %d, ticks %d%n", games, ticks);
+
+        out.print("  survival:");
+        for (int score : milestones)
+            out.printf(Locale.CANADA, "  %d+ %.1f%%", score, getSurvival(score) * 100);
+        out.println();
+
+        out.print("  deaths:  ");
+        for (DeathCause cause : DeathCause.values())
+            out.printf(Locale.CANADA, "  %s %.1f%%", cause.name().toLowerCase(Locale.CANADA),
+                    100.0 * deaths[cause.ordinal()] / games);
+        out.printf(Locale.CANADA, "  survived %.1f%%%n", 100.0 * survived / games);
+
+        out.printf(Locale.CANADA, "  capped spawns: %.2f%% of %d%n",
+                spawns == 0 ? 0 : 100.0 * capped / spawns, spawns);
+    }
+
+}
@@ -0,0 +1,102 @@
+package ca.brocku.cosc.duckyjump.tools;
+
+import java.util.Random;
+import java.util.concurrent.RecursiveTask;
+
+import ca.brocku.cosc.duckyjump.core.DifficultyCurve;
+import ca.brocku.cosc.duckyjump.core.Game;
+import ca.brocku.cosc.duckyjump.core.GameListener;
+import ca.brocku.cosc.duckyjump.core.SpriteMetrics;
+
+/**
+ * Plays a range of games with one difficulty curve on one screen. The range is split in half until
+ * it is small enough, so that fork/join can spread the games over all the cores. Every game has
+ * its own seed, derived from its index, so the results do not depend on the number of threads.
+ * The games share nothing while they run, and the results are merged on the way back up.
+ */
+class Simulation extends RecursiveTask<Results> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int GAMES_PER_TASK = 64;
+
+    private static final GameListener LISTENER = new GameListener() {
+        @Override
+        public void onGameOver(int score) {
+        }
+
+        @Override
+        public void onRestart() {
+        }
+    };
+
+    private final Setup setup;
+    private final int from, to; // The indices of the games to play.
+
+    /**
+     * Construct a simulation.
+     * @param setup     The curve, the screen and the bot to play with.
+     * @param from      The index of the first game (inclusive).
+     * @param to        The index of the last game (exclusive).
+     */
+    Simulation(Setup setup, int from, int to) {
+        this.setup = setup;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected Results compute() {
+        if (to - from <= GAMES_PER_TASK) {
+            Results results = new Results();
+            for (int i = from; i < to; i++)
+                play(i, results);
+            return results;
+        }
+
+        int middle = (from + to) >>> 1;
+        Simulation left = new Simulation(setup, from, middle);
+        left.fork();
+        Results right = new Simulation(setup, middle, to).compute();
+        return right.merge(left.join());
+    }
+
+    /**
+     * Play one game until the duck dies or the time runs out.
+     * @param index     The index of the game.
+     * @param results   Where to count the game.
+     */
+    private void play(int index, Results results) {
+        long seed = setup.seed + index * 0x9E3779B97F4A7C15L;
+        Game game = new Game(setup.sprites, new Random(seed), LISTENER, setup.curve);
+        game.setStepTicks(setup.stepTicks);
+        game.setDimensions(setup.width, setup.height);
+        Bot bot = new Bot(new Random(~seed), setup.botError);
+
+        int score = 0;
+        while (game.isAlive() && game.getTicks() < setup.maxTicks) {
+            bot.act(game, setup.height);
+            game.tick();
+            if (game.isAlive() && game.getScore() != score) {
+                score = game.getScore();
+                results.addSpawn(game.getSpikes().wasCapped());
+            }
+        }
+        results.addTicks(game.getTicks());
+        results.addGame(game.getScore(), game.getDeathCause());
+    }
+
+    /**
+     * Everything a batch of games is played with.
+     */
+    static class Setup {
+        DifficultyCurve curve;
+        SpriteMetrics sprites;
+        int width, height; // Of the screen.
+        float botError; // The maximum misjudgement of the bot in pixels.
+        int maxTicks; // A game that lasts this long is stopped and counted as survived.
+        int stepTicks; // The number of ticks the game moves at a time.
+        long seed;
+    }
+
+}
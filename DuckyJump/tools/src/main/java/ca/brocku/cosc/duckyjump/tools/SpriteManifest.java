@@ -0,0 +1,116 @@
+package ca.brocku.cosc.duckyjump.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import ca.brocku.cosc.duckyjump.core.SpriteMetrics;
+
+/**
+ * The sizes of the sprites that SpritePreprocessor generated, in units of the world. Every sprite
+ * has a <name>.width and a <name>.height, and the sizes that the game is played with are summed up
+ * as duck.width and duck.height (the largest duck of all the skins), spike.base and spike.height.
+ *
+ * The manifest is written as properties, sorted and without a date, so that the same sprites
+ * always make the same file.
+ */
+public class SpriteManifest {
+
+    private final Map<String, Integer> values = new TreeMap<>();
+
+    /**
+     * Add a sprite.
+     * @param name      The name of the sprite, without the prefix of its resource.
+     * @param width     The width of the sprite.
+     * @param height    The height of the sprite.
+     */
+    public void put(String name, int width, int height) {
+        values.put(name + ".width", width);
+        values.put(name + ".height", height);
+        if (name.startsWith("duck_")) {
+            max("duck.width", width);
+            max("duck.height", height);
+        } else if (name.equals("spike")) {
+            values.put("spike.base", width);
+            values.put("spike.height", height);
+        }
+    }
+
+    /**
+     * Raise a value to at least a number.
+     * @param key       The key of the value.
+     * @param value     The number.
+     */
+    private void max(String key, int value) {
+        Integer current = values.get(key);
+        if (current == null || current < value)
+            values.put(key, value);
+    }
+
+    /**
+     * Write the manifest.
+     * @param out   The stream to write to.
+     * @throws IOException  If it could not be written.
+     */
+    public void write(OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, "ISO-8859-1");
+        writer.write("# Generated by SpritePreprocessor, in units of the world.\n");
+        for (Map.Entry<String, Integer> value : values.entrySet())
+            writer.write(value.getKey() + "=" + value.getValue() + "\n");
+        writer.flush();
+    }
+
+    /**
+     * Read the sizes that the game is played with from a manifest.
+     * @param in    The stream to read from.
+     * @return      The sizes of the duck and the spikes.
+     * @throws IOException  If it could not be read, or a size is missing.
+     */
+    public static SpriteMetrics read(InputStream in) throws IOException {
+        Properties properties = new Properties();
+        properties.load(in);
+        final int duckWidth = getInt(properties, "duck.width");
+        final int duckHeight = getInt(properties, "duck.height");
+        final int spikeSize = getInt(properties, "spike.base");
+        return new SpriteMetrics() {
+            @Override
+            public int getDuckWidth() {
+                return duckWidth;
+            }
+
+            @Override
+            public int getDuckHeight() {
+                return duckHeight;
+            }
+
+            @Override
+            public int getSpikeSize() {
+                return spikeSize;
+            }
+        };
+    }
+
+    /**
+     * Get a size from the properties.
+     * @param properties    The properties.
+     * @param key           The key of the size.
+     * @return              The size.
+     * @throws IOException  If the size is missing or not a number.
+     */
+    private static int getInt(Properties properties, String key) throws IOException {
+        String value = properties.getProperty(key);
+        if (value == null)
+            throw new IOException("The manifest has no " + key);
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("The " + key + " of the manifest is not a number: " + value);
+        }
+    }
+
+}
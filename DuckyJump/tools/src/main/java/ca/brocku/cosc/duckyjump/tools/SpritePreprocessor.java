@@ -0,0 +1,185 @@
+package ca.brocku.cosc.duckyjump.tools;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.imageio.ImageIO;
+
+import ca.brocku.cosc.duckyjump.core.World;
+
+/**
+ * Scales the images of the game down to the size they are drawn at, when the app is built. The art
+ * is drawn much larger than it is shown, so the game used to scale every image down (and turn the
+ * spike on its side for the walls) every time it started. This does it once instead, and writes:
+ *
+ * - The sprites, sized for the density of the World, as sprite_<name>.png in a drawable-nodpi
+ *   directory, so that Android decodes them at the size of the file on every screen. The sprites
+ *   are in units of the world, so a single size is needed rather than one per density.
+ * - A manifest of the sizes of the sprites, as properties (see SpriteManifest), for the tools that
+ *   play the game without the images.
+ *
+ * The sizes are rounded the way Android rounds an image that is loaded for a density, so they are
+ * the sizes the game had when it scaled the images itself. Run by the generateSprites task of the
+ * app module:
+ *   SpritePreprocessor <generated res directory> <manifest file> <art directory>...
+ */
+public class SpritePreprocessor {
+
+    private static final int ART_DENSITY = 160; // The art is drawn for mdpi, like res/drawable.
+    private static final float DUCK_SCALE = 0.3f;
+    private static final float SPIKE_SCALE = 0.2f;
+    private static final String PREFIX = "sprite_";
+
+    /**
+     * Static classes should not be instantiated.
+     */
+    private SpritePreprocessor(){}
+
+    /**
+     * Generate the sprites and their manifest.
+     * @param args  The generated res directory, the manifest file and the art directories.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: SpritePreprocessor <generated res directory> <manifest file>"
+                    + " <art directory>...");
+            System.exit(1);
+        }
+        File drawables = new File(args[0], "drawable-nodpi");
+        if (!drawables.isDirectory() && !drawables.mkdirs())
+            throw new IOException("Could not create " + drawables);
+
+        Map<String, BufferedImage> sprites = new TreeMap<>();
+        for (int i = 2; i < args.length; i++) {
+            File art = new File(args[i]);
+            String[] names = art.list();
+            if (names == null)
+                throw new IOException("Not a directory: " + art);
+            Arrays.sort(names);
+            for (String name : names) {
+                if (name.startsWith("duck_") && name.endsWith(".png")) {
+                    sprites.put(strip(name), scale(read(new File(art, name)), DUCK_SCALE));
+                } else if (name.equals("spike.png")) {
+                    BufferedImage spike = scale(read(new File(art, name)), SPIKE_SCALE);
+                    sprites.put("spike", spike);
+                    sprites.put("spike_side", toSide(spike));
+                }
+            }
+        }
+
+        SpriteManifest manifest = new SpriteManifest();
+        for (Map.Entry<String, BufferedImage> sprite : sprites.entrySet()) {
+            BufferedImage image = sprite.getValue();
+            ImageIO.write(image, "png", new File(drawables, PREFIX + sprite.getKey() + ".png"));
+            manifest.put(sprite.getKey(), image.getWidth(), image.getHeight());
+        }
+        OutputStream out = new FileOutputStream(args[1]);
+        try {
+            manifest.write(out);
+        } finally {
+            out.close();
+        }
+        System.out.printf(Locale.CANADA, "%d sprites written to %s%n", sprites.size(), drawables);
+    }
+
+    /**
+     * Read an image.
+     * @param file  The PNG file.
+     * @return      The image.
+     * @throws IOException  If the file could not be read.
+     */
+    private static BufferedImage read(File file) throws IOException {
+        BufferedImage image = ImageIO.read(file);
+        if (image == null)
+            throw new IOException("Not an image: " + file);
+        return image;
+    }
+
+    /**
+     * Get the name of an image without its extension.
+     * @param file  The name of the file.
+     * @return      The name of the image.
+     */
+    private static String strip(String file) {
+        return file.substring(0, file.lastIndexOf('.'));
+    }
+
+    /**
+     * Scale a piece of art to its size in the world.
+     * @param image     The art.
+     * @param scale     The scaling factor, on top of the density of the world.
+     * @return          The sprite.
+     */
+    static BufferedImage scale(BufferedImage image, float scale) {
+        // The size Android would load the art at for the world, then scaled, rounded as the game
+        // rounds it.
+        float ratio = (float) World.DENSITY / ART_DENSITY;
+        int width = Math.round(scale * (int) (image.getWidth() * ratio + 0.5f));
+        int height = Math.round(scale * (int) (image.getHeight() * ratio + 0.5f));
+
+        // Halve the image until it is less than twice the size, so bilinear filtering skips no
+        // pixels.
+        BufferedImage scaled = toPremultiplied(image);
+        while (scaled.getWidth() / 2 >= width && scaled.getHeight() / 2 >= height)
+            scaled = resize(scaled, scaled.getWidth() / 2, scaled.getHeight() / 2);
+        scaled = resize(scaled, width, height);
+
+        BufferedImage sprite = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = sprite.createGraphics();
+        g.drawImage(scaled, 0, 0, null);
+        g.dispose();
+        return sprite;
+    }
+
+    /**
+     * Copy an image into premultiplied pixels, so that the filtering does not darken the edges.
+     * @param image     The image.
+     * @return          The copy.
+     */
+    private static BufferedImage toPremultiplied(BufferedImage image) {
+        return resize(image, image.getWidth(), image.getHeight());
+    }
+
+    /**
+     * Resize an image with bilinear filtering.
+     * @param image     The image.
+     * @param width     The new width.
+     * @param height    The new height.
+     * @return          The resized image, in premultiplied pixels.
+     */
+    private static BufferedImage resize(BufferedImage image, int width, int height) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = resized.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return resized;
+    }
+
+    /**
+     * Turn the spike of the bottom row (pointing up) into the spike of the left wall (pointing
+     * right): flipped upside down, then a quarter turn counter clockwise.
+     * @param spike     The spike, pointing up.
+     * @return          The spike, pointing right.
+     */
+    static BufferedImage toSide(BufferedImage spike) {
+        int width = spike.getWidth();
+        int height = spike.getHeight();
+        BufferedImage side = new BufferedImage(height, width, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++)
+            for (int x = 0; x < width; x++)
+                side.setRGB(height - 1 - y, width - 1 - x, spike.getRGB(x, y));
+        return side;
+    }
+
+}